@@ -1,6 +1,11 @@
 SET search_path TO hospital_inventory, public;
 
 CREATE EXTENSION IF NOT EXISTS pgcrypto;
+-- Indices de trigramas para busquedas por subcadena (LIKE/ILIKE '%texto%')
+-- y por similitud (operador %).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+-- Quita tildes al indexar y al buscar en search_index.
+CREATE EXTENSION IF NOT EXISTS unaccent;
 
 -- Eliminar tipos si existen
 DROP TYPE IF EXISTS equipment_status CASCADE;
@@ -44,6 +49,7 @@ CREATE TYPE role_enum AS ENUM (
 );
 
 -- ELIMINAR TABLAS
+DROP TABLE IF EXISTS search_index CASCADE;
 DROP TABLE IF EXISTS biomedical_equipment CASCADE;
 DROP TABLE IF EXISTS tech_equipment CASCADE;
 DROP TABLE IF EXISTS equipment CASCADE;
@@ -63,6 +69,12 @@ CREATE TABLE IF NOT EXISTS provider (
     CHECK (position('@' IN contact_email) > 1)
 );
 
+CREATE INDEX IF NOT EXISTS idx_provider_name_trgm ON provider USING GIN (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_provider_tax_id_trgm ON provider USING GIN (tax_id gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_provider_contact_email_trgm ON provider USING GIN (contact_email gin_trgm_ops);
+-- Paginacion por llave (findPage): orden por columna con el id como desempate
+CREATE INDEX IF NOT EXISTS idx_provider_name_id ON provider(name, id);
+
 -- ==============================
 --  TABLE person
 -- ==============================
@@ -75,6 +87,11 @@ CREATE TABLE IF NOT EXISTS person (
     updated_at TIMESTAMPTZ NOT NULL DEFAULT now()
 );
 
+CREATE INDEX IF NOT EXISTS idx_person_full_name_trgm ON person USING GIN (full_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_person_document_trgm ON person USING GIN (document gin_trgm_ops);
+-- Paginacion por llave (findPage)
+CREATE INDEX IF NOT EXISTS idx_person_full_name_id ON person(full_name, id);
+
 -- ==============================
 --  TABLE equipment (CORREGIDA)
 -- ==============================
@@ -96,6 +113,12 @@ CREATE TABLE IF NOT EXISTS equipment (
 CREATE INDEX IF NOT EXISTS idx_equipment_provider ON equipment(provider_id);
 CREATE INDEX IF NOT EXISTS idx_equipment_type ON equipment(type);
 CREATE INDEX IF NOT EXISTS idx_equipment_state ON equipment(state);
+CREATE INDEX IF NOT EXISTS idx_equipment_serial_trgm ON equipment USING GIN (serial gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_equipment_brand_trgm ON equipment USING GIN (brand gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_equipment_model_trgm ON equipment USING GIN (model gin_trgm_ops);
+-- Paginacion por llave (findPage); serial ya tiene indice por ser UNIQUE
+CREATE INDEX IF NOT EXISTS idx_equipment_brand_id ON equipment(brand, id);
+CREATE INDEX IF NOT EXISTS idx_equipment_model_id ON equipment(model, id);
 
 -- ==============================
 --  TABLE biomedical_equipment
@@ -118,3 +141,177 @@ CREATE TABLE IF NOT EXISTS tech_equipment (
     os VARCHAR(60) NOT NULL,
     ram_gb INT NOT NULL
 );
+
+-- ==============================
+--  NOTIFICACION DE CAMBIOS
+-- ==============================
+-- Cada fila insertada, actualizada o eliminada publica en el canal
+-- 'entity_changed' un mensaje "<tabla>:<id>". Las instancias de la
+-- aplicacion escuchan ese canal (LISTEN) para invalidar su cache local.
+CREATE OR REPLACE FUNCTION notify_entity_changed() RETURNS trigger AS $$
+DECLARE
+    changed_id UUID;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        changed_id := OLD.id;
+    ELSE
+        changed_id := NEW.id;
+    END IF;
+    PERFORM pg_notify('entity_changed', TG_TABLE_NAME || ':' || changed_id::text);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_provider_changed
+    AFTER INSERT OR UPDATE OR DELETE ON provider
+    FOR EACH ROW EXECUTE FUNCTION notify_entity_changed();
+
+CREATE TRIGGER trg_person_changed
+    AFTER INSERT OR UPDATE OR DELETE ON person
+    FOR EACH ROW EXECUTE FUNCTION notify_entity_changed();
+
+CREATE TRIGGER trg_equipment_changed
+    AFTER INSERT OR UPDATE OR DELETE ON equipment
+    FOR EACH ROW EXECUTE FUNCTION notify_entity_changed();
+
+CREATE TRIGGER trg_biomedical_equipment_changed
+    AFTER INSERT OR UPDATE OR DELETE ON biomedical_equipment
+    FOR EACH ROW EXECUTE FUNCTION notify_entity_changed();
+
+CREATE TRIGGER trg_tech_equipment_changed
+    AFTER INSERT OR UPDATE OR DELETE ON tech_equipment
+    FOR EACH ROW EXECUTE FUNCTION notify_entity_changed();
+
+-- ==============================
+--  INDICE DE BUSQUEDA UNIFICADO
+-- ==============================
+-- Una fila por equipo, persona o proveedor con el texto que muestra la
+-- pantalla de busqueda y un tsvector con sus palabras. Los triggers lo
+-- mantienen al dia, asi una busqueda en todas las categorias es una sola
+-- consulta sobre un indice GIN.
+CREATE TABLE IF NOT EXISTS search_index (
+    entity_type VARCHAR(30) NOT NULL,
+    entity_id UUID NOT NULL,
+    title TEXT NOT NULL,
+    detail TEXT NOT NULL,
+    extra TEXT NOT NULL,
+    document TSVECTOR NOT NULL,
+    PRIMARY KEY (entity_type, entity_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_search_index_document ON search_index USING GIN (document);
+CREATE INDEX IF NOT EXISTS idx_search_index_entity_id ON search_index(entity_id);
+
+-- Peso A para el nombre o serial, B para el resto de datos.
+CREATE OR REPLACE FUNCTION search_document(main TEXT, other TEXT) RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('simple', unaccent(coalesce(main, ''))), 'A')
+        || setweight(to_tsvector('simple', unaccent(coalesce(other, ''))), 'B');
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION search_index_provider() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM search_index WHERE entity_type = 'PROVIDER' AND entity_id = OLD.id;
+        RETURN NULL;
+    END IF;
+
+    INSERT INTO search_index (entity_type, entity_id, title, detail, extra, document)
+    VALUES ('PROVIDER', NEW.id, NEW.name,
+            'Tax ID: ' || NEW.tax_id,
+            'Email: ' || NEW.contact_email,
+            search_document(NEW.name, NEW.tax_id || ' ' || NEW.contact_email))
+    ON CONFLICT (entity_type, entity_id) DO UPDATE
+        SET title = EXCLUDED.title, detail = EXCLUDED.detail,
+            extra = EXCLUDED.extra, document = EXCLUDED.document;
+
+    -- El nombre del proveedor tambien se busca en sus equipos
+    IF TG_OP = 'UPDATE' AND NEW.name IS DISTINCT FROM OLD.name THEN
+        PERFORM refresh_equipment_search(e.id) FROM equipment e WHERE e.provider_id = NEW.id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION search_index_person() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM search_index WHERE entity_type = 'PERSON' AND entity_id = OLD.id;
+        RETURN NULL;
+    END IF;
+
+    INSERT INTO search_index (entity_type, entity_id, title, detail, extra, document)
+    VALUES ('PERSON', NEW.id, NEW.full_name,
+            'Documento: ' || NEW.document,
+            'Rol: ' || NEW.role::text,
+            search_document(NEW.full_name, NEW.document || ' ' || NEW.role::text))
+    ON CONFLICT (entity_type, entity_id) DO UPDATE
+        SET title = EXCLUDED.title, detail = EXCLUDED.detail,
+            extra = EXCLUDED.extra, document = EXCLUDED.document;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Un equipo se indexa como TECH_EQUIPMENT, BIOMEDICAL_EQUIPMENT o EQUIPMENT
+-- segun la tabla de detalle que tenga; se recalcula cuando cambia el equipo
+-- o su detalle.
+CREATE OR REPLACE FUNCTION refresh_equipment_search(equipment_id UUID) RETURNS void AS $$
+BEGIN
+    DELETE FROM search_index
+    WHERE entity_id = equipment_id
+      AND entity_type IN ('EQUIPMENT', 'TECH_EQUIPMENT', 'BIOMEDICAL_EQUIPMENT');
+
+    INSERT INTO search_index (entity_type, entity_id, title, detail, extra, document)
+    SELECT
+        CASE
+            WHEN te.id IS NOT NULL THEN 'TECH_EQUIPMENT'
+            WHEN be.id IS NOT NULL THEN 'BIOMEDICAL_EQUIPMENT'
+            ELSE 'EQUIPMENT'
+        END,
+        e.id,
+        e.serial,
+        e.brand || ' - ' || e.model,
+        CASE
+            WHEN te.id IS NOT NULL THEN 'OS: ' || te.os || ' | RAM: ' || te.ram_gb || 'GB'
+            WHEN be.id IS NOT NULL THEN 'Clase: ' || be.risk_class || ' | Cert: ' || be.calibration_cert
+            ELSE e.type::text
+        END,
+        search_document(e.serial,
+            concat_ws(' ', e.brand, e.model, p.name, te.os, be.risk_class, be.calibration_cert))
+    FROM equipment e
+    LEFT JOIN provider p ON p.id = e.provider_id
+    LEFT JOIN tech_equipment te ON te.id = e.id
+    LEFT JOIN biomedical_equipment be ON be.id = e.id
+    WHERE e.id = equipment_id;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION search_index_equipment() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM refresh_equipment_search(OLD.id);
+    ELSE
+        PERFORM refresh_equipment_search(NEW.id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_provider_search_index
+    AFTER INSERT OR UPDATE OR DELETE ON provider
+    FOR EACH ROW EXECUTE FUNCTION search_index_provider();
+
+CREATE TRIGGER trg_person_search_index
+    AFTER INSERT OR UPDATE OR DELETE ON person
+    FOR EACH ROW EXECUTE FUNCTION search_index_person();
+
+CREATE TRIGGER trg_equipment_search_index
+    AFTER INSERT OR UPDATE OR DELETE ON equipment
+    FOR EACH ROW EXECUTE FUNCTION search_index_equipment();
+
+CREATE TRIGGER trg_tech_equipment_search_index
+    AFTER INSERT OR UPDATE OR DELETE ON tech_equipment
+    FOR EACH ROW EXECUTE FUNCTION search_index_equipment();
+
+CREATE TRIGGER trg_biomedical_equipment_search_index
+    AFTER INSERT OR UPDATE OR DELETE ON biomedical_equipment
+    FOR EACH ROW EXECUTE FUNCTION search_index_equipment();
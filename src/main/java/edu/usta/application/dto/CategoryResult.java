@@ -0,0 +1,67 @@
+package edu.usta.application.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de una categoria dentro de una busqueda en varias categorias. Si
+ * la categoria no respondio a tiempo o fallo, la lista esta vacia y el estado
+ * lo indica, para que la pantalla muestre que los resultados son parciales.
+ */
+public class CategoryResult {
+
+    public enum Status {
+        /** La consulta termino; {@link #getResults()} tiene sus filas. */
+        COMPLETE,
+        /** La consulta supero el plazo y se cancelo. */
+        TIMED_OUT,
+        /** La consulta fallo; ver {@link #getError()}. */
+        FAILED
+    }
+
+    private final SearchResultType type;
+    private final List<SearchResult> results;
+    private final Status status;
+    private final Throwable error;
+
+    private CategoryResult(SearchResultType type, List<SearchResult> results, Status status, Throwable error) {
+        this.type = type;
+        this.results = results;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static CategoryResult complete(SearchResultType type, List<SearchResult> results) {
+        return new CategoryResult(type, List.copyOf(results), Status.COMPLETE, null);
+    }
+
+    public static CategoryResult timedOut(SearchResultType type) {
+        return new CategoryResult(type, List.of(), Status.TIMED_OUT, null);
+    }
+
+    public static CategoryResult failed(SearchResultType type, Throwable error) {
+        return new CategoryResult(type, List.of(), Status.FAILED, error);
+    }
+
+    public SearchResultType getType() {
+        return type;
+    }
+
+    public List<SearchResult> getResults() {
+        return results;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isComplete() {
+        return status == Status.COMPLETE;
+    }
+
+    /**
+     * @return causa de la falla, o {@code null} si no fallo.
+     */
+    public Throwable getError() {
+        return error;
+    }
+}
@@ -0,0 +1,37 @@
+package edu.usta.application.dto;
+
+import java.util.List;
+
+import edu.usta.domain.repositories.FacetCounts;
+
+/**
+ * Resultado de una busqueda por facetas: las entidades que cumplen el filtro
+ * y, para cada faceta, cuantas entidades tiene cada valor, para que la
+ * pantalla muestre los filtros con su conteo.
+ *
+ * @param <T> tipo de entidad.
+ */
+public class FacetedResult<T> {
+
+    private final List<T> items;
+    private final FacetCounts counts;
+
+    public FacetedResult(List<T> items, FacetCounts counts) {
+        this.items = List.copyOf(items);
+        this.counts = counts;
+    }
+
+    /**
+     * @return las entidades, hasta el limite del filtro.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return el total sin limite y los conteos de cada faceta.
+     */
+    public FacetCounts getCounts() {
+        return counts;
+    }
+}
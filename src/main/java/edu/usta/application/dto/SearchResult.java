@@ -0,0 +1,124 @@
+package edu.usta.application.dto;
+
+import edu.usta.domain.entities.BiomedicalEquipment;
+import edu.usta.domain.entities.Equipment;
+import edu.usta.domain.entities.Person;
+import edu.usta.domain.entities.Provider;
+import edu.usta.domain.entities.TechEquipment;
+
+/**
+ * Fila de la pantalla de busqueda: un equipo, persona o proveedor resumido
+ * en cuatro textos, su categoria y la puntuacion de relevancia.
+ */
+public class SearchResult {
+    private final String id;
+    private final String name;
+    private final String detail;
+    private final String extra;
+    private final SearchResultType kind;
+    private final double score;
+
+    public SearchResult(String id, String name, String detail, String extra, SearchResultType kind) {
+        this(id, name, detail, extra, kind, 0);
+    }
+
+    public SearchResult(String id, String name, String detail, String extra, SearchResultType kind,
+            double score) {
+        this.id = id;
+        this.name = name;
+        this.detail = detail;
+        this.extra = extra;
+        this.kind = kind;
+        this.score = score;
+    }
+
+    public static SearchResult of(TechEquipment eq) {
+        return new SearchResult(
+                eq.getId(),
+                eq.getSerial(),
+                eq.getBrand() + " - " + eq.getModel(),
+                "OS: " + eq.getOs() + " | RAM: " + eq.getRamGb() + "GB",
+                SearchResultType.TECH_EQUIPMENT);
+    }
+
+    public static SearchResult of(BiomedicalEquipment eq) {
+        return new SearchResult(
+                eq.getId(),
+                eq.getSerial(),
+                eq.getBrand() + " - " + eq.getModel(),
+                "Clase: " + eq.getRiskClass() + " | Cert: " + eq.getCalibrationCert(),
+                SearchResultType.BIOMEDICAL_EQUIPMENT);
+    }
+
+    /**
+     * Fila de un equipo del inventario; usa el formato de su subclase si la
+     * tiene.
+     */
+    public static SearchResult of(Equipment eq) {
+        if (eq instanceof TechEquipment tech) {
+            return of(tech);
+        }
+        if (eq instanceof BiomedicalEquipment biomedical) {
+            return of(biomedical);
+        }
+        return new SearchResult(
+                eq.getId(),
+                eq.getSerial(),
+                eq.getBrand() + " - " + eq.getModel(),
+                "Proveedor: " + (eq.getProvider() == null ? "-" : eq.getProvider().getName()),
+                SearchResultType.EQUIPMENT);
+    }
+
+    public static SearchResult of(Person p) {
+        return new SearchResult(
+                p.getId(),
+                p.getFullname(),
+                "Documento: " + p.getDocument(),
+                "Rol: " + p.getRole(),
+                SearchResultType.PERSON);
+    }
+
+    public static SearchResult of(Provider p) {
+        return new SearchResult(
+                p.getId(),
+                p.getName(),
+                "Tax ID: " + p.getTaxId(),
+                "Email: " + p.getContactEmail(),
+                SearchResultType.PROVIDER);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public String getExtra() {
+        return extra;
+    }
+
+    /**
+     * @return nombre de la categoria para mostrar, p. ej. "Persona".
+     */
+    public String getType() {
+        return kind.getLabel();
+    }
+
+    public SearchResultType getKind() {
+        return kind;
+    }
+
+    /**
+     * @return relevancia del resultado; mayor es mas relevante. Es 0 cuando la
+     *         busqueda no calcula puntuacion.
+     */
+    public double getScore() {
+        return score;
+    }
+}
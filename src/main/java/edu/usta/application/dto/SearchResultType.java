@@ -0,0 +1,26 @@
+package edu.usta.application.dto;
+
+/**
+ * Categoria de un {@link SearchResult}. El nombre de cada constante es el
+ * valor de {@code search_index.entity_type} en la base de datos.
+ */
+public enum SearchResultType {
+    TECH_EQUIPMENT("Equipo Tecnológico"),
+    BIOMEDICAL_EQUIPMENT("Equipo Biomédico"),
+    EQUIPMENT("Equipo"),
+    PERSON("Persona"),
+    PROVIDER("Proveedor");
+
+    private final String label;
+
+    SearchResultType(String label) {
+        this.label = label;
+    }
+
+    /**
+     * @return nombre que se muestra en la pantalla de busqueda.
+     */
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,262 @@
+package edu.usta.application.search;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import edu.usta.application.dto.SearchResult;
+import edu.usta.application.dto.SearchResultType;
+import edu.usta.domain.entities.BiomedicalEquipment;
+import edu.usta.domain.entities.Person;
+import edu.usta.domain.entities.Provider;
+import edu.usta.domain.entities.TechEquipment;
+import edu.usta.domain.repositories.GenericRepository;
+
+/**
+ * Busqueda instantanea (mientras se escribe) sobre todo lo que muestra la
+ * pantalla de busqueda: equipos tecnologicos, equipos biomedicos, personas y
+ * proveedores.
+ *
+ * <p>
+ * Mantiene un {@link NGramIndex} con los mismos campos que buscan los
+ * repositorios (serial, marca y modelo; nombre y documento; nombre, NIT y
+ * correo) mas el id. El indice se llena en segundo plano con
+ * {@link #load(Executor)}; mientras tanto {@link #isReady()} es {@code false}
+ * y la pantalla debe usar la busqueda en la base de datos.
+ * </p>
+ *
+ * <p>
+ * Se mantiene al dia de dos formas:
+ * </p>
+ * <ul>
+ * <li>las escrituras de esta aplicacion pasan por los repositorios de
+ * {@link #indexedPersons} y similares, y se reflejan de inmediato;</li>
+ * <li>los cambios hechos desde otra porteria llegan por
+ * {@link #refresh(SearchResultType, UUID)}, que vuelve a leer la entidad.</li>
+ * </ul>
+ */
+public class InMemorySearchEngine {
+
+    private final GenericRepository<TechEquipment> techEquipment;
+    private final GenericRepository<BiomedicalEquipment> biomedicalEquipment;
+    private final GenericRepository<Person> persons;
+    private final GenericRepository<Provider> providers;
+
+    /** Filas por lote al recorrer cada tabla en la carga inicial. */
+    private static final int LOAD_FETCH_SIZE = 1000;
+
+    private final NGramIndex<SearchResult> index = new NGramIndex<>();
+
+    /**
+     * Ids escritos mientras se hace la carga inicial; la carga no los pisa con
+     * la version que leyo antes. Tambien es el candado de {@code loading}.
+     */
+    private final Set<String> touchedWhileLoading = new HashSet<>();
+
+    private boolean loading;
+    private volatile boolean ready;
+
+    /**
+     * Aumenta con cada {@link #load(Executor)}. Solo la carga mas reciente
+     * escribe en el indice y marca el fin de la carga; una anterior que siga
+     * corriendo se detiene en la siguiente fila.
+     */
+    private long generation;
+
+    public InMemorySearchEngine(GenericRepository<TechEquipment> techEquipment,
+            GenericRepository<BiomedicalEquipment> biomedicalEquipment,
+            GenericRepository<Person> persons,
+            GenericRepository<Provider> providers) {
+        this.techEquipment = techEquipment;
+        this.biomedicalEquipment = biomedicalEquipment;
+        this.persons = persons;
+        this.providers = providers;
+    }
+
+    /**
+     * Llena el indice con todas las entidades, reemplazando lo que hubiera. Si
+     * ya habia una carga en curso, esta la reemplaza.
+     *
+     * @param executor donde se hace la carga.
+     * @return futuro que se completa cuando el indice esta listo, o cuando otra
+     *         carga mas reciente reemplaza a esta.
+     */
+    public CompletableFuture<Void> load(Executor executor) {
+        long mine;
+        synchronized (touchedWhileLoading) {
+            mine = ++generation;
+            ready = false;
+            loading = true;
+            touchedWhileLoading.clear();
+            index.clear();
+        }
+        return CompletableFuture.runAsync(() -> {
+            // Si otra carga mas reciente empezo, esta se detiene y la nueva se
+            // encarga del indice
+            if (loadAll(techEquipment, InMemorySearchEngine::entry, mine)
+                    && loadAll(biomedicalEquipment, InMemorySearchEngine::entry, mine)
+                    && loadAll(persons, InMemorySearchEngine::entry, mine)) {
+                loadAll(providers, InMemorySearchEngine::entry, mine);
+            }
+        }, executor).whenComplete((ignored, error) -> {
+            synchronized (touchedWhileLoading) {
+                if (mine != generation) {
+                    return;
+                }
+                loading = false;
+                touchedWhileLoading.clear();
+                ready = error == null;
+            }
+        });
+    }
+
+    /**
+     * @return {@code true} cuando la carga inicial termino y el indice puede
+     *         responder.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return numero de entidades indexadas.
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Busca por subcadena, sin distinguir mayusculas ni tildes.
+     *
+     * @param text  texto buscado; vacio devuelve los primeros registros.
+     * @param type  categoria; {@code null} busca en todas.
+     * @param limit maximo de resultados.
+     * @return resultados en el orden en que se indexaron.
+     */
+    public List<SearchResult> search(String text, SearchResultType type, int limit) {
+        return index.search(text, type == null ? null : result -> result.getKind() == type, limit);
+    }
+
+    /**
+     * Envuelve un repositorio para que sus escrituras actualicen el indice.
+     */
+    public GenericRepository<TechEquipment> indexedTechEquipment(GenericRepository<TechEquipment> repository) {
+        return indexed(repository, InMemorySearchEngine::entry);
+    }
+
+    public GenericRepository<BiomedicalEquipment> indexedBiomedicalEquipment(
+            GenericRepository<BiomedicalEquipment> repository) {
+        return indexed(repository, InMemorySearchEngine::entry);
+    }
+
+    public GenericRepository<Person> indexedPersons(GenericRepository<Person> repository) {
+        return indexed(repository, InMemorySearchEngine::entry);
+    }
+
+    public GenericRepository<Provider> indexedProviders(GenericRepository<Provider> repository) {
+        return indexed(repository, InMemorySearchEngine::entry);
+    }
+
+    /**
+     * Vuelve a leer una entidad que cambio en la base de datos y actualiza su
+     * documento; si ya no existe, lo quita.
+     *
+     * @param type categoria de la entidad; {@link SearchResultType#EQUIPMENT}
+     *             prueba con ambos tipos de equipo.
+     * @param id   identificador de la entidad.
+     */
+    public void refresh(SearchResultType type, UUID id) {
+        boolean found = switch (type) {
+            case TECH_EQUIPMENT -> refresh(techEquipment, id, InMemorySearchEngine::entry);
+            case BIOMEDICAL_EQUIPMENT -> refresh(biomedicalEquipment, id, InMemorySearchEngine::entry);
+            case EQUIPMENT -> refresh(techEquipment, id, InMemorySearchEngine::entry)
+                    || refresh(biomedicalEquipment, id, InMemorySearchEngine::entry);
+            case PERSON -> refresh(persons, id, InMemorySearchEngine::entry);
+            case PROVIDER -> refresh(providers, id, InMemorySearchEngine::entry);
+        };
+        if (!found) {
+            remove(id);
+        }
+    }
+
+    private <T> boolean refresh(GenericRepository<T> repository, UUID id, Function<T, Entry> entryOf) {
+        return repository.findById(id).map(entity -> {
+            save(entryOf.apply(entity));
+            return true;
+        }).orElse(false);
+    }
+
+    private <T> GenericRepository<T> indexed(GenericRepository<T> repository, Function<T, Entry> entryOf) {
+        return new IndexedRepository<>(repository, entity -> save(entryOf.apply(entity)), this::remove);
+    }
+
+    /**
+     * @return {@code false} si otra carga reemplazo a esta antes de terminar.
+     */
+    private <T> boolean loadAll(GenericRepository<T> repository, Function<T, Entry> entryOf, long mine) {
+        // Por lotes: solo el indice crece, no una lista con toda la tabla.
+        // Salir del try cierra el cursor, tambien cuando la carga se reemplaza.
+        try (Stream<T> entities = repository.stream(LOAD_FETCH_SIZE)) {
+            Iterator<T> iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                Entry entry = entryOf.apply(iterator.next());
+                synchronized (touchedWhileLoading) {
+                    if (mine != generation) {
+                        return false;
+                    }
+                    if (!touchedWhileLoading.contains(entry.key())) {
+                        index.put(entry.key(), entry.result(), entry.fields());
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private void save(Entry entry) {
+        synchronized (touchedWhileLoading) {
+            if (loading) {
+                touchedWhileLoading.add(entry.key());
+            }
+            index.put(entry.key(), entry.result(), entry.fields());
+        }
+    }
+
+    private void remove(UUID id) {
+        String key = id.toString();
+        synchronized (touchedWhileLoading) {
+            if (loading) {
+                touchedWhileLoading.add(key);
+            }
+            index.remove(key);
+        }
+    }
+
+    /** Documento de una entidad: llave, fila que se muestra y campos buscables. */
+    private record Entry(String key, SearchResult result, String... fields) {
+    }
+
+    private static Entry entry(TechEquipment eq) {
+        return new Entry(eq.getId(), SearchResult.of(eq), eq.getId(), eq.getSerial(), eq.getBrand(), eq.getModel());
+    }
+
+    private static Entry entry(BiomedicalEquipment eq) {
+        return new Entry(eq.getId(), SearchResult.of(eq), eq.getId(), eq.getSerial(), eq.getBrand(), eq.getModel());
+    }
+
+    private static Entry entry(Person person) {
+        return new Entry(person.getId(), SearchResult.of(person), person.getId(), person.getFullname(),
+                person.getDocument());
+    }
+
+    private static Entry entry(Provider provider) {
+        return new Entry(provider.getId(), SearchResult.of(provider), provider.getId(), provider.getName(),
+                provider.getTaxId(), provider.getContactEmail());
+    }
+}
@@ -0,0 +1,140 @@
+package edu.usta.application.search;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import edu.usta.domain.repositories.Criteria;
+import edu.usta.domain.repositories.FacetCounts;
+import edu.usta.domain.repositories.GenericRepository;
+import edu.usta.domain.repositories.Page;
+import edu.usta.domain.repositories.PageCursor;
+import edu.usta.domain.repositories.PageSort;
+
+/**
+ * Decorador que avisa al {@link InMemorySearchEngine} de cada escritura
+ * exitosa, para que la busqueda instantanea vea el cambio sin esperar a la
+ * notificacion de la base de datos. Las lecturas pasan directo.
+ *
+ * @param <T> Tipo de entidad del repositorio.
+ */
+class IndexedRepository<T> implements GenericRepository<T> {
+
+    private final GenericRepository<T> repository;
+    private final Consumer<T> onSaved;
+    private final Consumer<UUID> onDeleted;
+
+    IndexedRepository(GenericRepository<T> repository, Consumer<T> onSaved, Consumer<UUID> onDeleted) {
+        this.repository = Objects.requireNonNull(repository);
+        this.onSaved = onSaved;
+        this.onDeleted = onDeleted;
+    }
+
+    @Override
+    public T create(T entity) {
+        T created = repository.create(entity);
+        onSaved.accept(created);
+        return created;
+    }
+
+    @Override
+    public Optional<T> findById(UUID id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public Map<UUID, T> findAllById(Collection<UUID> ids) {
+        return repository.findAllById(ids);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return repository.findAll();
+    }
+
+    @Override
+    public Stream<T> stream(int fetchSize) {
+        return repository.stream(fetchSize);
+    }
+
+    @Override
+    public List<T> findBy(String attribute, String value) {
+        return repository.findBy(attribute, value);
+    }
+
+    @Override
+    public Optional<T> findOneBy(String attribute, String value) {
+        return repository.findOneBy(attribute, value);
+    }
+
+    @Override
+    public List<T> findAll(Criteria criteria) {
+        return repository.findAll(criteria);
+    }
+
+    @Override
+    public List<T> search(String text, int limit) {
+        return repository.search(text, limit);
+    }
+
+    @Override
+    public List<T> searchSimilar(String text, int limit) {
+        return repository.searchSimilar(text, limit);
+    }
+
+    @Override
+    public Page<T> findPage(PageCursor cursor, int limit, PageSort sort) {
+        return repository.findPage(cursor, limit, sort);
+    }
+
+    @Override
+    public long estimateTotal() {
+        return repository.estimateTotal();
+    }
+
+    @Override
+    public long count() {
+        return repository.count();
+    }
+
+    @Override
+    public long count(String attribute, String value) {
+        return repository.count(attribute, value);
+    }
+
+    @Override
+    public long count(Criteria criteria) {
+        return repository.count(criteria);
+    }
+
+    @Override
+    public FacetCounts facetCounts(Criteria criteria, Collection<String> facets) {
+        return repository.facetCounts(criteria, facets);
+    }
+
+    @Override
+    public boolean exists(String attribute, String value) {
+        return repository.exists(attribute, value);
+    }
+
+    @Override
+    public T update(T entity) {
+        T updated = repository.update(entity);
+        onSaved.accept(updated);
+        return updated;
+    }
+
+    @Override
+    public boolean delete(UUID id) {
+        boolean deleted = repository.delete(id);
+        if (deleted) {
+            onDeleted.accept(id);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,428 @@
+package edu.usta.application.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Indice invertido de trigramas en memoria para busquedas por subcadena.
+ *
+ * <p>
+ * Cada documento recibe un numero interno creciente y su texto (los campos
+ * buscables, normalizados) se parte en trigramas. Por cada trigrama se guarda
+ * la lista de documentos que lo contienen en un {@code int[]} ordenado. Una
+ * consulta de tres o mas caracteres intersecta las listas de sus trigramas,
+ * empezando por la mas corta, y confirma cada candidato con
+ * {@link String#contains(CharSequence)}; asi el costo depende del numero de
+ * coincidencias y no del numero de documentos.
+ * </p>
+ *
+ * <ul>
+ * <li>Actualizar un documento lo marca como borrado y lo agrega con un numero
+ * nuevo, de modo que las listas siguen ordenadas solo con agregar al
+ * final.</li>
+ * <li>Cuando los documentos borrados superan a los vivos, el indice se
+ * compacta.</li>
+ * <li>Consultas de uno o dos caracteres recorren los documentos en orden hasta
+ * completar el limite.</li>
+ * </ul>
+ *
+ * <p>
+ * La normalizacion ignora mayusculas y tildes. Las lecturas pueden ser
+ * concurrentes; las escrituras son exclusivas.
+ * </p>
+ *
+ * @param <V> Tipo del valor que devuelve cada coincidencia.
+ */
+public class NGramIndex<V> {
+
+    private static final int GRAM = 3;
+    private static final int MIN_COMPACT_GARBAGE = 1_024;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    /** Separa los campos para que ninguna consulta coincida entre dos campos. */
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> docByKey = new HashMap<>();
+
+    /**
+     * Tabla hash abierta (sondeo lineal) de trigrama a lista de documentos,
+     * para no crear un {@code Long} por cada trigrama al indexar o consultar.
+     */
+    private long[] gramKeys = new long[1 << 10];
+    private Postings[] gramLists = new Postings[1 << 10];
+    private int gramCount;
+
+    private String[] keys = new String[16];
+    private String[] texts = new String[16];
+    private Object[] values = new Object[16];
+    private int nextDoc;
+    private int live;
+
+    /** Lista de documentos de un trigrama, ordenada de forma creciente. */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+
+    /**
+     * Agrega o reemplaza un documento.
+     *
+     * @param key    llave unica del documento, p. ej. su id.
+     * @param value  valor que se devuelve cuando coincide.
+     * @param fields campos en los que se busca; los {@code null} se ignoran.
+     */
+    public void put(String key, V value, String... fields) {
+        String text = document(fields);
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            add(key, value, text);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un documento.
+     *
+     * @param key llave del documento.
+     * @return {@code true} si estaba en el indice.
+     */
+    public boolean remove(String key) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = removeLocked(key);
+            compactIfNeeded();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vacia el indice.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            docByKey.clear();
+            clearGrams();
+            keys = new String[16];
+            texts = new String[16];
+            values = new Object[16];
+            nextDoc = 0;
+            live = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return numero de documentos en el indice.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca los documentos que contienen el texto en alguno de sus campos.
+     *
+     * @param text   texto buscado; vacio devuelve los primeros documentos.
+     * @param filter condicion adicional sobre el valor; {@code null} acepta
+     *               todos.
+     * @param limit  maximo de resultados.
+     * @return valores coincidentes en el orden en que se indexaron.
+     */
+    public List<V> search(String text, Predicate<? super V> filter, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("El limite de resultados debe ser positivo: " + limit);
+        }
+        String query = normalize(text == null ? "" : text.trim());
+        Predicate<? super V> accept = filter == null ? value -> true : filter;
+
+        lock.readLock().lock();
+        try {
+            if (query.length() < GRAM) {
+                return scan(query, accept, limit);
+            }
+            return intersect(query, accept, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recorre todos los documentos; se usa cuando la consulta es mas corta que
+     * un trigrama.
+     */
+    private List<V> scan(String query, Predicate<? super V> accept, int limit) {
+        List<V> results = new ArrayList<>();
+        for (int doc = 0; doc < nextDoc && results.size() < limit; doc++) {
+            if (texts[doc] != null && texts[doc].contains(query)) {
+                addIfAccepted(results, doc, accept);
+            }
+        }
+        return results;
+    }
+
+    private List<V> intersect(String query, Predicate<? super V> accept, int limit) {
+        long[] grams = grams(query);
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postingsOf(grams[i]);
+            if (lists[i] == null) {
+                return List.of();
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        List<V> results = new ArrayList<>();
+        int[] cursors = new int[lists.length];
+        Postings shortest = lists[0];
+
+        candidates: for (int i = 0; i < shortest.size && results.size() < limit; i++) {
+            int doc = shortest.docs[i];
+            for (int l = 1; l < lists.length; l++) {
+                int found = gallop(lists[l], cursors[l], doc);
+                if (found < 0) {
+                    cursors[l] = -found - 1;
+                    if (cursors[l] == lists[l].size) {
+                        break candidates;
+                    }
+                    continue candidates;
+                }
+                cursors[l] = found + 1;
+            }
+            if (texts[doc] != null && texts[doc].contains(query)) {
+                addIfAccepted(results, doc, accept);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Busca {@code doc} en la lista a partir de {@code from}, con saltos que se
+     * duplican antes de la busqueda binaria: los candidatos llegan en orden, asi
+     * que el siguiente suele estar cerca del anterior.
+     *
+     * @return la posicion, o {@code -(insercion) - 1} si no esta.
+     */
+    private static int gallop(Postings list, int from, int doc) {
+        int low = from;
+        int step = 1;
+        int high = from;
+        while (high < list.size && list.docs[high] < doc) {
+            low = high + 1;
+            high = from + step;
+            step <<= 1;
+        }
+        return Arrays.binarySearch(list.docs, low, Math.min(high + 1, list.size), doc);
+    }
+
+    private Postings postingsOf(long gram) {
+        int mask = gramKeys.length - 1;
+        for (int slot = hash(gram) & mask; gramLists[slot] != null; slot = (slot + 1) & mask) {
+            if (gramKeys[slot] == gram) {
+                return gramLists[slot];
+            }
+        }
+        return null;
+    }
+
+    private Postings postingsFor(long gram) {
+        int mask = gramKeys.length - 1;
+        int slot = hash(gram) & mask;
+        for (; gramLists[slot] != null; slot = (slot + 1) & mask) {
+            if (gramKeys[slot] == gram) {
+                return gramLists[slot];
+            }
+        }
+        Postings created = new Postings();
+        gramKeys[slot] = gram;
+        gramLists[slot] = created;
+        if (++gramCount * 2 > gramKeys.length) {
+            growGrams();
+        }
+        return created;
+    }
+
+    private void growGrams() {
+        long[] oldKeys = gramKeys;
+        Postings[] oldLists = gramLists;
+        gramKeys = new long[oldKeys.length * 2];
+        gramLists = new Postings[oldLists.length * 2];
+        int mask = gramKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldLists[i] != null) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (gramLists[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                gramKeys[slot] = oldKeys[i];
+                gramLists[slot] = oldLists[i];
+            }
+        }
+    }
+
+    private void clearGrams() {
+        gramKeys = new long[1 << 10];
+        gramLists = new Postings[1 << 10];
+        gramCount = 0;
+    }
+
+    private static int hash(long gram) {
+        long h = gram * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addIfAccepted(List<V> results, int doc, Predicate<? super V> accept) {
+        V value = (V) values[doc];
+        if (accept.test(value)) {
+            results.add(value);
+        }
+    }
+
+    private void add(String key, V value, String text) {
+        if (nextDoc == texts.length) {
+            int capacity = texts.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        int doc = nextDoc++;
+        keys[doc] = key;
+        texts[doc] = text;
+        values[doc] = value;
+        docByKey.put(key, doc);
+        live++;
+
+        for (long gram : grams(text)) {
+            postingsFor(gram).add(doc);
+        }
+    }
+
+    /**
+     * Marca el documento como borrado. Sus entradas en las listas se quedan
+     * hasta la proxima compactacion y se descartan al consultar.
+     */
+    private boolean removeLocked(String key) {
+        Integer doc = docByKey.remove(key);
+        if (doc == null) {
+            return false;
+        }
+        keys[doc] = null;
+        texts[doc] = null;
+        values[doc] = null;
+        live--;
+        return true;
+    }
+
+    /**
+     * Reconstruye las listas sin los documentos borrados cuando estos ya son
+     * mas que los vivos.
+     */
+    @SuppressWarnings("unchecked")
+    private void compactIfNeeded() {
+        int garbage = nextDoc - live;
+        if (garbage < MIN_COMPACT_GARBAGE || garbage < live) {
+            return;
+        }
+        String[] oldKeys = keys;
+        String[] oldTexts = texts;
+        Object[] oldValues = values;
+        int oldCount = nextDoc;
+
+        docByKey.clear();
+        clearGrams();
+        int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, live)) * 2);
+        keys = new String[capacity];
+        texts = new String[capacity];
+        values = new Object[capacity];
+        nextDoc = 0;
+        live = 0;
+
+        for (int doc = 0; doc < oldCount; doc++) {
+            if (oldTexts[doc] != null) {
+                add(oldKeys[doc], (V) oldValues[doc], oldTexts[doc]);
+            }
+        }
+    }
+
+    /**
+     * Trigramas distintos del texto, cada uno empaquetado en un {@code long}
+     * (16 bits por caracter).
+     */
+    private static long[] grams(String text) {
+        int count = text.length() - GRAM + 1;
+        if (count <= 0) {
+            return new long[0];
+        }
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private static String document(String... fields) {
+        StringBuilder text = new StringBuilder();
+        for (String field : fields) {
+            if (field == null || field.isEmpty()) {
+                continue;
+            }
+            if (!text.isEmpty()) {
+                text.append(FIELD_SEPARATOR);
+            }
+            text.append(normalize(field));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Pasa a minusculas y quita las tildes, p. ej. {@code "Biomédico"} →
+     * {@code "biomedico"}.
+     */
+    static String normalize(String value) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) > 0x7F) {
+                return MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+            }
+        }
+        return lower;
+    }
+}
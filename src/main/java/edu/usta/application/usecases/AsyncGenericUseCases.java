@@ -0,0 +1,239 @@
+package edu.usta.application.usecases;
+
+import edu.usta.application.dto.FacetedResult;
+import edu.usta.domain.repositories.Criteria;
+import edu.usta.domain.repositories.FacetCounts;
+import edu.usta.domain.repositories.GenericRepository;
+import edu.usta.domain.repositories.Page;
+import edu.usta.domain.repositories.PageCursor;
+import edu.usta.domain.repositories.PageSort;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Version asincrona de {@link GenericUseCases}.
+ *
+ * <p>
+ * Cada operacion se ejecuta en el ejecutor del {@link ConcurrencyLimiter} y
+ * devuelve un {@link CompletableFuture}, asi quien llama (por ejemplo un
+ * controlador de JavaFX, un proceso por lotes o una capa de servicios) no se
+ * bloquea mientras la base de datos responde y puede lanzar varias
+ * operaciones a la vez.
+ * </p>
+ *
+ * <p>
+ * Un {@link ConcurrencyLimiter} acota cuantas operaciones corren a la vez;
+ * las demas esperan en cola sin ocupar hilos. Los casos de uso que comparten
+ * un pool de conexiones deben compartir tambien el limitador: con un limite
+ * igual al tamaño del pool, miles de consultas concurrentes no agotan las
+ * conexiones ni bloquean hilos esperandolas.
+ * </p>
+ *
+ * @param <T> Tipo genérico que representa la entidad de dominio administrada.
+ */
+public class AsyncGenericUseCases<T> {
+
+    /** Casos de uso sincronos que hacen el trabajo real. */
+    private final GenericUseCases<T> useCases;
+
+    /** Limita las operaciones simultaneas; compartido con otros casos de uso. */
+    private final ConcurrencyLimiter limiter;
+
+    /**
+     * @param repository Repositorio de la entidad.
+     * @param limiter    Limite de operaciones simultaneas y ejecutor en el que
+     *                   corren.
+     */
+    public AsyncGenericUseCases(GenericRepository<T> repository, ConcurrencyLimiter limiter) {
+        this(new GenericUseCases<>(repository), limiter);
+    }
+
+    /**
+     * @param useCases Casos de uso sincronos a envolver.
+     * @param limiter  Limite de operaciones simultaneas y ejecutor en el que
+     *                 corren.
+     */
+    public AsyncGenericUseCases(GenericUseCases<T> useCases, ConcurrencyLimiter limiter) {
+        this.useCases = useCases;
+        this.limiter = limiter;
+    }
+
+    /**
+     * @see GenericUseCases#create(Object)
+     */
+    public CompletableFuture<T> create(T entity) {
+        return limiter.submit(() -> useCases.create(entity));
+    }
+
+    /**
+     * @see GenericUseCases#findById(UUID)
+     */
+    public CompletableFuture<Optional<T>> findById(UUID id) {
+        return limiter.submit(() -> useCases.findById(id));
+    }
+
+    /**
+     * @see GenericUseCases#findAllById(Collection)
+     */
+    public CompletableFuture<Map<UUID, T>> findAllById(Collection<UUID> ids) {
+        return limiter.submit(() -> useCases.findAllById(ids));
+    }
+
+    /**
+     * @see GenericUseCases#findAll()
+     */
+    public CompletableFuture<List<T>> findAll() {
+        return limiter.submit(useCases::findAll);
+    }
+
+    /**
+     * La accion corre en el hilo del ejecutor, una entidad a la vez.
+     *
+     * @see GenericUseCases#forEach(int, Consumer)
+     */
+    public CompletableFuture<Void> forEach(int fetchSize, Consumer<? super T> action) {
+        return limiter.submit(() -> {
+            useCases.forEach(fetchSize, action);
+            return null;
+        });
+    }
+
+    /**
+     * @see GenericUseCases#findBy(String, String)
+     */
+    public CompletableFuture<List<T>> findBy(String attribute, String value) {
+        return limiter.submit(() -> useCases.findBy(attribute, value));
+    }
+
+    /**
+     * @see GenericUseCases#findOneBy(String, String)
+     */
+    public CompletableFuture<Optional<T>> findOneBy(String attribute, String value) {
+        return limiter.submit(() -> useCases.findOneBy(attribute, value));
+    }
+
+    /**
+     * @see GenericUseCases#findAll(Criteria)
+     */
+    public CompletableFuture<List<T>> findAll(Criteria criteria) {
+        return limiter.submit(() -> useCases.findAll(criteria));
+    }
+
+    /**
+     * @see GenericUseCases#count(Criteria)
+     */
+    public CompletableFuture<Long> count(Criteria criteria) {
+        return limiter.submit(() -> useCases.count(criteria));
+    }
+
+    /**
+     * @see GenericUseCases#facetCounts(Criteria, Collection)
+     */
+    public CompletableFuture<FacetCounts> facetCounts(Criteria criteria, Collection<String> facets) {
+        return limiter.submit(() -> useCases.facetCounts(criteria, facets));
+    }
+
+    /**
+     * Como {@link GenericUseCases#facetedSearch(Criteria, Collection)}, pero
+     * las entidades y los conteos se consultan a la vez. Cancelar el
+     * resultado, o que una de las dos consultas falle, cancela la otra en la
+     * base de datos.
+     */
+    public CompletableFuture<FacetedResult<T>> facetedSearch(Criteria criteria, Collection<String> facets) {
+        CompletableFuture<List<T>> items = findAll(criteria);
+        CompletableFuture<FacetCounts> counts = facetCounts(criteria, facets);
+        CompletableFuture<FacetedResult<T>> result = items.thenCombine(counts, FacetedResult::new);
+
+        // thenCombine no propaga la cancelacion hacia atras
+        result.whenComplete((ignored, error) -> {
+            if (error != null) {
+                items.cancel(false);
+                counts.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @see GenericUseCases#search(String, int)
+     */
+    public CompletableFuture<List<T>> search(String text, int limit) {
+        return limiter.submit(() -> useCases.search(text, limit));
+    }
+
+    /**
+     * @see GenericUseCases#searchSimilar(String, int)
+     */
+    public CompletableFuture<List<T>> searchSimilar(String text, int limit) {
+        return limiter.submit(() -> useCases.searchSimilar(text, limit));
+    }
+
+    /**
+     * @see GenericUseCases#findPage(PageCursor, int, PageSort)
+     */
+    public CompletableFuture<Page<T>> findPage(PageCursor cursor, int limit, PageSort sort) {
+        return limiter.submit(() -> useCases.findPage(cursor, limit, sort));
+    }
+
+    /**
+     * @see GenericUseCases#estimateTotal()
+     */
+    public CompletableFuture<Long> estimateTotal() {
+        return limiter.submit(useCases::estimateTotal);
+    }
+
+    /**
+     * @see GenericUseCases#total()
+     */
+    public CompletableFuture<Long> total() {
+        return limiter.submit(useCases::total);
+    }
+
+    /**
+     * @see GenericUseCases#count(String, String)
+     */
+    public CompletableFuture<Long> count(String attribute, String value) {
+        return limiter.submit(() -> useCases.count(attribute, value));
+    }
+
+    /**
+     * @see GenericUseCases#exists(String, String)
+     */
+    public CompletableFuture<Boolean> exists(String attribute, String value) {
+        return limiter.submit(() -> useCases.exists(attribute, value));
+    }
+
+    /**
+     * @see GenericUseCases#update(Object)
+     */
+    public CompletableFuture<T> update(T entity) {
+        return limiter.submit(() -> useCases.update(entity));
+    }
+
+    /**
+     * @see GenericUseCases#delete(UUID)
+     */
+    public CompletableFuture<Boolean> delete(UUID id) {
+        return limiter.submit(() -> useCases.delete(id));
+    }
+
+    /**
+     * @return Operaciones ejecutandose en este momento en el limitador, de
+     *         este o de otros casos de uso que lo comparten.
+     */
+    public int running() {
+        return limiter.running();
+    }
+
+    /**
+     * @return Operaciones esperando su turno.
+     */
+    public int queued() {
+        return limiter.queued();
+    }
+}
@@ -0,0 +1,130 @@
+package edu.usta.application.usecases;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import edu.usta.infrastructure.db.CancellationToken;
+
+/**
+ * Limita cuantas operaciones corren al mismo tiempo sobre un recurso (por
+ * ejemplo un repositorio) sin bloquear hilos.
+ *
+ * <p>
+ * Las operaciones que superan el limite quedan en una cola y se envian al
+ * {@link Executor} cuando termina otra. Quien llama recibe un
+ * {@link CompletableFuture} de inmediato; ningun hilo se queda esperando un
+ * permiso. Asi miles de consultas simultaneas no superan el numero de
+ * conexiones del pool.
+ * </p>
+ *
+ * <p>
+ * Si el futuro se cancela mientras espera en la cola, la operacion no se
+ * ejecuta. Si se cancela mientras corre, su {@link CancellationToken} aborta
+ * la consulta que este haciendo en la base de datos.
+ * </p>
+ */
+public class ConcurrencyLimiter {
+
+    private final int maxConcurrency;
+    private final Executor executor;
+    private final Queue<Job<?>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger running = new AtomicInteger();
+
+    /**
+     * Operacion en espera junto con el futuro que la representa.
+     */
+    private record Job<R>(Supplier<R> operation, CompletableFuture<R> future, CancellationToken token) {
+
+        void run() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(token.runWith(operation));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * @param maxConcurrency Maximo de operaciones ejecutandose a la vez.
+     * @param executor       Ejecutor en el que corren las operaciones.
+     */
+    public ConcurrencyLimiter(int maxConcurrency, Executor executor) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Limite de concurrencia invalido: " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.executor = executor;
+    }
+
+    /**
+     * Encola una operacion; se ejecuta en cuanto haya un permiso libre.
+     *
+     * @param operation Operacion a ejecutar.
+     * @return Futuro con el resultado de la operacion.
+     */
+    public <R> CompletableFuture<R> submit(Supplier<R> operation) {
+        CancellationToken token = new CancellationToken();
+        CompletableFuture<R> future = token.bind(new CompletableFuture<>());
+        queue.add(new Job<>(operation, future, token));
+        drain();
+        return future;
+    }
+
+    /**
+     * @return Operaciones ejecutandose en este momento.
+     */
+    public int running() {
+        return running.get();
+    }
+
+    /**
+     * @return Operaciones esperando un permiso.
+     */
+    public int queued() {
+        return queue.size();
+    }
+
+    /**
+     * Envia al ejecutor tantas operaciones de la cola como permisos libres
+     * haya.
+     */
+    private void drain() {
+        while (!queue.isEmpty()) {
+            int current = running.get();
+            if (current >= maxConcurrency) {
+                return;
+            }
+            if (!running.compareAndSet(current, current + 1)) {
+                continue;
+            }
+
+            Job<?> job = queue.poll();
+            if (job == null) {
+                running.decrementAndGet();
+                continue;
+            }
+
+            try {
+                executor.execute(() -> {
+                    try {
+                        job.run();
+                    } finally {
+                        running.decrementAndGet();
+                        drain();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                running.decrementAndGet();
+                job.future().completeExceptionally(e);
+            }
+        }
+    }
+}
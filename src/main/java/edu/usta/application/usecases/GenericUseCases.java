@@ -1,9 +1,19 @@
 package edu.usta.application.usecases;
 
+import edu.usta.application.dto.FacetedResult;
+import edu.usta.domain.repositories.Criteria;
+import edu.usta.domain.repositories.FacetCounts;
 import edu.usta.domain.repositories.GenericRepository;
+import edu.usta.domain.repositories.Page;
+import edu.usta.domain.repositories.PageCursor;
+import edu.usta.domain.repositories.PageSort;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Caso de uso genérico que define las operaciones básicas de manipulación de
@@ -27,6 +37,12 @@ import java.util.UUID;
  */
 public class GenericUseCases<T> {
 
+    /**
+     * Por debajo de este total estimado {@link #total()} cuenta las filas; por
+     * encima usa la estimacion.
+     */
+    public static final long EXACT_COUNT_LIMIT = 100_000;
+
     /** Repositorio genérico encargado de la persistencia de la entidad. */
     private final GenericRepository<T> repository;
 
@@ -61,6 +77,17 @@ public class GenericUseCases<T> {
         return repository.findById(id);
     }
 
+    /**
+     * Busca varias entidades por sus identificadores en una sola operación,
+     * en lugar de llamar {@link #findById(UUID)} una vez por cada id.
+     *
+     * @param ids Identificadores (UUID) de las entidades.
+     * @return Mapa identificador → entidad con las entidades encontradas.
+     */
+    public Map<UUID, T> findAllById(Collection<UUID> ids) {
+        return repository.findAllById(ids);
+    }
+
     /**
      * Obtiene todas las entidades registradas en el repositorio.
      *
@@ -70,6 +97,27 @@ public class GenericUseCases<T> {
         return repository.findAll();
     }
 
+    /**
+     * Recorre todas las entidades por lotes, sin cargarlas en memoria a la
+     * vez. El stream debe cerrarse.
+     *
+     * @param fetchSize Filas por lote.
+     * @return Stream perezoso de todas las entidades.
+     */
+    public Stream<T> stream(int fetchSize) {
+        return repository.stream(fetchSize);
+    }
+
+    /**
+     * Aplica la accion a cada entidad, leyendolas por lotes.
+     *
+     * @param fetchSize Filas por lote.
+     * @param action    Accion a aplicar.
+     */
+    public void forEach(int fetchSize, Consumer<? super T> action) {
+        repository.forEach(fetchSize, action);
+    }
+
     /**
      * Busca entidades basadas en un atributo determinado.
      *
@@ -85,6 +133,141 @@ public class GenericUseCases<T> {
         return repository.findBy(attribute, value);
     }
 
+    /**
+     * Busca una entidad por su llave natural (serial, documento, NIT) con
+     * comparacion exacta.
+     *
+     * @param attribute Llave natural.
+     * @param value     Valor exacto, por ejemplo el leido por un escaner.
+     * @return La entidad, o vacío si no existe.
+     */
+    public Optional<T> findOneBy(String attribute, String value) {
+        return repository.findOneBy(attribute, value);
+    }
+
+    /**
+     * Busca las entidades que cumplen varias condiciones a la vez (por
+     * ejemplo tipo, estado y proveedor) en una sola consulta.
+     *
+     * @param criteria Condiciones, orden y limite.
+     * @return Entidades que cumplen el filtro.
+     */
+    public List<T> findAll(Criteria criteria) {
+        return repository.findAll(criteria);
+    }
+
+    /**
+     * Cuenta las entidades que cumplen el filtro.
+     *
+     * @param criteria Condiciones del filtro.
+     * @return Numero de entidades.
+     */
+    public long count(Criteria criteria) {
+        return repository.count(criteria);
+    }
+
+    /**
+     * Cuenta, para cada faceta, cuantas entidades que cumplen el filtro
+     * tienen cada valor, en una sola consulta.
+     *
+     * @param criteria Condiciones del filtro.
+     * @param facets   Atributos por los que se cuenta, p. ej. {@code "state"}.
+     * @return El total y los conteos de cada faceta.
+     */
+    public FacetCounts facetCounts(Criteria criteria, Collection<String> facets) {
+        return repository.facetCounts(criteria, facets);
+    }
+
+    /**
+     * Busca las entidades que cumplen el filtro junto con los conteos de sus
+     * facetas.
+     *
+     * @param criteria Condiciones, orden y limite de las entidades.
+     * @param facets   Atributos por los que se cuenta.
+     * @return Entidades y conteos.
+     */
+    public FacetedResult<T> facetedSearch(Criteria criteria, Collection<String> facets) {
+        return new FacetedResult<>(repository.findAll(criteria), repository.facetCounts(criteria, facets));
+    }
+
+    /**
+     * Busca entidades por texto libre, filtrando y limitando en el
+     * repositorio.
+     *
+     * @param text  Texto a buscar.
+     * @param limit Máximo de entidades a devolver.
+     * @return Entidades que coinciden, las más relevantes primero.
+     */
+    public List<T> search(String text, int limit) {
+        return repository.search(text, limit);
+    }
+
+    /**
+     * Busca entidades parecidas al texto, tolerando errores de digitación.
+     *
+     * @param text  Texto a buscar.
+     * @param limit Máximo de entidades a devolver.
+     * @return Entidades parecidas, las más similares primero.
+     */
+    public List<T> searchSimilar(String text, int limit) {
+        return repository.searchSimilar(text, limit);
+    }
+
+    /**
+     * Lee una pagina de entidades.
+     *
+     * @param cursor Posicion; {@link PageCursor#FIRST} para empezar.
+     * @param limit  Máximo de entidades de la pagina.
+     * @param sort   Orden de la paginacion.
+     * @return La pagina y el cursor de la siguiente.
+     */
+    public Page<T> findPage(PageCursor cursor, int limit, PageSort sort) {
+        return repository.findPage(cursor, limit, sort);
+    }
+
+    /**
+     * @return Numero aproximado de entidades.
+     */
+    public long estimateTotal() {
+        return repository.estimateTotal();
+    }
+
+    /**
+     * Total de entidades para mostrar: exacto en tablas pequeñas y estimado
+     * cuando la estimacion llega a {@link #EXACT_COUNT_LIMIT}, donde un
+     * {@code COUNT(*)} recorreria toda la tabla.
+     *
+     * @return Numero de entidades, aproximado si es
+     *         {@code >= EXACT_COUNT_LIMIT}.
+     */
+    public long total() {
+        long estimate = repository.estimateTotal();
+        return estimate < EXACT_COUNT_LIMIT ? repository.count() : estimate;
+    }
+
+    /**
+     * Cuenta las entidades que devolveria {@link #findBy(String, String)}.
+     *
+     * @param attribute Atributo por el cual se filtra.
+     * @param value     Texto que debe contener el atributo.
+     * @return Numero de entidades que coinciden.
+     */
+    public long count(String attribute, String value) {
+        return repository.count(attribute, value);
+    }
+
+    /**
+     * Indica si ya hay una entidad con exactamente ese valor, por ejemplo
+     * para avisar de un serial repetido antes de intentar guardarlo.
+     *
+     * @param attribute Atributo a comparar.
+     * @param value     Valor exacto.
+     * @return {@code true} si ya existe.
+     */
+    public boolean exists(String attribute, String value) {
+        return repository.exists(attribute, value);
+    }
+
     /**
      * Actualiza una entidad existente.
      *
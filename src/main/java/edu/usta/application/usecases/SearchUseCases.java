@@ -0,0 +1,129 @@
+package edu.usta.application.usecases;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import edu.usta.application.dto.CategoryResult;
+import edu.usta.application.dto.SearchResult;
+import edu.usta.application.dto.SearchResultType;
+
+/**
+ * Busqueda en varias categorias a la vez.
+ *
+ * <p>
+ * Cada categoria se consulta en paralelo, en su propio hilo y con su propia
+ * conexion del pool, asi la latencia total es la de la categoria mas lenta y
+ * no la suma de todas. Cada consulta tiene un plazo: si no responde a tiempo
+ * se cancela (tambien en la base de datos) y la categoria se entrega como
+ * {@link CategoryResult.Status#TIMED_OUT}, sin retrasar a las demas.
+ * </p>
+ *
+ * <p>
+ * Las consultas pasan por el mismo {@link ConcurrencyLimiter} que el resto de
+ * los casos de uso, asi una busqueda no toma mas conexiones de las que tiene
+ * el pool.
+ * </p>
+ */
+public class SearchUseCases {
+
+    /**
+     * Consulta de una categoria.
+     */
+    @FunctionalInterface
+    public interface CategorySearch {
+        List<SearchResult> search(String text, int limit);
+    }
+
+    private final Map<SearchResultType, CategorySearch> categories;
+    private final ConcurrencyLimiter limiter;
+    private final Duration deadline;
+
+    /**
+     * @param categories consulta de cada categoria.
+     * @param limiter    limite compartido con los demas casos de uso; una
+     *                   consulta que espera turno tambien consume su plazo.
+     * @param deadline   plazo de cada consulta.
+     */
+    public SearchUseCases(Map<SearchResultType, CategorySearch> categories, ConcurrencyLimiter limiter,
+            Duration deadline) {
+        if (deadline.isNegative() || deadline.isZero()) {
+            throw new IllegalArgumentException("Plazo de busqueda invalido: " + deadline);
+        }
+        this.categories = new EnumMap<>(categories);
+        this.limiter = limiter;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Busca en las categorias pedidas al mismo tiempo.
+     *
+     * @param text      texto buscado.
+     * @param types     categorias en las que se busca.
+     * @param limit     maximo de filas por categoria.
+     * @param onPartial recibe cada categoria en cuanto termina (o vence su
+     *                  plazo), en el hilo de la consulta; puede ser
+     *                  {@code null}.
+     * @return futuro con todas las categorias en el orden pedido. Cancelarlo
+     *         cancela las consultas que sigan corriendo.
+     */
+    public CompletableFuture<List<CategoryResult>> search(String text, Collection<SearchResultType> types, int limit,
+            Consumer<CategoryResult> onPartial) {
+        List<CompletableFuture<List<SearchResult>>> queries = new ArrayList<>();
+        List<CompletableFuture<CategoryResult>> outcomes = new ArrayList<>();
+
+        for (SearchResultType type : types) {
+            CategorySearch category = categories.get(type);
+            if (category == null) {
+                throw new IllegalArgumentException("Categoria sin busqueda configurada: " + type);
+            }
+
+            CompletableFuture<List<SearchResult>> query = limiter.submit(() -> category.search(text, limit));
+            CompletableFuture.delayedExecutor(deadline.toMillis(), TimeUnit.MILLISECONDS)
+                    .execute(() -> query.cancel(false));
+
+            CompletableFuture<CategoryResult> outcome = query.handle((rows, error) -> {
+                CategoryResult result;
+                if (error == null) {
+                    result = CategoryResult.complete(type, rows);
+                } else if (query.isCancelled()) {
+                    result = CategoryResult.timedOut(type);
+                } else {
+                    result = CategoryResult.failed(type, unwrap(error));
+                }
+                if (onPartial != null) {
+                    onPartial.accept(result);
+                }
+                return result;
+            });
+            queries.add(query);
+            outcomes.add(outcome);
+        }
+
+        CompletableFuture<List<CategoryResult>> all = CompletableFuture
+                .allOf(outcomes.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> outcomes.stream().map(CompletableFuture::join).toList());
+
+        all.whenComplete((result, error) -> {
+            if (all.isCancelled()) {
+                queries.forEach(query -> query.cancel(false));
+            }
+        });
+        return all;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,31 @@
+package edu.usta.domain.repositories;
+
+/**
+ * Fotografia de las metricas de un {@link CachedRepository} en un instante.
+ *
+ * @param size        entidades guardadas en este momento.
+ * @param maxSize     maximo de entidades que se guardan.
+ * @param hits        lecturas resueltas desde memoria.
+ * @param misses      lecturas que tuvieron que ir al repositorio decorado.
+ * @param evictions   entidades sacadas por falta de espacio (LRU).
+ * @param expirations entidades descartadas porque vencio su TTL.
+ * @param invalidations entidades descartadas por una escritura o una
+ *                    invalidacion explicita.
+ */
+public record CacheStats(
+        int size,
+        int maxSize,
+        long hits,
+        long misses,
+        long evictions,
+        long expirations,
+        long invalidations) {
+
+    /**
+     * @return proporcion de lecturas resueltas desde memoria, entre 0 y 1.
+     */
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,352 @@
+package edu.usta.domain.repositories;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Cache de segundo nivel para cualquier {@link GenericRepository}.
+ *
+ * <p>
+ * Guarda en memoria las entidades leidas por {@code findById} y
+ * {@code findAllById}, de modo que las consultas repetidas (por ejemplo un
+ * visitante que vuelve a la porteria) no llegan a la base de datos.
+ * </p>
+ * <ul>
+ * <li>Tamaño acotado: al superar {@code maxSize} se descarta la entidad usada
+ * hace mas tiempo (LRU).</li>
+ * <li>TTL: una entidad guardada hace mas de {@code ttl} se vuelve a leer.</li>
+ * <li>{@code create}, {@code update} y {@code delete} invalidan la entidad
+ * afectada despues de escribir.</li>
+ * </ul>
+ *
+ * <p>
+ * {@code findAll}, {@code findBy} y {@code search} no se guardan ni llenan el
+ * cache: sus resultados dependen de todas las filas y un listado grande
+ * sacaria del cache a las entidades que si se consultan seguido.
+ * </p>
+ *
+ * @param <T> Tipo de entidad del repositorio.
+ */
+public class CachedRepository<T> implements GenericRepository<T> {
+
+    private final GenericRepository<T> repository;
+    private final Function<T, String> idOf;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<UUID, CacheEntry<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Aumenta con cada invalidacion. Una lectura solo guarda su resultado si
+     * no hubo invalidaciones mientras consultaba, para no dejar en el cache un
+     * valor anterior a una escritura concurrente.
+     */
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    private record CacheEntry<T>(T value, long loadedAt) {
+    }
+
+    /**
+     * @param repository repositorio decorado.
+     * @param idOf       obtiene el id de una entidad, p. ej.
+     *                   {@code Person::getId}.
+     * @param maxSize    maximo de entidades guardadas.
+     * @param ttl        tiempo de vida de cada entidad; {@link Duration#ZERO}
+     *                   las guarda hasta que se invaliden o se desalojen.
+     */
+    public CachedRepository(GenericRepository<T> repository, Function<T, String> idOf, int maxSize, Duration ttl) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Tamaño de cache invalido: " + maxSize);
+        }
+        if (ttl.isNegative()) {
+            throw new IllegalArgumentException("TTL de cache invalido: " + ttl);
+        }
+        this.repository = Objects.requireNonNull(repository);
+        this.idOf = Objects.requireNonNull(idOf);
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public T create(T entity) {
+        T created = repository.create(entity);
+        invalidate(idOf(created));
+        return created;
+    }
+
+    @Override
+    public Optional<T> findById(UUID id) {
+        long loadGeneration;
+        lock.lock();
+        try {
+            T cached = lookup(id);
+            if (cached != null) {
+                hits++;
+                return Optional.of(cached);
+            }
+            misses++;
+            loadGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        Optional<T> loaded = repository.findById(id);
+        loaded.ifPresent(entity -> store(List.of(entity), loadGeneration));
+        return loaded;
+    }
+
+    @Override
+    public Map<UUID, T> findAllById(Collection<UUID> ids) {
+        Map<UUID, T> found = new LinkedHashMap<>();
+        // Conjunto: contains en O(1) mientras se tiene el lock
+        Set<UUID> missing = new LinkedHashSet<>();
+        long loadGeneration;
+
+        lock.lock();
+        try {
+            for (UUID id : ids) {
+                if (id == null || found.containsKey(id) || missing.contains(id)) {
+                    continue;
+                }
+                T cached = lookup(id);
+                if (cached != null) {
+                    hits++;
+                    found.put(id, cached);
+                } else {
+                    misses++;
+                    missing.add(id);
+                }
+            }
+            loadGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        Map<UUID, T> loaded = repository.findAllById(missing);
+        store(loaded.values(), loadGeneration);
+
+        // Conservar el orden en que se pidieron los ids.
+        Map<UUID, T> result = new LinkedHashMap<>();
+        for (UUID id : ids) {
+            T entity = id == null ? null : found.getOrDefault(id, loaded.get(id));
+            if (entity != null) {
+                result.putIfAbsent(id, entity);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<T> findAll() {
+        return repository.findAll();
+    }
+
+    @Override
+    public Stream<T> stream(int fetchSize) {
+        return repository.stream(fetchSize);
+    }
+
+    @Override
+    public List<T> findBy(String attribute, String value) {
+        return repository.findBy(attribute, value);
+    }
+
+    /**
+     * Siempre consulta el repositorio (el cache esta indexado por id), pero
+     * guarda la entidad encontrada para las lecturas por id que suelen
+     * seguir.
+     */
+    @Override
+    public Optional<T> findOneBy(String attribute, String value) {
+        long loadGeneration;
+        lock.lock();
+        try {
+            loadGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        Optional<T> loaded = repository.findOneBy(attribute, value);
+        loaded.ifPresent(entity -> store(List.of(entity), loadGeneration));
+        return loaded;
+    }
+
+    @Override
+    public List<T> findAll(Criteria criteria) {
+        return repository.findAll(criteria);
+    }
+
+    @Override
+    public List<T> search(String text, int limit) {
+        return repository.search(text, limit);
+    }
+
+    @Override
+    public List<T> searchSimilar(String text, int limit) {
+        return repository.searchSimilar(text, limit);
+    }
+
+    @Override
+    public Page<T> findPage(PageCursor cursor, int limit, PageSort sort) {
+        return repository.findPage(cursor, limit, sort);
+    }
+
+    @Override
+    public long estimateTotal() {
+        return repository.estimateTotal();
+    }
+
+    @Override
+    public long count() {
+        return repository.count();
+    }
+
+    @Override
+    public long count(String attribute, String value) {
+        return repository.count(attribute, value);
+    }
+
+    @Override
+    public long count(Criteria criteria) {
+        return repository.count(criteria);
+    }
+
+    @Override
+    public FacetCounts facetCounts(Criteria criteria, Collection<String> facets) {
+        return repository.facetCounts(criteria, facets);
+    }
+
+    @Override
+    public boolean exists(String attribute, String value) {
+        return repository.exists(attribute, value);
+    }
+
+    @Override
+    public T update(T entity) {
+        T updated = repository.update(entity);
+        invalidate(idOf(entity));
+        return updated;
+    }
+
+    @Override
+    public boolean delete(UUID id) {
+        boolean deleted = repository.delete(id);
+        invalidate(id);
+        return deleted;
+    }
+
+    /**
+     * Descarta la entidad guardada con ese id, si la hay.
+     *
+     * @param id identificador de la entidad.
+     */
+    public void invalidate(UUID id) {
+        lock.lock();
+        try {
+            generation++;
+            if (id != null && entries.remove(id) != null) {
+                invalidations++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Descarta todas las entidades guardadas.
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            generation++;
+            invalidations += entries.size();
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return metricas de uso del cache.
+     */
+    public CacheStats stats() {
+        lock.lock();
+        try {
+            return new CacheStats(entries.size(), maxSize, hits, misses, evictions, expirations, invalidations);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Busca una entidad vigente; descarta la entrada si ya vencio. Se llama con
+     * el candado tomado.
+     */
+    private T lookup(UUID id) {
+        CacheEntry<T> entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (ttlNanos > 0 && System.nanoTime() - entry.loadedAt() > ttlNanos) {
+            entries.remove(id);
+            expirations++;
+            return null;
+        }
+        return entry.value();
+    }
+
+    private void store(Collection<T> loaded, long loadGeneration) {
+        if (loaded.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (generation != loadGeneration) {
+                return;
+            }
+            long now = System.nanoTime();
+            for (T entity : loaded) {
+                UUID id = idOf(entity);
+                if (id != null) {
+                    entries.put(id, new CacheEntry<>(entity, now));
+                }
+            }
+            Iterator<UUID> eldest = entries.keySet().iterator();
+            while (entries.size() > maxSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private UUID idOf(T entity) {
+        String id = entity == null ? null : idOf.apply(entity);
+        return id == null ? null : UUID.fromString(id);
+    }
+}
@@ -0,0 +1,129 @@
+package edu.usta.domain.repositories;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+import edu.usta.infrastructure.db.DatabaseConnection;
+
+/**
+ * Conteos y verificaciones de existencia de un repositorio JDBC
+ * ({@link GenericRepository#count()}, {@link GenericRepository#exists}) que
+ * se resuelven en la base de datos: solo viaja un numero o un booleano, nunca
+ * las filas.
+ */
+final class CountQueries {
+
+    private final String table;
+    private final String countSql;
+    private final String estimateSql;
+    private final Map<String, String> countBySql;
+    private final Map<String, String> existsSql;
+
+    /**
+     * @param baseSql       consulta base del repositorio, sin {@code WHERE}.
+     * @param table         tabla principal, para el total.
+     * @param allowedFields campos logicos de {@code findBy} y su columna SQL.
+     * @param uniqueFields  llaves naturales ({@code UNIQUE}) por las que se
+     *                      puede verificar existencia.
+     */
+    CountQueries(String baseSql, String table, Map<String, String> allowedFields,
+            Map<String, String> uniqueFields) {
+        this.table = table;
+        countSql = "SELECT COUNT(*) FROM " + table;
+        estimateSql = """
+                SELECT CASE WHEN c.reltuples < 0 THEN NULL ELSE c.reltuples::BIGINT END AS estimate
+                FROM pg_class c
+                WHERE c.oid = to_regclass(?)
+                """;
+        // Mismo filtro que findBy
+        countBySql = FieldQueries.byField(allowedFields,
+                column -> "SELECT COUNT(*) FROM (" + baseSql + " WHERE " + column + "::text ILIKE ?) AS matches");
+        // Igualdad exacta sobre la columna, sin conversion, para usar el indice
+        // de la restriccion UNIQUE
+        existsSql = FieldQueries.byField(uniqueFields,
+                column -> "SELECT EXISTS (" + baseSql + " WHERE " + column + " = ?)");
+    }
+
+    long count(DatabaseConnection db) {
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(countSql);
+                ResultSet result = preparedStatement.executeQuery()) {
+            result.next();
+            return result.getLong(1);
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error counting rows of " + table, exception);
+        }
+    }
+
+    long count(DatabaseConnection db, String attribute, String value) {
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(sqlFor(countBySql, attribute))) {
+            preparedStatement.setString(1, "%" + SearchQueries.escapeLike(value) + "%");
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                result.next();
+                return result.getLong(1);
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error counting " + table + " by " + attribute, exception);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException si el atributo no es una llave unica.
+     */
+    boolean exists(DatabaseConnection db, String attribute, String value) {
+        String sql = existsSql.get(attribute);
+        if (sql == null) {
+            throw new IllegalArgumentException("Campo no es una llave unica: " + attribute);
+        }
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setString(1, value);
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                result.next();
+                return result.getBoolean(1);
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error checking " + table + " by " + attribute, exception);
+        }
+    }
+
+    /**
+     * Total aproximado de filas segun las estadisticas de PostgreSQL
+     * ({@code pg_class.reltuples}), sin recorrer la tabla. Si la tabla nunca se
+     * ha analizado, cuenta las filas.
+     */
+    long estimateTotal(DatabaseConnection db) {
+        try (Connection connection = db.getConnection()) {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(estimateSql)) {
+                preparedStatement.setString(1, table);
+                try (ResultSet result = preparedStatement.executeQuery()) {
+                    if (result.next()) {
+                        long estimate = result.getLong("estimate");
+                        if (!result.wasNull()) {
+                            return estimate;
+                        }
+                    }
+                }
+            }
+            try (PreparedStatement preparedStatement = connection.prepareStatement(countSql);
+                    ResultSet result = preparedStatement.executeQuery()) {
+                result.next();
+                return result.getLong(1);
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error estimating rows of " + table, exception);
+        }
+    }
+
+    private static String sqlFor(Map<String, String> queries, String attribute) {
+        String sql = queries.get(attribute);
+        if (sql == null) {
+            throw new IllegalArgumentException("Campo de busqueda no permitido: " + attribute);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,180 @@
+package edu.usta.domain.repositories;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Filtro de varias condiciones para
+ * {@link GenericRepository#findAll(Criteria)} y
+ * {@link GenericRepository#count(Criteria)}.
+ *
+ * <p>
+ * Todas las condiciones deben cumplirse (AND). Los atributos son los mismos
+ * nombres logicos que acepta {@link GenericRepository#findBy(String, String)};
+ * cada repositorio los traduce a columnas con su lista blanca y compila el
+ * filtro en una sola consulta parametrizada.
+ * </p>
+ *
+ * <pre>
+ * new Criteria()
+ *         .equal("type", EquipmentType.MEDICAL)
+ *         .in("state", List.of(EquipmentStatus.NEW, EquipmentStatus.IN_USE))
+ *         .startsWith("serial", "BIO-")
+ *         .containsAny(List.of("brand", "model"), "philips")
+ *         .orderBy(PageSort.ascending("serial"))
+ *         .limit(50);
+ * </pre>
+ *
+ * <p>
+ * Los valores se envian como texto y la base de datos los convierte al tipo
+ * de la columna; los {@code enum} se envian por su nombre.
+ * </p>
+ */
+public final class Criteria {
+
+    /**
+     * Tipo de comparacion de una condicion.
+     */
+    public enum Operator {
+        /** Igual al valor. */
+        EQUAL,
+        /** Igual a alguno de los valores. */
+        IN,
+        /** Mayor o igual al valor. */
+        AT_LEAST,
+        /** Menor o igual al valor. */
+        AT_MOST,
+        /** Empieza por el texto, sin distinguir mayusculas. */
+        STARTS_WITH,
+        /** Contiene el texto, sin distinguir mayusculas. */
+        CONTAINS,
+        /** Alguno de los atributos contiene el texto, sin distinguir mayusculas. */
+        CONTAINS_ANY
+    }
+
+    /**
+     * Una condicion del filtro.
+     *
+     * @param attributes nombres logicos de los atributos; varios solo en
+     *                   {@link Operator#CONTAINS_ANY}.
+     * @param operator   comparacion.
+     * @param values     valores como texto; varios solo en {@link Operator#IN}.
+     */
+    public record Condition(List<String> attributes, Operator operator, List<String> values) {
+
+        /**
+         * @return el primer atributo; el unico salvo en
+         *         {@link Operator#CONTAINS_ANY}.
+         */
+        public String attribute() {
+            return attributes.get(0);
+        }
+    }
+
+    private final List<Condition> conditions = new ArrayList<>();
+    private PageSort sort;
+    private int limit;
+
+    public Criteria equal(String attribute, Object value) {
+        return add(attribute, Operator.EQUAL, List.of(text(value)));
+    }
+
+    /**
+     * @throws IllegalArgumentException si no hay valores.
+     */
+    public Criteria in(String attribute, Collection<?> values) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("IN sin valores para " + attribute);
+        }
+        List<String> texts = new ArrayList<>(values.size());
+        for (Object value : values) {
+            texts.add(text(value));
+        }
+        return add(attribute, Operator.IN, texts);
+    }
+
+    public Criteria atLeast(String attribute, Object value) {
+        return add(attribute, Operator.AT_LEAST, List.of(text(value)));
+    }
+
+    public Criteria atMost(String attribute, Object value) {
+        return add(attribute, Operator.AT_MOST, List.of(text(value)));
+    }
+
+    /**
+     * Rango cerrado: {@code from <= atributo <= to}.
+     */
+    public Criteria between(String attribute, Object from, Object to) {
+        return atLeast(attribute, from).atMost(attribute, to);
+    }
+
+    public Criteria startsWith(String attribute, String prefix) {
+        return add(attribute, Operator.STARTS_WITH, List.of(text(prefix)));
+    }
+
+    public Criteria contains(String attribute, String text) {
+        return add(attribute, Operator.CONTAINS, List.of(text(text)));
+    }
+
+    /**
+     * El texto aparece en alguno de los atributos (OR entre ellos), como en
+     * {@link GenericRepository#search(String, int)}.
+     *
+     * @throws IllegalArgumentException si no hay atributos.
+     */
+    public Criteria containsAny(Collection<String> attributes, String text) {
+        if (attributes.isEmpty()) {
+            throw new IllegalArgumentException("CONTAINS_ANY sin atributos");
+        }
+        conditions.add(new Condition(List.copyOf(attributes), Operator.CONTAINS_ANY, List.of(text(text))));
+        return this;
+    }
+
+    /**
+     * Orden del resultado; sin orden se devuelve por id.
+     */
+    public Criteria orderBy(PageSort sort) {
+        this.sort = sort;
+        return this;
+    }
+
+    /**
+     * Maximo de entidades a devolver; {@code 0} es sin limite.
+     */
+    public Criteria limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("El limite no puede ser negativo: " + limit);
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    public List<Condition> getConditions() {
+        return Collections.unmodifiableList(conditions);
+    }
+
+    /**
+     * @return el orden, o {@code null} si no se pidio.
+     */
+    public PageSort getSort() {
+        return sort;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    private Criteria add(String attribute, Operator operator, List<String> values) {
+        conditions.add(new Condition(List.of(attribute), operator, List.copyOf(values)));
+        return this;
+    }
+
+    private static String text(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Los valores del filtro no pueden ser null");
+        }
+        return value instanceof Enum<?> constant ? constant.name() : value.toString();
+    }
+}
@@ -0,0 +1,276 @@
+package edu.usta.domain.repositories;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import edu.usta.infrastructure.db.DatabaseConnection;
+
+/**
+ * Compila un {@link Criteria} en una sola consulta parametrizada sobre la
+ * consulta base de un repositorio JDBC.
+ *
+ * <p>
+ * Los atributos se traducen con la lista blanca {@code ALLOWED_FIELDS} del
+ * repositorio; nunca se concatena texto del usuario. Cada valor se envia
+ * como parametro y se convierte al tipo de la columna en el servidor
+ * ({@code e.type = CAST(? AS equipment_type)}), asi la comparacion es contra
+ * la columna sin transformar y puede usar sus indices
+ * ({@code idx_equipment_type}, {@code idx_equipment_state},
+ * {@code idx_equipment_provider}). {@code IN} se envia como un arreglo
+ * ({@code = ANY(?)}), de modo que el SQL no cambia con la cantidad de
+ * valores.
+ * </p>
+ *
+ * <p>
+ * El mismo filtro (mismos atributos y operadores) produce siempre el mismo
+ * texto SQL, y el driver reutiliza su sentencia preparada.
+ * </p>
+ *
+ * <p>
+ * Los conteos por faceta se calculan en una sola pasada con
+ * {@code GROUP BY GROUPING SETS}: un conjunto por faceta mas el conjunto vacio
+ * para el total, en lugar de una consulta {@code COUNT} por faceta.
+ * </p>
+ */
+final class CriteriaQueries {
+
+    /**
+     * Atributo por el que se pueden contar facetas.
+     *
+     * @param value columna del resultado de la consulta base con el valor,
+     *              p. ej. {@code e_type}.
+     * @param label columna con el texto a mostrar, p. ej. {@code p_name}.
+     */
+    record Facet(String value, String label) {
+
+        Facet(String value) {
+            this(value, value);
+        }
+    }
+
+    private final String baseSql;
+    private final String table;
+    private final String idColumn;
+    private final Map<String, String> fields;
+    private final Map<String, String> types;
+    private final Map<String, Facet> facets;
+
+    /**
+     * @param baseSql  consulta base del repositorio, sin {@code WHERE}.
+     * @param table    tabla principal, para los mensajes de error.
+     * @param idColumn columna del id, para el orden por defecto.
+     * @param fields   lista blanca: atributo logico → columna.
+     * @param types    tipo SQL de las columnas que no son texto.
+     */
+    CriteriaQueries(String baseSql, String table, String idColumn, Map<String, String> fields,
+            Map<String, String> types) {
+        this(baseSql, table, idColumn, fields, types, Map.of());
+    }
+
+    /**
+     * @param facets atributos por los que se pueden contar facetas.
+     */
+    CriteriaQueries(String baseSql, String table, String idColumn, Map<String, String> fields,
+            Map<String, String> types, Map<String, Facet> facets) {
+        this.baseSql = baseSql;
+        this.table = table;
+        this.idColumn = idColumn;
+        this.fields = fields;
+        this.types = types;
+        this.facets = facets;
+    }
+
+    <T> List<T> findAll(DatabaseConnection db, Criteria criteria, RowMapper<T> mapper) {
+        List<Criteria.Condition> conditions = criteria.getConditions();
+        String sql = baseSql + where(conditions) + orderBy(criteria.getSort()) + " LIMIT ?";
+
+        List<T> entities = new ArrayList<>();
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+
+            int index = bind(connection, preparedStatement, conditions);
+            // LIMIT NULL es sin limite
+            preparedStatement.setObject(index, criteria.getLimit() == 0 ? null : criteria.getLimit(),
+                    Types.INTEGER);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                while (result.next()) {
+                    entities.add(mapper.map(result));
+                }
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error filtering " + table, exception);
+        }
+        return entities;
+    }
+
+    long count(DatabaseConnection db, Criteria criteria) {
+        List<Criteria.Condition> conditions = criteria.getConditions();
+        String sql = "SELECT COUNT(*) FROM (" + baseSql + where(conditions) + ") AS matches";
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+
+            bind(connection, preparedStatement, conditions);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                result.next();
+                return result.getLong(1);
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error counting " + table, exception);
+        }
+    }
+
+    FacetCounts facetCounts(DatabaseConnection db, Criteria criteria, Collection<String> names) {
+        List<String> requested = List.copyOf(new LinkedHashSet<>(names));
+        List<Facet> columns = new ArrayList<>(requested.size());
+        for (String name : requested) {
+            Facet facet = facets.get(name);
+            if (facet == null) {
+                throw new IllegalArgumentException("No se pueden contar facetas por: " + name);
+            }
+            columns.add(facet);
+        }
+
+        List<Criteria.Condition> conditions = criteria.getConditions();
+        StringBuilder sql = new StringBuilder("SELECT ");
+        StringBuilder sets = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            Facet facet = columns.get(i);
+            sql.append("GROUPING(m.").append(facet.value()).append(") AS g").append(i)
+                    .append(", m.").append(facet.value()).append("::text AS v").append(i)
+                    .append(", MIN(m.").append(facet.label()).append("::text) AS l").append(i).append(", ");
+            sets.append("(m.").append(facet.value()).append("), ");
+        }
+        sql.append("COUNT(*) AS hits FROM (").append(baseSql).append(where(conditions)).append(") AS m")
+                .append(" GROUP BY GROUPING SETS (").append(sets).append("())")
+                .append(" ORDER BY hits DESC");
+
+        Map<String, List<FacetCounts.FacetValue>> counts = new LinkedHashMap<>();
+        requested.forEach(name -> counts.put(name, new ArrayList<>()));
+        long total = 0;
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(sql.toString())) {
+
+            bind(connection, preparedStatement, conditions);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                while (result.next()) {
+                    long hits = result.getLong("hits");
+                    int facet = groupedFacet(result, columns.size());
+                    if (facet < 0) {
+                        total = hits;
+                        continue;
+                    }
+                    String value = result.getString("v" + facet);
+                    String label = result.getString("l" + facet);
+                    counts.get(requested.get(facet))
+                            .add(new FacetCounts.FacetValue(value, label == null ? value : label, hits));
+                }
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error counting facets of " + table, exception);
+        }
+        return new FacetCounts(total, counts);
+    }
+
+    /**
+     * @return la faceta por la que se agrupo la fila ({@code GROUPING = 0}),
+     *         o {@code -1} para la fila del total.
+     */
+    private static int groupedFacet(ResultSet result, int facets) throws SQLException {
+        for (int i = 0; i < facets; i++) {
+            if (result.getInt("g" + i) == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String where(List<Criteria.Condition> conditions) {
+        if (conditions.isEmpty()) {
+            return "";
+        }
+        StringBuilder sql = new StringBuilder(" WHERE ");
+        for (int i = 0; i < conditions.size(); i++) {
+            if (i > 0) {
+                sql.append(" AND ");
+            }
+            Criteria.Condition condition = conditions.get(i);
+            String column = column(condition.attribute());
+            String type = types.getOrDefault(condition.attribute(), "TEXT");
+
+            switch (condition.operator()) {
+                case EQUAL -> sql.append(column).append(" = CAST(? AS ").append(type).append(')');
+                case IN -> sql.append(column).append(" = ANY(CAST(? AS ").append(type).append("[]))");
+                case AT_LEAST -> sql.append(column).append(" >= CAST(? AS ").append(type).append(')');
+                case AT_MOST -> sql.append(column).append(" <= CAST(? AS ").append(type).append(')');
+                case STARTS_WITH, CONTAINS -> sql.append(column).append("::text ILIKE ?");
+                case CONTAINS_ANY -> {
+                    sql.append('(');
+                    for (int j = 0; j < condition.attributes().size(); j++) {
+                        if (j > 0) {
+                            sql.append(" OR ");
+                        }
+                        sql.append(column(condition.attributes().get(j))).append("::text ILIKE ?");
+                    }
+                    sql.append(')');
+                }
+            }
+        }
+        return sql.toString();
+    }
+
+    private String orderBy(PageSort sort) {
+        if (sort == null || sort.attribute().equals("id")) {
+            return " ORDER BY " + idColumn + (sort != null && sort.descending() ? " DESC" : "");
+        }
+        String direction = sort.descending() ? " DESC" : "";
+        return " ORDER BY " + column(sort.attribute()) + direction + ", " + idColumn + direction;
+    }
+
+    private int bind(Connection connection, PreparedStatement preparedStatement,
+            List<Criteria.Condition> conditions) throws SQLException {
+        int index = 1;
+        for (Criteria.Condition condition : conditions) {
+            String value = condition.values().get(0);
+            switch (condition.operator()) {
+                case IN -> {
+                    Array array = connection.createArrayOf("text", condition.values().toArray());
+                    preparedStatement.setArray(index++, array);
+                }
+                case STARTS_WITH -> preparedStatement.setString(index++, SearchQueries.escapeLike(value) + "%");
+                case CONTAINS -> preparedStatement.setString(index++, "%" + SearchQueries.escapeLike(value) + "%");
+                case CONTAINS_ANY -> {
+                    // El mismo patron una vez por columna
+                    String pattern = "%" + SearchQueries.escapeLike(value) + "%";
+                    for (int j = 0; j < condition.attributes().size(); j++) {
+                        preparedStatement.setString(index++, pattern);
+                    }
+                }
+                default -> preparedStatement.setString(index++, value);
+            }
+        }
+        return index;
+    }
+
+    private String column(String attribute) {
+        String column = fields.get(attribute);
+        if (column == null) {
+            throw new IllegalArgumentException("Campo de busqueda no permitido: " + attribute);
+        }
+        return column;
+    }
+}
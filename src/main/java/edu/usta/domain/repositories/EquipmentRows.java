@@ -0,0 +1,115 @@
+package edu.usta.domain.repositories;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.UUID;
+
+import edu.usta.domain.entities.BiomedicalEquipment;
+import edu.usta.domain.entities.Equipment;
+import edu.usta.domain.entities.Provider;
+import edu.usta.domain.entities.TechEquipment;
+import edu.usta.domain.enums.EquipmentStatus;
+import edu.usta.domain.enums.EquipmentType;
+
+/**
+ * Conversion entre filas y equipos, compartida por los repositorios de equipos.
+ * Las consultas usan los mismos nombres de columna: {@code e_*} para
+ * {@code equipment}, {@code tc_*} para {@code tech_equipment}, {@code be_*}
+ * para {@code biomedical_equipment} y {@code p_*} para {@code provider}.
+ */
+final class EquipmentRows {
+
+    private EquipmentRows() {
+    }
+
+    /**
+     * Crea la subclase que corresponde a la fila segun la tabla de subtipo que
+     * tiene datos ({@code LEFT JOIN}): {@link TechEquipment},
+     * {@link BiomedicalEquipment} o {@link Equipment} si no tiene ninguna.
+     */
+    static Equipment equipment(ResultSet result) throws SQLException {
+        if (result.getObject("tc_id", UUID.class) != null) {
+            return tech(result);
+        }
+        if (result.getObject("be_id", UUID.class) != null) {
+            return biomedical(result);
+        }
+        return new Equipment(
+                result.getObject("e_id", UUID.class).toString(),
+                result.getString("e_serial"),
+                result.getString("e_brand"),
+                result.getString("e_model"),
+                EquipmentType.valueOf(result.getString("e_type")),
+                EquipmentStatus.valueOf(result.getString("e_state")),
+                provider(result),
+                result.getString("e_image_path"));
+    }
+
+    static TechEquipment tech(ResultSet result) throws SQLException {
+        return new TechEquipment(
+                result.getObject("e_id", UUID.class).toString(),
+                result.getString("e_serial"),
+                result.getString("e_brand"),
+                result.getString("e_model"),
+                EquipmentType.valueOf(result.getString("e_type")),
+                EquipmentStatus.valueOf(result.getString("e_state")),
+                provider(result),
+                result.getString("e_image_path"),
+                result.getString("tc_os"),
+                result.getInt("tc_ram_gb"));
+    }
+
+    static BiomedicalEquipment biomedical(ResultSet result) throws SQLException {
+        return new BiomedicalEquipment(
+                result.getObject("e_id", UUID.class).toString(),
+                result.getString("e_serial"),
+                result.getString("e_brand"),
+                result.getString("e_model"),
+                EquipmentType.valueOf(result.getString("e_type")),
+                EquipmentStatus.valueOf(result.getString("e_state")),
+                provider(result),
+                result.getString("e_image_path"),
+                result.getString("be_risk_class"),
+                result.getString("be_calibration_cert"));
+    }
+
+    /**
+     * Asigna las columnas de {@code equipment} en el orden
+     * {@code serial, brand, model, type, state, provider_id, image_path},
+     * empezando en {@code index}.
+     *
+     * @return el indice del siguiente parametro.
+     */
+    static int bindEquipment(PreparedStatement statement, int index, Equipment entity) throws SQLException {
+        statement.setString(index++, entity.getSerial());
+        statement.setString(index++, entity.getBrand());
+        statement.setString(index++, entity.getModel());
+        statement.setString(index++, entity.getType().name());
+        statement.setString(index++, entity.getState().name());
+        if (entity.getProvider() != null) {
+            statement.setObject(index++, UUID.fromString(entity.getProvider().getId()));
+        } else {
+            statement.setNull(index++, Types.OTHER);
+        }
+        statement.setString(index++, entity.getImagePath());
+        return index;
+    }
+
+    /**
+     * @return el proveedor de la fila, o {@code null} si el equipo no tiene
+     *         ({@code provider_id} admite {@code NULL}).
+     */
+    static Provider provider(ResultSet result) throws SQLException {
+        UUID id = result.getObject("p_id", UUID.class);
+        if (id == null) {
+            return null;
+        }
+        return new Provider(
+                id.toString(),
+                result.getString("p_name"),
+                result.getString("p_tax_id"),
+                result.getString("p_contact_email"));
+    }
+}
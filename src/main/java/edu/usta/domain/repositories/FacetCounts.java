@@ -0,0 +1,37 @@
+package edu.usta.domain.repositories;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conteos por faceta de {@link GenericRepository#facetCounts}: cuantas
+ * entidades que cumplen el filtro caen en cada valor de cada atributo (tipo,
+ * estado, proveedor...).
+ *
+ * @param total  entidades que cumplen el filtro.
+ * @param facets por faceta, sus valores del mas al menos frecuente.
+ */
+public record FacetCounts(long total, Map<String, List<FacetValue>> facets) {
+
+    /**
+     * Un valor de una faceta.
+     *
+     * @param value valor para filtrar con {@link Criteria#equal}; {@code null}
+     *              agrupa las entidades sin valor.
+     * @param label texto para mostrar, p. ej. el nombre del proveedor.
+     * @param count entidades con ese valor.
+     */
+    public record FacetValue(String value, String label, long count) {
+    }
+
+    public FacetCounts {
+        facets = Map.copyOf(facets);
+    }
+
+    /**
+     * @return los valores de la faceta, o una lista vacia si no se pidio.
+     */
+    public List<FacetValue> get(String facet) {
+        return facets.getOrDefault(facet, List.of());
+    }
+}
@@ -0,0 +1,28 @@
+package edu.usta.domain.repositories;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Sentencias que solo cambian en la columna filtrada, como {@code findBy} o
+ * {@code exists}. Se arman una vez al cargar el repositorio, asi cada campo
+ * usa siempre el mismo texto SQL y el driver reutiliza su sentencia preparada.
+ */
+final class FieldQueries {
+
+    private FieldQueries() {
+    }
+
+    /**
+     * @param fields   campos logicos y su columna SQL.
+     * @param template construye el SQL a partir de la columna.
+     * @return mapa inmutable campo logico a SQL.
+     */
+    static Map<String, String> byField(Map<String, String> fields, Function<String, String> template) {
+        Map<String, String> queries = new LinkedHashMap<>();
+        fields.forEach((field, column) -> queries.put(field, template.apply(column)));
+        return Collections.unmodifiableMap(queries);
+    }
+}
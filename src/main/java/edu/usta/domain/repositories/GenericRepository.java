@@ -1,8 +1,12 @@
 package edu.usta.domain.repositories;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Interfaz genérica para definir las operaciones CRUD (Crear, Leer, Actualizar
@@ -41,6 +45,19 @@ public interface GenericRepository<Entity> {
      */
     Optional<Entity> findById(UUID id);
 
+    /**
+     * Busca varias entidades por sus identificadores en una sola operación.
+     *
+     * <p>
+     * Los identificadores repetidos o nulos se ignoran. Los que no existan
+     * simplemente no aparecen en el resultado.
+     * </p>
+     *
+     * @param ids Identificadores (UUID) de las entidades.
+     * @return Mapa identificador → entidad con las entidades encontradas.
+     */
+    Map<UUID, Entity> findAllById(Collection<UUID> ids);
+
     /**
      * Obtiene todas las entidades almacenadas en el repositorio.
      *
@@ -48,6 +65,34 @@ public interface GenericRepository<Entity> {
      */
     List<Entity> findAll();
 
+    /**
+     * Recorre todas las entidades sin cargarlas en memoria a la vez, para
+     * exportaciones y procesos sobre tablas grandes.
+     *
+     * <p>
+     * Las filas se leen del servidor por lotes de {@code fetchSize} a medida
+     * que se consume el stream. Mientras tanto ocupa una conexion, asi que
+     * siempre debe cerrarse, idealmente con try-with-resources.
+     * </p>
+     *
+     * @param fetchSize Filas que se traen de la base de datos en cada lote.
+     * @return Stream perezoso de todas las entidades.
+     */
+    Stream<Entity> stream(int fetchSize);
+
+    /**
+     * Aplica la accion a cada entidad con {@link #stream(int)} y cierra el
+     * stream al terminar, aunque la accion falle.
+     *
+     * @param fetchSize Filas que se traen de la base de datos en cada lote.
+     * @param action    Accion a aplicar a cada entidad.
+     */
+    default void forEach(int fetchSize, Consumer<? super Entity> action) {
+        try (Stream<Entity> entities = stream(fetchSize)) {
+            entities.forEach(action);
+        }
+    }
+
     // Search
     /**
      * Busca entidades basadas en un atributo determinado.
@@ -62,6 +107,138 @@ public interface GenericRepository<Entity> {
      */
     List<Entity> findBy(String attribute, String value);
 
+    /**
+     * Busca una entidad por su llave natural, por ejemplo el serial de un
+     * equipo leido con el escaner o el documento de una persona.
+     *
+     * <p>
+     * A diferencia de {@link #findBy(String, String)}, compara el valor
+     * exacto (sin comodines ni mayusculas), asi la base de datos resuelve la
+     * busqueda con el indice de la restriccion {@code UNIQUE}.
+     * </p>
+     *
+     * @param attribute Llave natural, por ejemplo {@code "serial"},
+     *                  {@code "document"} o {@code "taxId"}.
+     * @param value     Valor exacto.
+     * @return La entidad, o vacío si no existe.
+     * @throws IllegalArgumentException si el atributo no es una llave unica.
+     */
+    Optional<Entity> findOneBy(String attribute, String value);
+
+    /**
+     * Busca las entidades que cumplen todas las condiciones del filtro, con
+     * una sola consulta que filtra, ordena y limita en la base de datos.
+     *
+     * @param criteria Condiciones, orden y limite.
+     * @return Entidades que cumplen el filtro.
+     * @throws IllegalArgumentException si alguna condicion o el orden usa un
+     *                                  atributo no permitido.
+     */
+    List<Entity> findAll(Criteria criteria);
+
+    /**
+     * Busqueda de texto libre sobre las columnas principales de la entidad
+     * (por ejemplo serial, marca y modelo de un equipo).
+     *
+     * <p>
+     * El filtro, el orden por relevancia y el limite se aplican en la base de
+     * datos, asi que solo se cargan en memoria las entidades devueltas.
+     * </p>
+     *
+     * @param text  Texto a buscar; vacío devuelve las primeras entidades.
+     * @param limit Máximo de entidades a devolver.
+     * @return Entidades que coinciden, las más relevantes primero.
+     */
+    List<Entity> search(String text, int limit);
+
+    /**
+     * Busqueda aproximada: devuelve las entidades cuyas columnas principales
+     * se parecen al texto aunque no lo contengan exactamente (por ejemplo con
+     * errores de digitacion), las más parecidas primero.
+     *
+     * @param text  Texto a buscar.
+     * @param limit Máximo de entidades a devolver.
+     * @return Entidades parecidas al texto, ordenadas por similitud.
+     */
+    List<Entity> searchSimilar(String text, int limit);
+
+    /**
+     * Lee una pagina de entidades con paginacion por llave ("keyset"): cada
+     * pagina continua despues de la ultima fila de la anterior, sin
+     * {@code OFFSET}, asi que cualquier pagina cuesta lo mismo que la primera.
+     *
+     * @param cursor Posicion; {@link PageCursor#FIRST} para la primera pagina
+     *               o {@link Page#next()} de la pagina anterior.
+     * @param limit  Máximo de entidades de la pagina.
+     * @param sort   Orden; debe ser el mismo en todas las paginas.
+     * @return La pagina y el cursor de la siguiente.
+     * @throws IllegalArgumentException si no se puede ordenar por ese
+     *                                  atributo.
+     */
+    Page<Entity> findPage(PageCursor cursor, int limit, PageSort sort);
+
+    /**
+     * Total aproximado de entidades, tomado de las estadisticas de la base de
+     * datos sin contar fila por fila. Sirve para dimensionar una lista
+     * paginada, no para validar.
+     *
+     * @return Numero estimado de entidades.
+     */
+    long estimateTotal();
+
+    /**
+     * Cuenta todas las entidades con un {@code COUNT(*)} exacto. En tablas
+     * grandes recorre todas las filas; para dimensionar una lista basta
+     * {@link #estimateTotal()}.
+     *
+     * @return Numero de entidades.
+     */
+    long count();
+
+    /**
+     * Cuenta las entidades que devolveria {@link #findBy(String, String)}, sin
+     * cargarlas.
+     *
+     * @param attribute Atributo por el cual se filtra.
+     * @param value     Texto que debe contener el atributo.
+     * @return Numero de entidades que coinciden.
+     * @throws IllegalArgumentException si no se puede buscar por ese atributo.
+     */
+    long count(String attribute, String value);
+
+    /**
+     * Cuenta las entidades que devolveria {@link #findAll(Criteria)}, sin el
+     * limite ni el orden y sin cargarlas.
+     *
+     * @param criteria Condiciones del filtro.
+     * @return Numero de entidades que las cumplen.
+     */
+    long count(Criteria criteria);
+
+    /**
+     * Cuenta, entre las entidades que cumplen el filtro, cuantas tienen cada
+     * valor de cada faceta (p. ej. cuantos equipos hay en cada estado). Todas
+     * las facetas y el total se calculan en una sola consulta.
+     *
+     * @param criteria Condiciones del filtro; se ignoran el limite y el orden.
+     * @param facets   Atributos por los que se cuenta.
+     * @return El total y los conteos de cada faceta.
+     * @throws IllegalArgumentException si no se pueden contar facetas por
+     *                                  alguno de los atributos.
+     */
+    FacetCounts facetCounts(Criteria criteria, Collection<String> facets);
+
+    /**
+     * Indica si alguna entidad tiene exactamente ese valor en una llave
+     * natural, por ejemplo para validar un documento unico antes de guardar.
+     *
+     * @param attribute Llave natural, la misma que acepta {@link #findOneBy}.
+     * @param value     Valor exacto.
+     * @return {@code true} si existe al menos una entidad con ese valor.
+     * @throws IllegalArgumentException si el atributo no es una llave unica.
+     */
+    boolean exists(String attribute, String value);
+
     // Update
     /**
      * Actualiza una entidad existente en el repositorio.
@@ -0,0 +1,62 @@
+package edu.usta.domain.repositories;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Utilidades para las busquedas por lote de identificadores
+ * ({@code WHERE id = ANY(?)}) de los repositorios JDBC.
+ */
+final class IdBatches {
+
+    /**
+     * Maximo de identificadores que se envian en un mismo arreglo. Las
+     * entradas mas grandes se consultan en varios lotes.
+     */
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private IdBatches() {
+    }
+
+    /**
+     * Elimina nulos y repetidos y divide los identificadores en lotes de como
+     * maximo {@link #MAX_BATCH_SIZE}.
+     *
+     * @param ids identificadores recibidos.
+     * @return lotes a consultar, vacio si no hay identificadores.
+     */
+    static List<List<UUID>> chunks(Collection<UUID> ids) {
+        Set<UUID> distinct = new LinkedHashSet<>(ids.size());
+        ids.stream().filter(Objects::nonNull).forEach(distinct::add);
+
+        List<List<UUID>> chunks = new ArrayList<>();
+        List<UUID> current = new ArrayList<>(Math.min(distinct.size(), MAX_BATCH_SIZE));
+        for (UUID id : distinct) {
+            current.add(id);
+            if (current.size() == MAX_BATCH_SIZE) {
+                chunks.add(current);
+                current = new ArrayList<>(MAX_BATCH_SIZE);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    /**
+     * @return arreglo {@code uuid[]} de PostgreSQL con los identificadores del
+     *         lote.
+     */
+    static Array toArray(Connection connection, List<UUID> chunk) throws SQLException {
+        return connection.createArrayOf("uuid", chunk.toArray());
+    }
+}
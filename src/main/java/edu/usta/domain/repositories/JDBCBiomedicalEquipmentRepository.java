@@ -5,20 +5,21 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import edu.usta.domain.entities.BiomedicalEquipment;
-import edu.usta.domain.enums.EquipmentStatus;
-import edu.usta.domain.enums.EquipmentType;
 import edu.usta.infrastructure.db.DatabaseConnection;
 
 public class JDBCBiomedicalEquipmentRepository implements GenericRepository<BiomedicalEquipment> {
 
     private final DatabaseConnection db;
-    private final String BASE_SQL = """
+    private static final String BASE_SQL = """
                                     SELECT
 
                                         be.id AS be_id,
@@ -32,112 +33,163 @@ public class JDBCBiomedicalEquipmentRepository implements GenericRepository<Biom
                                         e.type::text AS e_type,
                                         e.state::text AS e_state,
                                         e.provider_id AS e_provider_id,
-                                        e.image_path AS e_image_path
+                                        e.image_path AS e_image_path,
+
+                                        p.id AS p_id,
+                                        p.name AS p_name,
+                                        p.tax_id AS p_tax_id,
+                                        p.contact_email AS p_contact_email
 
                                     FROM biomedical_equipment as be
                                     JOIN equipment as e ON be.id = e.id
+                                    LEFT JOIN provider as p ON p.id = e.provider_id
             """;
 
     private static final Map<String, String> ALLOWED_FIELDS = Map.of(
             "serial", "e.serial",
             "brand", "e.brand",
-            "riskclass", "be.riskclass");
+            "model", "e.model",
+            "riskclass", "be.risk_class",
+            "provider.name", "p.name",
+            "provider.contact_email", "p.contact_email",
+            "type", "e.type",
+            "state", "e.state",
+            "provider", "e.provider_id");
+
+    /** Tipo de las columnas que no son texto, para los filtros de {@link #findAll(Criteria)}. */
+    private static final Map<String, String> COLUMN_TYPES = Map.of(
+            "type", "equipment_type",
+            "state", "equipment_status",
+            "provider", "UUID");
+
+    private static final String FIND_ALL_SQL = BASE_SQL;
+
+    private static final String FIND_BY_ID_SQL = BASE_SQL + " WHERE e.id = ?::UUID";
+
+    private static final String FIND_ALL_BY_ID_SQL = BASE_SQL + " WHERE e.id = ANY(?)";
+
+    private static final Map<String, String> FIND_BY_SQL = FieldQueries.byField(ALLOWED_FIELDS,
+            column -> BASE_SQL + " WHERE " + column + "::text ILIKE ?");
+
+    /**
+     * Llaves naturales (columnas {@code UNIQUE}) para {@link #findOneBy}. La
+     * comparacion exacta usa el indice de la restriccion.
+     */
+    private static final Map<String, String> UNIQUE_FIELDS = Map.of(
+            "serial", "e.serial");
+
+    private static final Map<String, String> FIND_ONE_BY_SQL = FieldQueries.byField(UNIQUE_FIELDS,
+            column -> BASE_SQL + " WHERE " + column + " = ?");
+
+    /** Columnas de texto en las que busca {@link #search(String, int)}. */
+    private static final String[] SEARCH_COLUMNS = { "e.serial", "e.brand", "e.model" };
+
+    private static final String SEARCH_SQL = SearchQueries.sql(BASE_SQL, "e.id", "e.serial", "e.serial",
+            SEARCH_COLUMNS);
+
+    private static final String SEARCH_SIMILAR_SQL = SearchQueries.similarSql(BASE_SQL, "e.id", SEARCH_COLUMNS);
+
+    /** Atributos por los que se cuentan facetas, con la columna del resultado que los muestra. */
+    private static final Map<String, CriteriaQueries.Facet> FACETS = Map.of(
+            "type", new CriteriaQueries.Facet("e_type"),
+            "state", new CriteriaQueries.Facet("e_state"),
+            "provider", new CriteriaQueries.Facet("e_provider_id", "p_name"),
+            "riskclass", new CriteriaQueries.Facet("be_risk_class"));
+
+    /** Filtros de varias condiciones sobre la consulta base. */
+    private static final CriteriaQueries CRITERIA = new CriteriaQueries(BASE_SQL, "biomedical_equipment", "e.id", ALLOWED_FIELDS,
+            COLUMN_TYPES, FACETS);
+
+    /** Conteos y existencia resueltos en la base de datos. */
+    private static final CountQueries COUNTS = new CountQueries(BASE_SQL, "biomedical_equipment", ALLOWED_FIELDS, UNIQUE_FIELDS);
+
+    /** Paginacion por llave; los mismos ordenes e indices que {@link JDBCEquipmentRepository}. */
+    private static final PageQueries PAGES = new PageQueries(BASE_SQL, "biomedical_equipment",
+            new PageQueries.SortColumn("e.id", "e_id", "UUID"),
+            Map.of(
+                    "serial", new PageQueries.SortColumn("e.serial", "e_serial", "TEXT"),
+                    "brand", new PageQueries.SortColumn("e.brand", "e_brand", "TEXT"),
+                    "model", new PageQueries.SortColumn("e.model", "e_model", "TEXT")));
+
+    /**
+     * Inserta en {@code equipment} y en {@code biomedical_equipment} en una sola
+     * sentencia: la CTE devuelve el id generado y el segundo {@code INSERT} lo
+     * usa. Una sentencia es atomica, asi que no hace falta abrir una
+     * transaccion ni hacer dos viajes a la base de datos.
+     */
+    private static final String INSERT_SQL = """
+            WITH ins AS (
+                INSERT INTO equipment (serial, brand, model, type, state, provider_id, image_path)
+                VALUES (?, ?, ?, ?::equipment_type, ?::equipment_status, ?::UUID, ?)
+                RETURNING id
+            )
+            INSERT INTO biomedical_equipment (id, risk_class, calibration_cert)
+            SELECT id, ?, ? FROM ins
+            RETURNING id
+            """;
+
+    /**
+     * Actualiza las dos tablas en una sola sentencia. La CTE solo toca
+     * {@code equipment} si el id tiene fila en {@code biomedical_equipment}, para no
+     * modificar a medias un equipo de otro subtipo.
+     */
+    private static final String UPDATE_SQL = """
+            WITH upd AS (
+                UPDATE equipment SET
+                    serial = ?,
+                    brand = ?,
+                    model = ?,
+                    type = ?::equipment_type,
+                    state = ?::equipment_status,
+                    provider_id = ?::UUID,
+                    image_path = ?
+                WHERE id = (SELECT id FROM biomedical_equipment WHERE id = ?::UUID)
+                RETURNING id
+            )
+            UPDATE biomedical_equipment AS be SET
+                risk_class = ?,
+                calibration_cert = ?
+            FROM upd
+            WHERE be.id = upd.id
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM biomedical_equipment WHERE id = ?::UUID";
 
     public JDBCBiomedicalEquipmentRepository(DatabaseConnection db) {
         this.db = db;
     }
 
     private BiomedicalEquipment mapResultSetToBiomedicalEquipment(ResultSet result) throws SQLException {
-        return new BiomedicalEquipment(
-                result.getObject("be_id", String.class),
-                result.getObject("e_serial", String.class),
-                result.getObject("e_brand", String.class),
-                result.getObject("e_model", String.class),
-                EquipmentType.valueOf(result.getObject("e_type", String.class)),
-                EquipmentStatus.valueOf(result.getObject("e_state", String.class)),
-                null,
-                result.getObject("e_image_path", String.class),
-                result.getObject("be_risk_class", String.class),
-                result.getObject("be_calibration_cert", String.class));
-
+        return EquipmentRows.biomedical(result);
     }
 
     @Override
     public BiomedicalEquipment create(BiomedicalEquipment entity) {
         if (entity.getId() == null) {
-            // Primero insertar en equipment y obtener el ID
-            final String equipmentSql = """
-                    INSERT INTO equipment (serial, brand, model, type, state, provider_id, image_path)
-                    VALUES (?, ?, ?, ?::equipment_type, ?::equipment_status, ?::UUID, ?)
-                    RETURNING id
-                    """;
-
-            // Luego insertar en biomedical_equipment con el ID obtenido
-            final String biomedicalSql = """
-                    INSERT INTO biomedical_equipment (id, risk_class, calibration_cert)
-                    VALUES (?::UUID, ?, ?)
-                    """;
-
-            try (Connection connection = db.getConnection()) {
-                connection.setAutoCommit(false); // Iniciar transacción
-
-                try {
-                    // Insertar en equipment
-                    UUID equipmentId;
-                    try (PreparedStatement equipmentStmt = connection.prepareStatement(equipmentSql)) {
-                        equipmentStmt.setString(1, entity.getSerial());
-                        equipmentStmt.setString(2, entity.getBrand());
-                        equipmentStmt.setString(3, entity.getModel());
-                        equipmentStmt.setString(4, entity.getType().name());
-                        equipmentStmt.setString(5, entity.getState().name());
-
-                        // Extraer el ID del Provider
-                        if (entity.getProvider() != null) {
-                            equipmentStmt.setObject(6, UUID.fromString(entity.getProvider().getId()));
-                        } else {
-                            equipmentStmt.setNull(6, java.sql.Types.OTHER);
-                        }
-
-                        equipmentStmt.setString(7, entity.getImagePath());
-
-                        try (ResultSet result = equipmentStmt.executeQuery()) {
-                            if (result.next()) {
-                                // CAMBIO: obtener directamente como UUID
-                                equipmentId = result.getObject("id", UUID.class);
-                            } else {
-                                throw new SQLException("No ID returned from equipment insert");
-                            }
-                        }
-                    }
-
-                    // Insertar en biomedical_equipment
-                    try (PreparedStatement biomedicalStmt = connection.prepareStatement(biomedicalSql)) {
-                        biomedicalStmt.setObject(1, equipmentId); // Ya es UUID, no necesita conversión
-                        biomedicalStmt.setString(2, entity.getRiskClass());
-                        biomedicalStmt.setString(3, entity.getCalibrationCert());
-
-                        biomedicalStmt.executeUpdate();
+            try (Connection connection = db.getConnection();
+                    PreparedStatement preparedStatement = connection.prepareStatement(INSERT_SQL)) {
+
+                int index = EquipmentRows.bindEquipment(preparedStatement, 1, entity);
+                preparedStatement.setString(index++, entity.getRiskClass());
+                preparedStatement.setString(index, entity.getCalibrationCert());
+
+                try (ResultSet result = preparedStatement.executeQuery()) {
+                    if (result.next()) {
+                        UUID id = result.getObject("id", UUID.class);
+
+                        return new BiomedicalEquipment(
+                                id.toString(),
+                                entity.getSerial(),
+                                entity.getBrand(),
+                                entity.getModel(),
+                                entity.getType(),
+                                entity.getState(),
+                                entity.getProvider(),
+                                entity.getImagePath(),
+                                entity.getRiskClass(),
+                                entity.getCalibrationCert());
                     }
-
-                    connection.commit(); // Confirmar transacción
-
-                    return new BiomedicalEquipment(
-                            equipmentId.toString(), // Convertir a String solo para el constructor
-                            entity.getSerial(),
-                            entity.getBrand(),
-                            entity.getModel(),
-                            entity.getType(),
-                            entity.getState(),
-                            entity.getProvider(),
-                            entity.getImagePath(),
-                            entity.getRiskClass(),
-                            entity.getCalibrationCert());
-
-                } catch (SQLException e) {
-                    connection.rollback(); // Revertir en caso de error
-                    throw e;
-                } finally {
-                    connection.setAutoCommit(true);
+                    throw new SQLException("No ID returned from equipment insert");
                 }
 
             } catch (SQLException exception) {
@@ -150,10 +202,8 @@ public class JDBCBiomedicalEquipmentRepository implements GenericRepository<Biom
 
     @Override
     public Optional<BiomedicalEquipment> findById(UUID id) {
-        final String sql = BASE_SQL + " WHERE e.id = ?::UUID";
-
         try (Connection connection = db.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                PreparedStatement preparedStatement = connection.prepareStatement(FIND_BY_ID_SQL)) {
             preparedStatement.setObject(1, id);
 
             try (ResultSet result = preparedStatement.executeQuery()) {
@@ -169,12 +219,40 @@ public class JDBCBiomedicalEquipmentRepository implements GenericRepository<Biom
 
     }
 
+    @Override
+    public Map<UUID, BiomedicalEquipment> findAllById(Collection<UUID> ids) {
+        Map<UUID, BiomedicalEquipment> biomedicalEquipments = new LinkedHashMap<>();
+        List<List<UUID>> chunks = IdBatches.chunks(ids);
+        if (chunks.isEmpty()) {
+            return biomedicalEquipments;
+        }
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(FIND_ALL_BY_ID_SQL)) {
+
+            for (List<UUID> chunk : chunks) {
+                preparedStatement.setArray(1, IdBatches.toArray(connection, chunk));
+
+                try (ResultSet result = preparedStatement.executeQuery()) {
+                    while (result.next()) {
+                        BiomedicalEquipment entity = mapResultSetToBiomedicalEquipment(result);
+                        biomedicalEquipments.put(UUID.fromString(entity.getId()), entity);
+                    }
+                }
+            }
+
+            return biomedicalEquipments;
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error al buscar equipos biomédicos por lote de ids", exception);
+        }
+    }
+
     @Override
     public List<BiomedicalEquipment> findAll() {
         List<BiomedicalEquipment> biomedicalEquipments = new ArrayList<>();
 
         try (Connection connection = db.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(BASE_SQL)) {
+                PreparedStatement preparedStatement = connection.prepareStatement(FIND_ALL_SQL)) {
             try (ResultSet result = preparedStatement.executeQuery()) {
 
                 while (result.next()) {
@@ -187,20 +265,23 @@ public class JDBCBiomedicalEquipmentRepository implements GenericRepository<Biom
         }
     }
 
+    @Override
+    public Stream<BiomedicalEquipment> stream(int fetchSize) {
+        return StreamQueries.stream(db, FIND_ALL_SQL, fetchSize, this::mapResultSetToBiomedicalEquipment, "Error streaming biomedical equipments");
+    }
+
     @Override
     public List<BiomedicalEquipment> findBy(String attribute, String value) {
-        String column = ALLOWED_FIELDS.get(attribute);
+        final String sql = FIND_BY_SQL.get(attribute);
 
-        if (column == null) {
+        if (sql == null) {
             throw new IllegalArgumentException("Atributo no permitido: " + attribute);
         }
 
-        final String sql = BASE_SQL + " WHERE LOWER(" + column + ") LIKE LOWER(?)";
-
         List<BiomedicalEquipment> biomedicalEquipments = new ArrayList<>();
         try (Connection connection = db.getConnection();
                 PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setString(1, "%" + value + "%");
+            preparedStatement.setString(1, "%" + SearchQueries.escapeLike(value) + "%");
 
             try (ResultSet result = preparedStatement.executeQuery()) {
 
@@ -215,19 +296,116 @@ public class JDBCBiomedicalEquipmentRepository implements GenericRepository<Biom
     }
 
     @Override
-    public BiomedicalEquipment update(BiomedicalEquipment entity) {
-        final String sql = """
-                UPDATE biomedical_equipment SET
-                    risk_class = ?,
-                    calibration_cert = ?
-                WHERE id = ?::UUID
-                """;
+    public Optional<BiomedicalEquipment> findOneBy(String attribute, String value) {
+        final String sql = FIND_ONE_BY_SQL.get(attribute);
+        if (sql == null) {
+            throw new IllegalArgumentException("Campo no es una llave unica: " + attribute);
+        }
 
         try (Connection connection = db.getConnection();
                 PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setString(1, entity.getRiskClass());
-            preparedStatement.setString(2, entity.getCalibrationCert());
-            preparedStatement.setObject(3, entity.getId());
+
+            preparedStatement.setString(1, value);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                if (result.next()) {
+                    return Optional.of(mapResultSetToBiomedicalEquipment(result));
+                }
+                return Optional.empty();
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error finding biomedical equipment by " + attribute, exception);
+        }
+    }
+
+    @Override
+    public List<BiomedicalEquipment> findAll(Criteria criteria) {
+        return CRITERIA.findAll(db, criteria, this::mapResultSetToBiomedicalEquipment);
+    }
+
+    @Override
+    public List<BiomedicalEquipment> search(String text, int limit) {
+        List<BiomedicalEquipment> biomedicalEquipments = new ArrayList<>();
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(SEARCH_SQL)) {
+
+            SearchQueries.bind(preparedStatement, text, limit, SEARCH_COLUMNS.length);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                while (result.next()) {
+                    biomedicalEquipments.add(mapResultSetToBiomedicalEquipment(result));
+                }
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error searching biomedical equipments", exception);
+        }
+        return biomedicalEquipments;
+    }
+
+    @Override
+    public List<BiomedicalEquipment> searchSimilar(String text, int limit) {
+        List<BiomedicalEquipment> biomedicalEquipments = new ArrayList<>();
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(SEARCH_SIMILAR_SQL)) {
+
+            SearchQueries.bindSimilar(preparedStatement, text, limit, SEARCH_COLUMNS.length);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                while (result.next()) {
+                    biomedicalEquipments.add(mapResultSetToBiomedicalEquipment(result));
+                }
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error searching similar biomedical equipments", exception);
+        }
+        return biomedicalEquipments;
+    }
+
+    @Override
+    public Page<BiomedicalEquipment> findPage(PageCursor cursor, int limit, PageSort sort) {
+        return PAGES.findPage(db, cursor, limit, sort, this::mapResultSetToBiomedicalEquipment);
+    }
+
+    @Override
+    public long estimateTotal() {
+        return COUNTS.estimateTotal(db);
+    }
+
+    @Override
+    public long count() {
+        return COUNTS.count(db);
+    }
+
+    @Override
+    public long count(String attribute, String value) {
+        return COUNTS.count(db, attribute, value);
+    }
+
+    @Override
+    public long count(Criteria criteria) {
+        return CRITERIA.count(db, criteria);
+    }
+
+    @Override
+    public FacetCounts facetCounts(Criteria criteria, Collection<String> facets) {
+        return CRITERIA.facetCounts(db, criteria, facets);
+    }
+
+    @Override
+    public boolean exists(String attribute, String value) {
+        return COUNTS.exists(db, attribute, value);
+    }
+
+    @Override
+    public BiomedicalEquipment update(BiomedicalEquipment entity) {
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_SQL)) {
+            int index = EquipmentRows.bindEquipment(preparedStatement, 1, entity);
+            preparedStatement.setObject(index++, entity.getId());
+            preparedStatement.setString(index++, entity.getRiskClass());
+            preparedStatement.setString(index, entity.getCalibrationCert());
 
             int rowsAffected = preparedStatement.executeUpdate();
             if (rowsAffected == 0) {
@@ -241,10 +419,8 @@ public class JDBCBiomedicalEquipmentRepository implements GenericRepository<Biom
 
     @Override
     public boolean delete(UUID id) {
-        final String sql = "DELETE FROM biomedical_equipment WHERE id = ?::UUID";
-
         try (Connection connection = db.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                PreparedStatement preparedStatement = connection.prepareStatement(DELETE_SQL)) {
             preparedStatement.setObject(1, id);
 
             int rowsAffected = preparedStatement.executeUpdate();
@@ -6,23 +6,32 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import edu.usta.domain.entities.EntryRequest;
 import edu.usta.domain.entities.Equipment;
 import edu.usta.domain.entities.Person;
+import edu.usta.domain.entities.Provider;
+import edu.usta.domain.enums.EquipmentStatus;
+import edu.usta.domain.enums.EquipmentType;
 import edu.usta.domain.enums.RequestStatus;
+import edu.usta.domain.enums.Role;
 import edu.usta.infrastructure.db.DatabaseConnection;
 
 /**
  * Implementación JDBC del repositorio genérico para la entidad EntryRequest.
  *
- * Se encarga de hacer las operaciones CRUD contra la tabla entry_request
- * y de reconstruir el objeto completo usando los repositorios de Equipment y
- * Person.
+ * Se encarga de hacer las operaciones CRUD contra la tabla entry_request.
+ * Las consultas traen en una sola fila la solicitud, su equipo (con el
+ * proveedor) y las dos personas relacionadas, de modo que el objeto completo
+ * se reconstruye a partir de un unico ResultSet, sin consultas adicionales
+ * por cada fila.
  */
 public class JDBCEntryRequestRepository implements GenericRepository<EntryRequest> {
 
@@ -32,20 +41,9 @@ public class JDBCEntryRequestRepository implements GenericRepository<EntryReques
     private final DatabaseConnection db;
 
     /**
-     * Repositorio genérico para consultar equipos (Equipment) relacionados a la
-     * solicitud.
-     */
-    private final GenericRepository<Equipment> equipmentRepo;
-
-    /**
-     * Repositorio genérico para consultar personas (Person) relacionadas a la
-     * solicitud.
-     */
-    private final GenericRepository<Person> personRepo;
-
-    /**
-     * Consulta base para recuperar EntryRequest desde la tabla entryrequest
-     * usando alias 'r' para la tabla.
+     * Consulta base para recuperar EntryRequest desde la tabla entry_request
+     * junto con su grafo de relaciones. Alias: 'r' solicitud, 'e' equipo,
+     * 'p' proveedor, 'rq' solicitante e 'ir' responsable interno.
      */
     private static final String BASE_SQL = """
                 SELECT
@@ -56,8 +54,35 @@ public class JDBCEntryRequestRepository implements GenericRepository<EntryReques
 
                     r.equipment_id AS r_equipment_id,
                     r.requester_id AS r_requester_id,
-                    r.internal_responsible_id AS r_internal_responsible_id
-                FROM entryrequest r
+                    r.internal_responsible_id AS r_internal_responsible_id,
+
+                    e.id AS e_id,
+                    e.serial AS e_serial,
+                    e.brand AS e_brand,
+                    e.model AS e_model,
+                    e.type::text AS e_type,
+                    e.state::text AS e_state,
+                    e.image_path AS e_image_path,
+
+                    p.id AS p_id,
+                    p.name AS p_name,
+                    p.tax_id AS p_tax_id,
+                    p.contact_email AS p_contact_email,
+
+                    rq.id AS rq_id,
+                    rq.full_name AS rq_full_name,
+                    rq.document AS rq_document,
+                    rq.role::text AS rq_role,
+
+                    ir.id AS ir_id,
+                    ir.full_name AS ir_full_name,
+                    ir.document AS ir_document,
+                    ir.role::text AS ir_role
+                FROM entry_request r
+                LEFT JOIN equipment e ON e.id = r.equipment_id
+                LEFT JOIN provider p ON p.id = e.provider_id
+                LEFT JOIN person rq ON rq.id = r.requester_id
+                LEFT JOIN person ir ON ir.id = r.internal_responsible_id
             """;
 
     /**
@@ -69,27 +94,87 @@ public class JDBCEntryRequestRepository implements GenericRepository<EntryReques
             "purpose", "r.purpose",
             "status", "r.status");
 
+    /** Tipo de las columnas que no son texto, para los filtros de {@link #findAll(Criteria)}. */
+    private static final Map<String, String> COLUMN_TYPES = Map.of("status", "request_status");
+
+    /**
+     * Sentencias del repositorio, declaradas una sola vez al cargar la clase.
+     */
+    private static final String FIND_ALL_SQL = BASE_SQL;
+
+    private static final String FIND_BY_ID_SQL = BASE_SQL + " WHERE r.id = ?::uuid";
+
+    private static final String FIND_ALL_BY_ID_SQL = BASE_SQL + " WHERE r.id = ANY(?)";
+
+    private static final Map<String, String> FIND_BY_SQL = FieldQueries.byField(ALLOWED_FIELDS,
+            column -> BASE_SQL + " WHERE " + column + "::text ILIKE ?");
+
+    /** Las solicitudes no tienen llave natural ademas del id. */
+    private static final Map<String, String> UNIQUE_FIELDS = Map.of();
+
+    private static final Map<String, String> FIND_ONE_BY_SQL = FieldQueries.byField(UNIQUE_FIELDS,
+            column -> BASE_SQL + " WHERE " + column + " = ?");
+
+    /** Columnas de texto en las que busca {@link #search(String, int)}. */
+    private static final String[] SEARCH_COLUMNS = { "r.purpose", "e.serial", "rq.full_name", "ir.full_name" };
+
+    private static final String SEARCH_SQL = SearchQueries.sql(BASE_SQL, "r.id", "e.serial", "r.requested_at DESC",
+            SEARCH_COLUMNS);
+
+    private static final String SEARCH_SIMILAR_SQL = SearchQueries.similarSql(BASE_SQL, "r.id", SEARCH_COLUMNS);
+
+    /** Atributos por los que se cuentan facetas, con la columna del resultado que los muestra. */
+    private static final Map<String, CriteriaQueries.Facet> FACETS = Map.of(
+            "status", new CriteriaQueries.Facet("r_status"));
+
+    /** Filtros de varias condiciones sobre la consulta base. */
+    private static final CriteriaQueries CRITERIA = new CriteriaQueries(BASE_SQL, "entry_request", "r.id", ALLOWED_FIELDS,
+            COLUMN_TYPES, FACETS);
+
+    /** Conteos y existencia resueltos en la base de datos. */
+    private static final CountQueries COUNTS = new CountQueries(BASE_SQL, "entry_request", ALLOWED_FIELDS, UNIQUE_FIELDS);
+
+    /**
+     * Paginacion por llave, solo por id: {@code requested_at} admite nulos y la
+     * comparacion de filas del cursor saltaria esas solicitudes.
+     */
+    private static final PageQueries PAGES = new PageQueries(BASE_SQL, "entry_request",
+            new PageQueries.SortColumn("r.id", "r_id", "UUID"),
+            Map.of());
+
+    private static final String INSERT_SQL = """
+                INSERT INTO entry_request
+                (equipment_id, requester_id, internal_responsible_id, purpose, requested_at, status)
+                VALUES (?::uuid, ?::uuid, ?::uuid, ?, ?, ?::request_status)
+                RETURNING id
+            """;
+
+    private static final String UPDATE_SQL = """
+                UPDATE entry_request SET
+                    equipment_id = ?::uuid,
+                    requester_id = ?::uuid,
+                    internal_responsible_id = ?::uuid,
+                    purpose = ?,
+                    requested_at = ?,
+                    status = ?::request_status
+                WHERE id = ?::uuid
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM entry_request WHERE id = ?::uuid";
+
     /**
      * Constructor del repositorio de EntryRequest.
      *
-     * @param db            conexión a base de datos
-     * @param equipmentRepo repositorio para consultar Equipment
-     * @param personRepo    repositorio para consultar Person
+     * @param db conexión a base de datos
      */
-    public JDBCEntryRequestRepository(
-            DatabaseConnection db,
-            GenericRepository<Equipment> equipmentRepo,
-            GenericRepository<Person> personRepo) {
-
+    public JDBCEntryRequestRepository(DatabaseConnection db) {
         this.db = db;
-        this.equipmentRepo = equipmentRepo;
-        this.personRepo = personRepo;
     }
 
     /**
      * Convierte la fila actual de un ResultSet en un objeto EntryRequest,
-     * incluyendo la carga de sus relaciones (Equipment y Persons) usando
-     * los repositorios correspondientes.
+     * incluyendo sus relaciones (Equipment, Provider y Persons), que vienen
+     * en la misma fila gracias a los JOIN de {@link #BASE_SQL}.
      *
      * @param result ResultSet posicionado en la fila a mapear
      * @return EntryRequest construido con los datos de la fila
@@ -112,15 +197,22 @@ public class JDBCEntryRequestRepository implements GenericRepository<EntryReques
         UUID requesterId = result.getObject("r_requester_id", UUID.class);
         UUID internalRespId = result.getObject("r_internal_responsible_id", UUID.class);
 
-        // Se buscan las entidades relacionadas. Si no existen, se lanza excepción.
-        Equipment equipment = equipmentRepo.findById(equipmentId)
-                .orElseThrow(() -> new SQLException("Equipment not found: " + equipmentId));
+        // Las entidades relacionadas vienen en la misma fila. Si no existen, se
+        // lanza excepción.
+        if (result.getObject("e_id") == null) {
+            throw new SQLException("Equipment not found: " + equipmentId);
+        }
+        Equipment equipment = mapEquipment(result);
 
-        Person requester = personRepo.findById(requesterId)
-                .orElseThrow(() -> new SQLException("Person requester not found: " + requesterId));
+        if (result.getObject("rq_id") == null) {
+            throw new SQLException("Person requester not found: " + requesterId);
+        }
+        Person requester = mapPerson(result, "rq_");
 
-        Person internalResponsible = personRepo.findById(internalRespId)
-                .orElseThrow(() -> new SQLException("Person internalResponsible not found: " + internalRespId));
+        if (result.getObject("ir_id") == null) {
+            throw new SQLException("Person internalResponsible not found: " + internalRespId);
+        }
+        Person internalResponsible = mapPerson(result, "ir_");
 
         return new EntryRequest(
                 id,
@@ -132,6 +224,42 @@ public class JDBCEntryRequestRepository implements GenericRepository<EntryReques
                 status);
     }
 
+    /**
+     * Construye el equipo (y su proveedor, si tiene) desde las columnas
+     * {@code e_*} y {@code p_*} de la fila actual.
+     */
+    private Equipment mapEquipment(ResultSet result) throws SQLException {
+        UUID providerId = result.getObject("p_id", UUID.class);
+        Provider provider = providerId == null ? null
+                : new Provider(
+                        providerId.toString(),
+                        result.getString("p_name"),
+                        result.getString("p_tax_id"),
+                        result.getString("p_contact_email"));
+
+        return new Equipment(
+                result.getObject("e_id", UUID.class).toString(),
+                result.getString("e_serial"),
+                result.getString("e_brand"),
+                result.getString("e_model"),
+                EquipmentType.valueOf(result.getString("e_type")),
+                EquipmentStatus.valueOf(result.getString("e_state")),
+                provider,
+                result.getString("e_image_path"));
+    }
+
+    /**
+     * Construye una persona desde las columnas con el prefijo indicado
+     * ({@code rq_} para el solicitante, {@code ir_} para el responsable).
+     */
+    private Person mapPerson(ResultSet result, String prefix) throws SQLException {
+        return new Person(
+                result.getObject(prefix + "id", UUID.class).toString(),
+                result.getString(prefix + "full_name"),
+                result.getString(prefix + "document"),
+                Role.valueOf(result.getString(prefix + "role")));
+    }
+
     /**
      * Crea un nuevo registro de EntryRequest en la tabla entry_request.
      *
@@ -144,15 +272,8 @@ public class JDBCEntryRequestRepository implements GenericRepository<EntryReques
     @Override
     public EntryRequest create(EntryRequest entity) {
 
-        final String sql = """
-                    INSERT INTO entry_request
-                    (equipment_id, requester_id, internal_responsible_id, purpose, requested_at, status)
-                    VALUES (?::uuid, ?::uuid, ?::uuid, ?, ?, ?::request_status)
-                    RETURNING id
-                """;
-
         try (Connection con = db.getConnection();
-                PreparedStatement preparedStatement = con.prepareStatement(sql)) {
+                PreparedStatement preparedStatement = con.prepareStatement(INSERT_SQL)) {
 
             preparedStatement.setString(1, entity.getEquipment().getId());
             preparedStatement.setString(2, entity.getRequester().getId());
@@ -192,10 +313,8 @@ public class JDBCEntryRequestRepository implements GenericRepository<EntryReques
     @Override
     public Optional<EntryRequest> findById(UUID id) {
 
-        final String sql = BASE_SQL + " WHERE r.id = ?::uuid";
-
         try (Connection con = db.getConnection();
-                PreparedStatement preparedStatement = con.prepareStatement(sql)) {
+                PreparedStatement preparedStatement = con.prepareStatement(FIND_BY_ID_SQL)) {
 
             preparedStatement.setObject(1, id);
 
@@ -212,6 +331,41 @@ public class JDBCEntryRequestRepository implements GenericRepository<EntryReques
         }
     }
 
+    /**
+     * Busca varias EntryRequest por sus IDs con {@code WHERE r.id = ANY(?)},
+     * en lotes de como máximo {@link IdBatches#MAX_BATCH_SIZE} ids.
+     *
+     * @param ids UUIDs de las solicitudes
+     * @return mapa id → EntryRequest con las solicitudes encontradas
+     */
+    @Override
+    public Map<UUID, EntryRequest> findAllById(Collection<UUID> ids) {
+        Map<UUID, EntryRequest> entryRequests = new LinkedHashMap<>();
+        List<List<UUID>> chunks = IdBatches.chunks(ids);
+        if (chunks.isEmpty()) {
+            return entryRequests;
+        }
+
+        try (Connection con = db.getConnection();
+                PreparedStatement preparedStatement = con.prepareStatement(FIND_ALL_BY_ID_SQL)) {
+
+            for (List<UUID> chunk : chunks) {
+                preparedStatement.setArray(1, IdBatches.toArray(con, chunk));
+
+                try (ResultSet result = preparedStatement.executeQuery()) {
+                    while (result.next()) {
+                        EntryRequest entity = map(result);
+                        entryRequests.put(UUID.fromString(entity.getId()), entity);
+                    }
+                }
+            }
+
+            return entryRequests;
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error finding EntryRequests by ids", exception);
+        }
+    }
+
     /**
      * Lista todas las EntryRequest almacenadas.
      *
@@ -223,7 +377,7 @@ public class JDBCEntryRequestRepository implements GenericRepository<EntryReques
         List<EntryRequest> entryRequests = new ArrayList<>();
 
         try (Connection con = db.getConnection();
-                PreparedStatement preparedStatement = con.prepareStatement(BASE_SQL)) {
+                PreparedStatement preparedStatement = con.prepareStatement(FIND_ALL_SQL)) {
 
             try (ResultSet result = preparedStatement.executeQuery()) {
                 while (result.next()) {
@@ -237,6 +391,11 @@ public class JDBCEntryRequestRepository implements GenericRepository<EntryReques
         }
     }
 
+    @Override
+    public Stream<EntryRequest> stream(int fetchSize) {
+        return StreamQueries.stream(db, FIND_ALL_SQL, fetchSize, this::map, "Error streaming entry_requests");
+    }
+
     /**
      * Filtra EntryRequest por un campo permitido (purpose o status),
      * usando un LIKE case-insensitive.
@@ -247,19 +406,17 @@ public class JDBCEntryRequestRepository implements GenericRepository<EntryReques
      */
     @Override
     public List<EntryRequest> findBy(String attribute, String value) {
-        String column = ALLOWED_FIELDS.get(attribute);
-        if (column == null) {
+        final String sql = FIND_BY_SQL.get(attribute);
+        if (sql == null) {
             throw new IllegalArgumentException("Campo no permitido: " + attribute);
         }
 
-        final String sql = BASE_SQL + " WHERE LOWER(" + column + ") LIKE LOWER(?)";
-
         List<EntryRequest> entryRequests = new ArrayList<>();
 
         try (Connection con = db.getConnection();
                 PreparedStatement preparedStatement = con.prepareStatement(sql)) {
 
-            preparedStatement.setString(1, "%" + value + "%");
+            preparedStatement.setString(1, "%" + SearchQueries.escapeLike(value) + "%");
 
             try (ResultSet result = preparedStatement.executeQuery()) {
                 while (result.next()) {
@@ -274,6 +431,125 @@ public class JDBCEntryRequestRepository implements GenericRepository<EntryReques
         }
     }
 
+    @Override
+    public Optional<EntryRequest> findOneBy(String attribute, String value) {
+        final String sql = FIND_ONE_BY_SQL.get(attribute);
+        if (sql == null) {
+            throw new IllegalArgumentException("Campo no es una llave unica: " + attribute);
+        }
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+
+            preparedStatement.setString(1, value);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                if (result.next()) {
+                    return Optional.of(map(result));
+                }
+                return Optional.empty();
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error finding entry_request by " + attribute, exception);
+        }
+    }
+
+    @Override
+    public List<EntryRequest> findAll(Criteria criteria) {
+        return CRITERIA.findAll(db, criteria, this::map);
+    }
+
+    /**
+     * Busca solicitudes por proposito, serial del equipo o nombre del
+     * solicitante o del responsable, mas recientes primero.
+     *
+     * @param text  texto a buscar
+     * @param limit maximo de solicitudes a devolver
+     * @return solicitudes que coinciden, ordenadas por relevancia
+     */
+    @Override
+    public List<EntryRequest> search(String text, int limit) {
+        List<EntryRequest> entryRequests = new ArrayList<>();
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(SEARCH_SQL)) {
+
+            SearchQueries.bind(preparedStatement, text, limit, SEARCH_COLUMNS.length);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                while (result.next()) {
+                    entryRequests.add(map(result));
+                }
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error searching EntryRequests", exception);
+        }
+        return entryRequests;
+    }
+
+    /**
+     * Busca solicitudes cuyo proposito, serial o personas se parecen al
+     * texto, las mas parecidas primero.
+     *
+     * @param text  texto a buscar
+     * @param limit maximo de solicitudes a devolver
+     * @return solicitudes parecidas al texto
+     */
+    @Override
+    public List<EntryRequest> searchSimilar(String text, int limit) {
+        List<EntryRequest> entryRequests = new ArrayList<>();
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(SEARCH_SIMILAR_SQL)) {
+
+            SearchQueries.bindSimilar(preparedStatement, text, limit, SEARCH_COLUMNS.length);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                while (result.next()) {
+                    entryRequests.add(map(result));
+                }
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error searching similar EntryRequests", exception);
+        }
+        return entryRequests;
+    }
+
+    @Override
+    public Page<EntryRequest> findPage(PageCursor cursor, int limit, PageSort sort) {
+        return PAGES.findPage(db, cursor, limit, sort, this::map);
+    }
+
+    @Override
+    public long estimateTotal() {
+        return COUNTS.estimateTotal(db);
+    }
+
+    @Override
+    public long count() {
+        return COUNTS.count(db);
+    }
+
+    @Override
+    public long count(String attribute, String value) {
+        return COUNTS.count(db, attribute, value);
+    }
+
+    @Override
+    public long count(Criteria criteria) {
+        return CRITERIA.count(db, criteria);
+    }
+
+    @Override
+    public FacetCounts facetCounts(Criteria criteria, Collection<String> facets) {
+        return CRITERIA.facetCounts(db, criteria, facets);
+    }
+
+    @Override
+    public boolean exists(String attribute, String value) {
+        return COUNTS.exists(db, attribute, value);
+    }
+
     /**
      * Actualiza una EntryRequest existente en la tabla entry_request.
      *
@@ -283,19 +559,8 @@ public class JDBCEntryRequestRepository implements GenericRepository<EntryReques
     @Override
     public EntryRequest update(EntryRequest entity) {
 
-        final String sql = """
-                    UPDATE entry_request SET
-                        equipment_id = ?::uuid,
-                        requester_id = ?::uuid,
-                        internal_responsible_id = ?::uuid,
-                        purpose = ?,
-                        requested_at = ?,
-                        status = ?::request_status
-                    WHERE id = ?::uuid
-                """;
-
         try (Connection con = db.getConnection();
-                PreparedStatement preparedStatement = con.prepareStatement(sql)) {
+                PreparedStatement preparedStatement = con.prepareStatement(UPDATE_SQL)) {
 
             preparedStatement.setString(1, entity.getEquipment().getId());
             preparedStatement.setString(2, entity.getRequester().getId());
@@ -326,10 +591,8 @@ public class JDBCEntryRequestRepository implements GenericRepository<EntryReques
     @Override
     public boolean delete(UUID id) {
 
-        final String sql = "DELETE FROM entry_request WHERE id = ?::uuid";
-
         try (Connection con = db.getConnection();
-                PreparedStatement preparedStatement = con.prepareStatement(sql)) {
+                PreparedStatement preparedStatement = con.prepareStatement(DELETE_SQL)) {
 
             preparedStatement.setString(1, id.toString());
 
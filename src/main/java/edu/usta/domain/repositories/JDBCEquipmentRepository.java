@@ -5,24 +5,42 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.postgresql.shaded.com.ongres.scram.common.bouncycastle.pbkdf2.RuntimeCryptoException;
 
 import edu.usta.domain.entities.Equipment;
-import edu.usta.domain.entities.Provider;
-import edu.usta.domain.enums.EquipmentStatus;
-import edu.usta.domain.enums.EquipmentType;
 import edu.usta.infrastructure.db.DatabaseConnection;
 
+/**
+ * Repositorio de todo el inventario de equipos, sin importar su subtipo.
+ *
+ * <p>
+ * La consulta base une {@code equipment} con {@code tech_equipment},
+ * {@code biomedical_equipment} y {@code provider} con {@code LEFT JOIN}, asi
+ * que una sola consulta trae equipos de todos los tipos con su proveedor. Cada
+ * fila se convierte en {@link edu.usta.domain.entities.TechEquipment},
+ * {@link edu.usta.domain.entities.BiomedicalEquipment} o {@link Equipment}
+ * segun la tabla de subtipo que tenga datos.
+ * </p>
+ *
+ * <p>
+ * {@link #create} y {@link #update} solo escriben las columnas de
+ * {@code equipment}; los datos del subtipo se guardan con su propio
+ * repositorio.
+ * </p>
+ */
 public class JDBCEquipmentRepository implements GenericRepository<Equipment> {
 
     private final DatabaseConnection db;
 
-    private final String BASE_SQL = """
+    private static final String BASE_SQL = """
             SELECT
                 e.id AS e_id,
                 e.serial AS e_serial,
@@ -33,56 +51,127 @@ public class JDBCEquipmentRepository implements GenericRepository<Equipment> {
                 e.provider_id AS e_provider_id,
                 e.image_path AS e_image_path,
 
+                tc.id AS tc_id,
+                tc.os AS tc_os,
+                tc.ram_gb AS tc_ram_gb,
+
+                be.id AS be_id,
+                be.risk_class AS be_risk_class,
+                be.calibration_cert AS be_calibration_cert,
+
                 p.id AS p_id,
                 p.name AS p_name,
                 p.tax_id AS p_tax_id,
                 p.contact_email AS p_contact_email
             FROM equipment AS e
-            JOIN provider AS p ON p.id = e.provider_id
+            LEFT JOIN tech_equipment AS tc ON tc.id = e.id
+            LEFT JOIN biomedical_equipment AS be ON be.id = e.id
+            LEFT JOIN provider AS p ON p.id = e.provider_id
             """;
 
     private static final Map<String, String> ALLOWED_FIELDS = Map.of(
             "serial", "e.serial",
             "brand", "e.brand",
+            "model", "e.model",
             "provider.name", "p.name",
-            "provider.contact_email", "p.contact_email");
+            "provider.contact_email", "p.contact_email",
+            "riskclass", "be.risk_class",
+            "type", "e.type",
+            "state", "e.state",
+            "provider", "e.provider_id");
+
+    /** Tipo de las columnas que no son texto, para los filtros de {@link #findAll(Criteria)}. */
+    private static final Map<String, String> COLUMN_TYPES = Map.of(
+            "type", "equipment_type",
+            "state", "equipment_status",
+            "provider", "UUID");
+
+    private static final String FIND_ALL_SQL = BASE_SQL;
+
+    private static final String FIND_BY_ID_SQL = BASE_SQL + " WHERE e.id = ?::UUID";
+
+    private static final String FIND_ALL_BY_ID_SQL = BASE_SQL + " WHERE e.id = ANY(?)";
+
+    private static final Map<String, String> FIND_BY_SQL = FieldQueries.byField(ALLOWED_FIELDS,
+            column -> BASE_SQL + " WHERE " + column + "::text ILIKE ?");
+
+    /**
+     * Llaves naturales (columnas {@code UNIQUE}) para {@link #findOneBy}. La
+     * comparacion exacta usa el indice de la restriccion.
+     */
+    private static final Map<String, String> UNIQUE_FIELDS = Map.of(
+            "serial", "e.serial");
+
+    private static final Map<String, String> FIND_ONE_BY_SQL = FieldQueries.byField(UNIQUE_FIELDS,
+            column -> BASE_SQL + " WHERE " + column + " = ?");
+
+    /** Columnas de texto en las que busca {@link #search(String, int)}. */
+    private static final String[] SEARCH_COLUMNS = { "e.serial", "e.brand", "e.model" };
+
+    private static final String SEARCH_SQL = SearchQueries.sql(BASE_SQL, "e.id", "e.serial", "e.serial",
+            SEARCH_COLUMNS);
+
+    private static final String SEARCH_SIMILAR_SQL = SearchQueries.similarSql(BASE_SQL, "e.id", SEARCH_COLUMNS);
+
+    /** Atributos por los que se cuentan facetas, con la columna del resultado que los muestra. */
+    private static final Map<String, CriteriaQueries.Facet> FACETS = Map.of(
+            "type", new CriteriaQueries.Facet("e_type"),
+            "state", new CriteriaQueries.Facet("e_state"),
+            "provider", new CriteriaQueries.Facet("e_provider_id", "p_name"),
+            "riskclass", new CriteriaQueries.Facet("be_risk_class"));
+
+    /** Filtros de varias condiciones sobre la consulta base. */
+    private static final CriteriaQueries CRITERIA = new CriteriaQueries(BASE_SQL, "equipment", "e.id", ALLOWED_FIELDS,
+            COLUMN_TYPES, FACETS);
+
+    /** Conteos y existencia resueltos en la base de datos. */
+    private static final CountQueries COUNTS = new CountQueries(BASE_SQL, "equipment", ALLOWED_FIELDS, UNIQUE_FIELDS);
+
+    /**
+     * Paginacion por llave. {@code serial} se ordena con su indice UNIQUE;
+     * {@code brand} y {@code model}, con los indices {@code (columna, id)} de
+     * {@code equipment}.
+     */
+    private static final PageQueries PAGES = new PageQueries(BASE_SQL, "equipment",
+            new PageQueries.SortColumn("e.id", "e_id", "UUID"),
+            Map.of(
+                    "serial", new PageQueries.SortColumn("e.serial", "e_serial", "TEXT"),
+                    "brand", new PageQueries.SortColumn("e.brand", "e_brand", "TEXT"),
+                    "model", new PageQueries.SortColumn("e.model", "e_model", "TEXT")));
+
+    private static final String INSERT_SQL = """
+            INSERT INTO equipment
+            (serial, brand, model, type, state, provider_id, image_path)
+            VALUES (?, ?, ?, ?::equipment_type, ?::equipment_status, ?::UUID, ?)
+            RETURNING id
+            """;
+
+    private static final String UPDATE_SQL = """
+            UPDATE equipment
+            SET serial = ?, brand = ?, model = ?,
+                type = ?::equipment_type,
+                state = ?::equipment_status,
+                provider_id = ?::UUID,
+                image_path = ?
+            WHERE id = ?::UUID
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM equipment WHERE id = ?::UUID";
 
     public JDBCEquipmentRepository(DatabaseConnection db) {
         this.db = db;
     }
 
     private Equipment mapResultSetToEquipment(ResultSet result) throws SQLException {
-
-        Provider provider = new Provider(
-                result.getObject("p_id", UUID.class).toString(),
-                result.getString("p_name"),
-                result.getString("p_tax_id"),
-                result.getString("p_contact_email"));
-
-        return new Equipment(
-                result.getObject("e_id", UUID.class).toString(),
-                result.getString("e_serial"),
-                result.getString("e_brand"),
-                result.getString("e_model"),
-                EquipmentType.valueOf(result.getString("e_type")),
-                EquipmentStatus.valueOf(result.getString("e_state")),
-                provider,
-                result.getString("e_image_path"));
+        return EquipmentRows.equipment(result);
     }
 
     @Override
     public Equipment create(Equipment entity) {
         if (entity.getId() == null) {
 
-            final String sql = """
-                    INSERT INTO equipment
-                    (serial, brand, model, type, state, provider_id, image_path)
-                    VALUES (?, ?, ?, ?::equipment_type, ?::equipment_status, ?::UUID, ?)
-                    RETURNING id
-                    """;
-
             try (Connection connection = db.getConnection();
-                    PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                    PreparedStatement preparedStatement = connection.prepareStatement(INSERT_SQL)) {
 
                 preparedStatement.setString(1, entity.getSerial());
                 preparedStatement.setString(2, entity.getBrand());
@@ -120,10 +209,8 @@ public class JDBCEquipmentRepository implements GenericRepository<Equipment> {
 
     @Override
     public Optional<Equipment> findById(UUID id) {
-        final String sql = BASE_SQL + " WHERE e.id = ?::UUID";
-
         try (Connection connection = db.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                PreparedStatement preparedStatement = connection.prepareStatement(FIND_BY_ID_SQL)) {
 
             preparedStatement.setObject(1, id);
 
@@ -140,12 +227,40 @@ public class JDBCEquipmentRepository implements GenericRepository<Equipment> {
         }
     }
 
+    @Override
+    public Map<UUID, Equipment> findAllById(Collection<UUID> ids) {
+        Map<UUID, Equipment> equipments = new LinkedHashMap<>();
+        List<List<UUID>> chunks = IdBatches.chunks(ids);
+        if (chunks.isEmpty()) {
+            return equipments;
+        }
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(FIND_ALL_BY_ID_SQL)) {
+
+            for (List<UUID> chunk : chunks) {
+                preparedStatement.setArray(1, IdBatches.toArray(connection, chunk));
+
+                try (ResultSet result = preparedStatement.executeQuery()) {
+                    while (result.next()) {
+                        Equipment entity = mapResultSetToEquipment(result);
+                        equipments.put(UUID.fromString(entity.getId()), entity);
+                    }
+                }
+            }
+
+            return equipments;
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error al buscar los equipos por lote de ids", exception);
+        }
+    }
+
     @Override
     public List<Equipment> findAll() {
         List<Equipment> equipments = new ArrayList<>();
 
         try (Connection connection = db.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(BASE_SQL)) {
+                PreparedStatement preparedStatement = connection.prepareStatement(FIND_ALL_SQL)) {
 
             try (ResultSet result = preparedStatement.executeQuery()) {
                 while (result.next()) {
@@ -160,22 +275,25 @@ public class JDBCEquipmentRepository implements GenericRepository<Equipment> {
         }
     }
 
+    @Override
+    public Stream<Equipment> stream(int fetchSize) {
+        return StreamQueries.stream(db, FIND_ALL_SQL, fetchSize, this::mapResultSetToEquipment, "Error al recorrer los equipos");
+    }
+
     @Override
     public List<Equipment> findBy(String attribute, String value) {
-        String column = ALLOWED_FIELDS.get(attribute);
+        final String sql = FIND_BY_SQL.get(attribute);
 
-        if (column == null) {
+        if (sql == null) {
             throw new IllegalArgumentException("Campo de búsqueda no permitido: " + attribute);
         }
 
-        final String sql = BASE_SQL + " WHERE LOWER(" + column + ") LIKE LOWER(?)";
-
         List<Equipment> equipments = new ArrayList<>();
 
         try (Connection connection = db.getConnection();
                 PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
 
-            preparedStatement.setString(1, "%" + value + "%");
+            preparedStatement.setString(1, "%" + SearchQueries.escapeLike(value) + "%");
 
             try (ResultSet result = preparedStatement.executeQuery()) {
                 while (result.next()) {
@@ -191,21 +309,114 @@ public class JDBCEquipmentRepository implements GenericRepository<Equipment> {
     }
 
     @Override
-    public Equipment update(Equipment entity) {
-
-        final String sql = """
-                UPDATE equipment
-                SET serial = ?, brand = ?, model = ?,
-                    type = ?::equipment_type,
-                    state = ?::equipment_status,
-                    provider_id = ?::UUID,
-                    image_path = ?
-                WHERE id = ?::UUID
-                """;
+    public Optional<Equipment> findOneBy(String attribute, String value) {
+        final String sql = FIND_ONE_BY_SQL.get(attribute);
+        if (sql == null) {
+            throw new IllegalArgumentException("Campo no es una llave unica: " + attribute);
+        }
 
         try (Connection connection = db.getConnection();
                 PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
 
+            preparedStatement.setString(1, value);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                if (result.next()) {
+                    return Optional.of(mapResultSetToEquipment(result));
+                }
+                return Optional.empty();
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error al buscar equipo por " + attribute, exception);
+        }
+    }
+
+    @Override
+    public List<Equipment> findAll(Criteria criteria) {
+        return CRITERIA.findAll(db, criteria, this::mapResultSetToEquipment);
+    }
+
+    @Override
+    public List<Equipment> search(String text, int limit) {
+        List<Equipment> equipments = new ArrayList<>();
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(SEARCH_SQL)) {
+
+            SearchQueries.bind(preparedStatement, text, limit, SEARCH_COLUMNS.length);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                while (result.next()) {
+                    equipments.add(mapResultSetToEquipment(result));
+                }
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error searching equipments", exception);
+        }
+        return equipments;
+    }
+
+    @Override
+    public List<Equipment> searchSimilar(String text, int limit) {
+        List<Equipment> equipments = new ArrayList<>();
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(SEARCH_SIMILAR_SQL)) {
+
+            SearchQueries.bindSimilar(preparedStatement, text, limit, SEARCH_COLUMNS.length);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                while (result.next()) {
+                    equipments.add(mapResultSetToEquipment(result));
+                }
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error searching similar equipments", exception);
+        }
+        return equipments;
+    }
+
+    @Override
+    public Page<Equipment> findPage(PageCursor cursor, int limit, PageSort sort) {
+        return PAGES.findPage(db, cursor, limit, sort, this::mapResultSetToEquipment);
+    }
+
+    @Override
+    public long estimateTotal() {
+        return COUNTS.estimateTotal(db);
+    }
+
+    @Override
+    public long count() {
+        return COUNTS.count(db);
+    }
+
+    @Override
+    public long count(String attribute, String value) {
+        return COUNTS.count(db, attribute, value);
+    }
+
+    @Override
+    public long count(Criteria criteria) {
+        return CRITERIA.count(db, criteria);
+    }
+
+    @Override
+    public FacetCounts facetCounts(Criteria criteria, Collection<String> facets) {
+        return CRITERIA.facetCounts(db, criteria, facets);
+    }
+
+    @Override
+    public boolean exists(String attribute, String value) {
+        return COUNTS.exists(db, attribute, value);
+    }
+
+    @Override
+    public Equipment update(Equipment entity) {
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_SQL)) {
+
             preparedStatement.setString(1, entity.getSerial());
             preparedStatement.setString(2, entity.getBrand());
             preparedStatement.setString(3, entity.getModel());
@@ -230,10 +441,8 @@ public class JDBCEquipmentRepository implements GenericRepository<Equipment> {
 
     @Override
     public boolean delete(UUID id) {
-        final String sql = "DELETE FROM equipment WHERE id = ?::UUID";
-
         try (Connection connection = db.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                PreparedStatement preparedStatement = connection.prepareStatement(DELETE_SQL)) {
 
             preparedStatement.setString(1, id.toString());
 
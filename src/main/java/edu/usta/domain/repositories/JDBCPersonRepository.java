@@ -5,10 +5,13 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import edu.usta.domain.entities.Person;
 import edu.usta.domain.enums.Role;
@@ -17,13 +20,72 @@ import edu.usta.infrastructure.db.DatabaseConnection;
 public class JDBCPersonRepository implements GenericRepository<Person> {
 
     private final DatabaseConnection db;
-    private final String BASE_SQL = "SELECT * FROM person ";
+    private static final String BASE_SQL = "SELECT * FROM person ";
 
     private static final Map<String, String> ALLOWED_FIELDS = Map.of(
             "full_name", "full_name",
             "document", "document",
             "role", "role");
 
+    /** Tipo de las columnas que no son texto, para los filtros de {@link #findAll(Criteria)}. */
+    private static final Map<String, String> COLUMN_TYPES = Map.of("role", "role_enum");
+
+    private static final String FIND_ALL_SQL = BASE_SQL;
+
+    private static final String FIND_BY_ID_SQL = BASE_SQL + " WHERE id = ?::UUID";
+
+    private static final String FIND_ALL_BY_ID_SQL = BASE_SQL + " WHERE id = ANY(?)";
+
+    private static final Map<String, String> FIND_BY_SQL = FieldQueries.byField(ALLOWED_FIELDS,
+            column -> BASE_SQL + " WHERE " + column + "::text ILIKE ?");
+
+    /**
+     * Llaves naturales (columnas {@code UNIQUE}) para {@link #findOneBy}. La
+     * comparacion exacta usa el indice de la restriccion.
+     */
+    private static final Map<String, String> UNIQUE_FIELDS = Map.of(
+            "document", "document");
+
+    private static final Map<String, String> FIND_ONE_BY_SQL = FieldQueries.byField(UNIQUE_FIELDS,
+            column -> BASE_SQL + " WHERE " + column + " = ?");
+
+    /** Columnas de texto en las que busca {@link #search(String, int)}. */
+    private static final String[] SEARCH_COLUMNS = { "full_name", "document" };
+
+    private static final String SEARCH_SQL = SearchQueries.sql(BASE_SQL, "id", "document", "full_name",
+            SEARCH_COLUMNS);
+
+    private static final String SEARCH_SIMILAR_SQL = SearchQueries.similarSql(BASE_SQL, "id", SEARCH_COLUMNS);
+
+    /** Atributos por los que se cuentan facetas, con la columna del resultado que los muestra. */
+    private static final Map<String, CriteriaQueries.Facet> FACETS = Map.of(
+            "role", new CriteriaQueries.Facet("role"));
+
+    /** Filtros de varias condiciones sobre la consulta base. */
+    private static final CriteriaQueries CRITERIA = new CriteriaQueries(BASE_SQL, "person", "id", ALLOWED_FIELDS,
+            COLUMN_TYPES, FACETS);
+
+    /** Conteos y existencia resueltos en la base de datos. */
+    private static final CountQueries COUNTS = new CountQueries(BASE_SQL, "person", ALLOWED_FIELDS, UNIQUE_FIELDS);
+
+    /**
+     * Paginacion por llave. {@code full_name} usa {@code idx_person_full_name_id}
+     * y {@code document} el indice de su restriccion UNIQUE.
+     */
+    private static final PageQueries PAGES = new PageQueries(BASE_SQL, "person",
+            new PageQueries.SortColumn("id", "id", "UUID"),
+            Map.of(
+                    "full_name", new PageQueries.SortColumn("full_name", "full_name", "TEXT"),
+                    "document", new PageQueries.SortColumn("document", "document", "TEXT")));
+
+    private static final String INSERT_SQL =
+            "INSERT INTO person (full_name, document, role) VALUES (?, ?, ?::role_enum) RETURNING id";
+
+    private static final String UPDATE_SQL =
+            "UPDATE person SET full_name = ?, document = ?, role = ?::role_enum WHERE id = ?::UUID";
+
+    private static final String DELETE_SQL = "DELETE FROM person WHERE id = ?::UUID";
+
     public JDBCPersonRepository(DatabaseConnection db) {
         this.db = db;
     }
@@ -33,16 +95,14 @@ public class JDBCPersonRepository implements GenericRepository<Person> {
                 result.getObject("id", UUID.class).toString(),
                 result.getObject("full_name", String.class),
                 result.getObject("document", String.class),
-                result.getObject("role", Role.class));
+                Role.valueOf(result.getString("role")));
     }
 
     @Override
     public Person create(Person entity) {
         if (entity.getId() == null) {
-            final String sql = "INSERT INTO person (full_name, document, role) VALUES (?, ?, ?::role_enum) RETURNING id";
-
             try (Connection connection = db.getConnection();
-                    PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                    PreparedStatement preparedStatement = connection.prepareStatement(INSERT_SQL)) {
                 preparedStatement.setString(1, entity.getFullname());
                 preparedStatement.setString(2, entity.getDocument());
                 preparedStatement.setString(3, entity.getRole().name());
@@ -64,10 +124,8 @@ public class JDBCPersonRepository implements GenericRepository<Person> {
 
     @Override
     public Optional<Person> findById(UUID id) {
-        final String sql = BASE_SQL + " WHERE id = ?::UUID";
-
         try (Connection connection = db.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                PreparedStatement preparedStatement = connection.prepareStatement(FIND_BY_ID_SQL)) {
 
             preparedStatement.setString(1, id.toString());
 
@@ -82,12 +140,40 @@ public class JDBCPersonRepository implements GenericRepository<Person> {
         }
     }
 
+    @Override
+    public Map<UUID, Person> findAllById(Collection<UUID> ids) {
+        Map<UUID, Person> persons = new LinkedHashMap<>();
+        List<List<UUID>> chunks = IdBatches.chunks(ids);
+        if (chunks.isEmpty()) {
+            return persons;
+        }
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(FIND_ALL_BY_ID_SQL)) {
+
+            for (List<UUID> chunk : chunks) {
+                preparedStatement.setArray(1, IdBatches.toArray(connection, chunk));
+
+                try (ResultSet result = preparedStatement.executeQuery()) {
+                    while (result.next()) {
+                        Person entity = mapResultSetToPerson(result);
+                        persons.put(UUID.fromString(entity.getId()), entity);
+                    }
+                }
+            }
+
+            return persons;
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error finding persons by IDs", exception);
+        }
+    }
+
     @Override
     public List<Person> findAll() {
         List<Person> persons = new ArrayList<>();
 
         try (Connection connection = db.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(BASE_SQL);
+                PreparedStatement preparedStatement = connection.prepareStatement(FIND_ALL_SQL);
                 ResultSet result = preparedStatement.executeQuery()) {
 
             while (result.next()) {
@@ -101,22 +187,25 @@ public class JDBCPersonRepository implements GenericRepository<Person> {
         return persons;
     }
 
+    @Override
+    public Stream<Person> stream(int fetchSize) {
+        return StreamQueries.stream(db, FIND_ALL_SQL, fetchSize, this::mapResultSetToPerson, "Error streaming all persons");
+    }
+
     @Override
     public List<Person> findBy(String attribute, String value) {
 
-        String column = ALLOWED_FIELDS.get(attribute);
-        if (column == null) {
+        final String sql = FIND_BY_SQL.get(attribute);
+        if (sql == null) {
             throw new IllegalArgumentException("Campo de busqueda no permitido: " + attribute);
         }
 
-        final String sql = BASE_SQL + " WHERE LOWER(" + column + ") LIKE LOWER(?)";
-
         List<Person> persons = new ArrayList<>();
 
         try (Connection connection = db.getConnection();
                 PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
 
-            preparedStatement.setString(1, "%" + value + "%");
+            preparedStatement.setString(1, "%" + SearchQueries.escapeLike(value) + "%");
 
             try (ResultSet result = preparedStatement.executeQuery()) {
                 while (result.next()) {
@@ -130,12 +219,112 @@ public class JDBCPersonRepository implements GenericRepository<Person> {
     }
 
     @Override
-    public Person update(Person entity) {
-        // CAMBIO: Agregar ::role_enum
-        final String sql = "UPDATE person SET full_name = ?, document = ?, role = ?::role_enum WHERE id = ?::UUID";
+    public Optional<Person> findOneBy(String attribute, String value) {
+        final String sql = FIND_ONE_BY_SQL.get(attribute);
+        if (sql == null) {
+            throw new IllegalArgumentException("Campo no es una llave unica: " + attribute);
+        }
 
         try (Connection connection = db.getConnection();
                 PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+
+            preparedStatement.setString(1, value);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                if (result.next()) {
+                    return Optional.of(mapResultSetToPerson(result));
+                }
+                return Optional.empty();
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error finding person by " + attribute, exception);
+        }
+    }
+
+    @Override
+    public List<Person> findAll(Criteria criteria) {
+        return CRITERIA.findAll(db, criteria, this::mapResultSetToPerson);
+    }
+
+    @Override
+    public List<Person> search(String text, int limit) {
+        List<Person> persons = new ArrayList<>();
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(SEARCH_SQL)) {
+
+            SearchQueries.bind(preparedStatement, text, limit, SEARCH_COLUMNS.length);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                while (result.next()) {
+                    persons.add(mapResultSetToPerson(result));
+                }
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error searching persons", exception);
+        }
+        return persons;
+    }
+
+    @Override
+    public List<Person> searchSimilar(String text, int limit) {
+        List<Person> persons = new ArrayList<>();
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(SEARCH_SIMILAR_SQL)) {
+
+            SearchQueries.bindSimilar(preparedStatement, text, limit, SEARCH_COLUMNS.length);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                while (result.next()) {
+                    persons.add(mapResultSetToPerson(result));
+                }
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error searching similar persons", exception);
+        }
+        return persons;
+    }
+
+    @Override
+    public Page<Person> findPage(PageCursor cursor, int limit, PageSort sort) {
+        return PAGES.findPage(db, cursor, limit, sort, this::mapResultSetToPerson);
+    }
+
+    @Override
+    public long estimateTotal() {
+        return COUNTS.estimateTotal(db);
+    }
+
+    @Override
+    public long count() {
+        return COUNTS.count(db);
+    }
+
+    @Override
+    public long count(String attribute, String value) {
+        return COUNTS.count(db, attribute, value);
+    }
+
+    @Override
+    public long count(Criteria criteria) {
+        return CRITERIA.count(db, criteria);
+    }
+
+    @Override
+    public FacetCounts facetCounts(Criteria criteria, Collection<String> facets) {
+        return CRITERIA.facetCounts(db, criteria, facets);
+    }
+
+    @Override
+    public boolean exists(String attribute, String value) {
+        return COUNTS.exists(db, attribute, value);
+    }
+
+    @Override
+    public Person update(Person entity) {
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_SQL)) {
             preparedStatement.setString(1, entity.getFullname());
             preparedStatement.setString(2, entity.getDocument());
             preparedStatement.setString(3, entity.getRole().name());
@@ -153,9 +342,8 @@ public class JDBCPersonRepository implements GenericRepository<Person> {
 
     @Override
     public boolean delete(UUID id) {
-        final String sql = "DELETE FROM person WHERE id = ?::UUID";
         try (Connection connection = db.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                PreparedStatement preparedStatement = connection.prepareStatement(DELETE_SQL)) {
             preparedStatement.setObject(1, id);
 
             int rowsAffected = preparedStatement.executeUpdate();
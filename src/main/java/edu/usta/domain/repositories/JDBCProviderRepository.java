@@ -4,10 +4,13 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.postgresql.shaded.com.ongres.scram.common.bouncycastle.pbkdf2.RuntimeCryptoException;
 
@@ -16,7 +19,7 @@ import edu.usta.infrastructure.db.DatabaseConnection;
 
 public class JDBCProviderRepository implements GenericRepository<Provider> {
     private final DatabaseConnection db;
-    private final String BASE_SQL = """
+    private static final String BASE_SQL = """
                                     SELECT
                                         id,
                                         name,
@@ -30,6 +33,63 @@ public class JDBCProviderRepository implements GenericRepository<Provider> {
             "taxId", "tax_id",
             "contact_email", "contact_email");
 
+    /** Todas las columnas filtrables son texto. */
+    private static final Map<String, String> COLUMN_TYPES = Map.of();
+
+    private static final String FIND_ALL_SQL = BASE_SQL;
+
+    private static final String FIND_BY_ID_SQL = BASE_SQL + " WHERE id = ?::UUID";
+
+    private static final String FIND_ALL_BY_ID_SQL = BASE_SQL + " WHERE id = ANY(?)";
+
+    private static final Map<String, String> FIND_BY_SQL = FieldQueries.byField(ALLOWED_FIELDS,
+            column -> BASE_SQL + " WHERE " + column + " ILIKE ?");
+
+    /**
+     * Llaves naturales (columnas {@code UNIQUE}) para {@link #findOneBy}. La
+     * comparacion exacta usa el indice de la restriccion.
+     */
+    private static final Map<String, String> UNIQUE_FIELDS = Map.of(
+            "taxId", "tax_id",
+            "contact_email", "contact_email");
+
+    private static final Map<String, String> FIND_ONE_BY_SQL = FieldQueries.byField(UNIQUE_FIELDS,
+            column -> BASE_SQL + " WHERE " + column + " = ?");
+
+    /** Columnas de texto en las que busca {@link #search(String, int)}. */
+    private static final String[] SEARCH_COLUMNS = { "name", "tax_id", "contact_email" };
+
+    private static final String SEARCH_SQL = SearchQueries.sql(BASE_SQL, "id", "tax_id", "name", SEARCH_COLUMNS);
+
+    private static final String SEARCH_SIMILAR_SQL = SearchQueries.similarSql(BASE_SQL, "id", SEARCH_COLUMNS);
+
+    /** Filtros de varias condiciones sobre la consulta base. */
+    private static final CriteriaQueries CRITERIA = new CriteriaQueries(BASE_SQL, "provider", "id", ALLOWED_FIELDS,
+            COLUMN_TYPES);
+
+    /** Conteos y existencia resueltos en la base de datos. */
+    private static final CountQueries COUNTS = new CountQueries(BASE_SQL, "provider", ALLOWED_FIELDS, UNIQUE_FIELDS);
+
+    /**
+     * Paginacion por llave. {@code name} usa {@code idx_provider_name_id} y
+     * {@code tax_id} el indice de su restriccion UNIQUE.
+     */
+    private static final PageQueries PAGES = new PageQueries(BASE_SQL, "provider",
+            new PageQueries.SortColumn("id", "id", "UUID"),
+            Map.of(
+                    "name", new PageQueries.SortColumn("name", "name", "TEXT"),
+                    "taxId", new PageQueries.SortColumn("tax_id", "tax_id", "TEXT")));
+
+    private static final String INSERT_SQL =
+            "INSERT INTO provider (name, tax_id, contact_email) VALUES (?, ?, ?) RETURNING id";
+
+    private static final String UPDATE_SQL = """
+                    UPDATE provider SET name = ?,
+                    tax_id = ?, contact_email = ? WHERE id = ?::UUID
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM provider WHERE id = ?::UUID";
+
     public JDBCProviderRepository(DatabaseConnection db) {
         this.db = db;
     }
@@ -45,10 +105,8 @@ public class JDBCProviderRepository implements GenericRepository<Provider> {
     @Override
     public Provider create(Provider entity) {
         if (entity.getId() == null) {
-            final String sql = "INSERT INTO provider (name, tax_id, contact_email) VALUES (?, ?, ?) RETURNING id";
-
             try (Connection connection = db.getConnection();
-                    PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                    PreparedStatement preparedStatement = connection.prepareStatement(INSERT_SQL)) {
                 preparedStatement.setString(1, entity.getName());
                 preparedStatement.setString(2, entity.getTaxId());
                 preparedStatement.setString(3, entity.getContactEmail());
@@ -74,10 +132,8 @@ public class JDBCProviderRepository implements GenericRepository<Provider> {
     @Override
     public Optional<Provider> findById(UUID id) {
 
-        final String sql = BASE_SQL + " WHERE id = ?::UUID";
-
         try (Connection connection = db.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                PreparedStatement preparedStatement = connection.prepareStatement(FIND_BY_ID_SQL)) {
             preparedStatement.setString(1, id.toString());
 
             try (ResultSet result = preparedStatement.executeQuery()) {
@@ -98,11 +154,37 @@ public class JDBCProviderRepository implements GenericRepository<Provider> {
     }
 
     @Override
-    public List<Provider> findAll() {
-        final String sql = "SELECT id, name, tax_id, contact_email FROM provider";
+    public Map<UUID, Provider> findAllById(Collection<UUID> ids) {
+        Map<UUID, Provider> providers = new LinkedHashMap<>();
+        List<List<UUID>> chunks = IdBatches.chunks(ids);
+        if (chunks.isEmpty()) {
+            return providers;
+        }
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(FIND_ALL_BY_ID_SQL)) {
+
+            for (List<UUID> chunk : chunks) {
+                preparedStatement.setArray(1, IdBatches.toArray(connection, chunk));
+
+                try (ResultSet result = preparedStatement.executeQuery()) {
+                    while (result.next()) {
+                        Provider entity = mapResultSetToProvider(result);
+                        providers.put(UUID.fromString(entity.getId()), entity);
+                    }
+                }
+            }
 
+            return providers;
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error al buscar los proveedores por lote de ids", exception);
+        }
+    }
+
+    @Override
+    public List<Provider> findAll() {
         try (Connection connection = db.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(sql);
+                PreparedStatement preparedStatement = connection.prepareStatement(FIND_ALL_SQL);
                 ResultSet result = preparedStatement.executeQuery()) {
 
             List<Provider> providers = new java.util.ArrayList<>();
@@ -122,21 +204,24 @@ public class JDBCProviderRepository implements GenericRepository<Provider> {
         }
     }
 
+    @Override
+    public Stream<Provider> stream(int fetchSize) {
+        return StreamQueries.stream(db, FIND_ALL_SQL, fetchSize, this::mapResultSetToProvider, "Error al recorrer todos los proveedores");
+    }
+
     @Override
     public List<Provider> findBy(String attribute, String value) {
 
-        String column = ALLOWED_FIELDS.get(attribute);
-        if (column == null) {
+        final String sql = FIND_BY_SQL.get(attribute);
+        if (sql == null) {
             throw new IllegalArgumentException("Atributo no permitido: " + attribute);
         }
 
-        final String sql = BASE_SQL + " WHERE LOWER(" + column + ") LIKE LOWER(?)";
-
         List<Provider> providers = new java.util.ArrayList<>();
 
         try (Connection connection = db.getConnection();
                 PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setString(1, "%" + value + "%");
+            preparedStatement.setString(1, "%" + SearchQueries.escapeLike(value) + "%");
 
             try (ResultSet result = preparedStatement.executeQuery()) {
                 while (result.next()) {
@@ -151,14 +236,112 @@ public class JDBCProviderRepository implements GenericRepository<Provider> {
     }
 
     @Override
-    public Provider update(Provider entity) {
-        final String sql = """
-                        UPDATE provider SET name = ?,
-                        tax_id = ?, contact_email = ? WHERE id = ?::UUID
-                """;
+    public Optional<Provider> findOneBy(String attribute, String value) {
+        final String sql = FIND_ONE_BY_SQL.get(attribute);
+        if (sql == null) {
+            throw new IllegalArgumentException("Campo no es una llave unica: " + attribute);
+        }
 
         try (Connection connection = db.getConnection();
                 PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+
+            preparedStatement.setString(1, value);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                if (result.next()) {
+                    return Optional.of(mapResultSetToProvider(result));
+                }
+                return Optional.empty();
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error al buscar proveedor por " + attribute, exception);
+        }
+    }
+
+    @Override
+    public List<Provider> findAll(Criteria criteria) {
+        return CRITERIA.findAll(db, criteria, this::mapResultSetToProvider);
+    }
+
+    @Override
+    public List<Provider> search(String text, int limit) {
+        List<Provider> providers = new java.util.ArrayList<>();
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(SEARCH_SQL)) {
+
+            SearchQueries.bind(preparedStatement, text, limit, SEARCH_COLUMNS.length);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                while (result.next()) {
+                    providers.add(mapResultSetToProvider(result));
+                }
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error searching providers", exception);
+        }
+        return providers;
+    }
+
+    @Override
+    public List<Provider> searchSimilar(String text, int limit) {
+        List<Provider> providers = new java.util.ArrayList<>();
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(SEARCH_SIMILAR_SQL)) {
+
+            SearchQueries.bindSimilar(preparedStatement, text, limit, SEARCH_COLUMNS.length);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                while (result.next()) {
+                    providers.add(mapResultSetToProvider(result));
+                }
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error searching similar providers", exception);
+        }
+        return providers;
+    }
+
+    @Override
+    public Page<Provider> findPage(PageCursor cursor, int limit, PageSort sort) {
+        return PAGES.findPage(db, cursor, limit, sort, this::mapResultSetToProvider);
+    }
+
+    @Override
+    public long estimateTotal() {
+        return COUNTS.estimateTotal(db);
+    }
+
+    @Override
+    public long count() {
+        return COUNTS.count(db);
+    }
+
+    @Override
+    public long count(String attribute, String value) {
+        return COUNTS.count(db, attribute, value);
+    }
+
+    @Override
+    public long count(Criteria criteria) {
+        return CRITERIA.count(db, criteria);
+    }
+
+    @Override
+    public FacetCounts facetCounts(Criteria criteria, Collection<String> facets) {
+        return CRITERIA.facetCounts(db, criteria, facets);
+    }
+
+    @Override
+    public boolean exists(String attribute, String value) {
+        return COUNTS.exists(db, attribute, value);
+    }
+
+    @Override
+    public Provider update(Provider entity) {
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_SQL)) {
             preparedStatement.setString(1, entity.getName());
             preparedStatement.setString(2, entity.getTaxId());
             preparedStatement.setString(3, entity.getContactEmail());
@@ -176,9 +359,8 @@ public class JDBCProviderRepository implements GenericRepository<Provider> {
 
     @Override
     public boolean delete(UUID id) {
-        final String sql = "DELETE FROM provider WHERE id = ?::UUID";
         try (Connection connection = db.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                PreparedStatement preparedStatement = connection.prepareStatement(DELETE_SQL)) {
             preparedStatement.setObject(1, id);
 
             int rowsAffected = preparedStatement.executeUpdate();
@@ -4,21 +4,21 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-import edu.usta.domain.entities.Provider;
 import edu.usta.domain.entities.TechEquipment;
-import edu.usta.domain.enums.EquipmentStatus;
-import edu.usta.domain.enums.EquipmentType;
 import edu.usta.infrastructure.db.DatabaseConnection;
 
 public class JDBCTechEquipmentRepository implements GenericRepository<TechEquipment> {
 
     private final DatabaseConnection db;
-    private final String BASE_SQL = """
+    private static final String BASE_SQL = """
                                     SELECT
                                         tc.os as tc_os,
                                         tc.ram_gb as tc_ram_gb,
@@ -27,127 +27,164 @@ public class JDBCTechEquipmentRepository implements GenericRepository<TechEquipm
                                         e.serial AS e_serial,
                                         e.brand AS e_brand,
                                         e.model AS e_model,
-                                        e.type AS e_type,
-                                        e.state AS e_state,
+                                        e.type::text AS e_type,
+                                        e.state::text AS e_state,
                                         e.provider_id AS e_provider_id,
                                         e.image_path AS e_image_path,
 
                                         p.id AS p_id,
                                         p.name AS p_name,
-                                        p.taxId AS p_taxId,
+                                        p.tax_id AS p_tax_id,
                                         p.contact_email AS p_contact_email
 
                                     FROM tech_equipment tc
                                     JOIN equipment e ON e.id = tc.id
-                                    JOIN provider p ON p.id = e.provider_id
+                                    LEFT JOIN provider p ON p.id = e.provider_id
             """;
 
-    public JDBCTechEquipmentRepository(DatabaseConnection db) {
-        this.db = db;
-    }
-
     private static final Map<String, String> ALLOWED_FIELDS = Map.of(
             "serial", "e.serial",
             "brand", "e.brand",
+            "model", "e.model",
             "provider.name", "p.name",
-            "provider.contact_email", "p.contact_email");
+            "provider.contact_email", "p.contact_email",
+            "type", "e.type",
+            "state", "e.state",
+            "provider", "e.provider_id");
+
+    /** Tipo de las columnas que no son texto, para los filtros de {@link #findAll(Criteria)}. */
+    private static final Map<String, String> COLUMN_TYPES = Map.of(
+            "type", "equipment_type",
+            "state", "equipment_status",
+            "provider", "UUID");
+
+    private static final String FIND_ALL_SQL = BASE_SQL;
+
+    private static final String FIND_BY_ID_SQL = BASE_SQL + " WHERE e.id = ?";
+
+    private static final String FIND_ALL_BY_ID_SQL = BASE_SQL + " WHERE e.id = ANY(?)";
+
+    private static final Map<String, String> FIND_BY_SQL = FieldQueries.byField(ALLOWED_FIELDS,
+            column -> BASE_SQL + " WHERE " + column + "::text ILIKE ?");
+
+    /**
+     * Llaves naturales (columnas {@code UNIQUE}) para {@link #findOneBy}. La
+     * comparacion exacta usa el indice de la restriccion.
+     */
+    private static final Map<String, String> UNIQUE_FIELDS = Map.of(
+            "serial", "e.serial");
+
+    private static final Map<String, String> FIND_ONE_BY_SQL = FieldQueries.byField(UNIQUE_FIELDS,
+            column -> BASE_SQL + " WHERE " + column + " = ?");
+
+    /** Columnas de texto en las que busca {@link #search(String, int)}. */
+    private static final String[] SEARCH_COLUMNS = { "e.serial", "e.brand", "e.model" };
+
+    private static final String SEARCH_SQL = SearchQueries.sql(BASE_SQL, "e.id", "e.serial", "e.serial",
+            SEARCH_COLUMNS);
+
+    private static final String SEARCH_SIMILAR_SQL = SearchQueries.similarSql(BASE_SQL, "e.id", SEARCH_COLUMNS);
+
+    /** Atributos por los que se cuentan facetas, con la columna del resultado que los muestra. */
+    private static final Map<String, CriteriaQueries.Facet> FACETS = Map.of(
+            "type", new CriteriaQueries.Facet("e_type"),
+            "state", new CriteriaQueries.Facet("e_state"),
+            "provider", new CriteriaQueries.Facet("e_provider_id", "p_name"));
+
+    /** Filtros de varias condiciones sobre la consulta base. */
+    private static final CriteriaQueries CRITERIA = new CriteriaQueries(BASE_SQL, "tech_equipment", "e.id", ALLOWED_FIELDS,
+            COLUMN_TYPES, FACETS);
+
+    /** Conteos y existencia resueltos en la base de datos. */
+    private static final CountQueries COUNTS = new CountQueries(BASE_SQL, "tech_equipment", ALLOWED_FIELDS, UNIQUE_FIELDS);
+
+    /** Paginacion por llave; los mismos ordenes e indices que {@link JDBCEquipmentRepository}. */
+    private static final PageQueries PAGES = new PageQueries(BASE_SQL, "tech_equipment",
+            new PageQueries.SortColumn("e.id", "e_id", "UUID"),
+            Map.of(
+                    "serial", new PageQueries.SortColumn("e.serial", "e_serial", "TEXT"),
+                    "brand", new PageQueries.SortColumn("e.brand", "e_brand", "TEXT"),
+                    "model", new PageQueries.SortColumn("e.model", "e_model", "TEXT")));
+
+    /**
+     * Inserta en {@code equipment} y en {@code tech_equipment} en una sola
+     * sentencia: la CTE devuelve el id generado y el segundo {@code INSERT} lo
+     * usa. Una sentencia es atomica, asi que no hace falta abrir una
+     * transaccion ni hacer dos viajes a la base de datos.
+     */
+    private static final String INSERT_SQL = """
+            WITH ins AS (
+                INSERT INTO equipment (serial, brand, model, type, state, provider_id, image_path)
+                VALUES (?, ?, ?, ?::equipment_type, ?::equipment_status, ?::UUID, ?)
+                RETURNING id
+            )
+            INSERT INTO tech_equipment (id, os, ram_gb)
+            SELECT id, ?, ? FROM ins
+            RETURNING id
+            """;
 
-    private TechEquipment mapResultSetToTechEquipment(ResultSet result) throws SQLException {
+    /**
+     * Actualiza las dos tablas en una sola sentencia. La CTE solo toca
+     * {@code equipment} si el id tiene fila en {@code tech_equipment}, para no
+     * modificar a medias un equipo de otro subtipo.
+     */
+    private static final String UPDATE_SQL = """
+            WITH upd AS (
+                UPDATE equipment SET
+                    serial = ?,
+                    brand = ?,
+                    model = ?,
+                    type = ?::equipment_type,
+                    state = ?::equipment_status,
+                    provider_id = ?::UUID,
+                    image_path = ?
+                WHERE id = (SELECT id FROM tech_equipment WHERE id = ?::UUID)
+                RETURNING id
+            )
+            UPDATE tech_equipment AS tc SET
+                os = ?,
+                ram_gb = ?
+            FROM upd
+            WHERE tc.id = upd.id
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM tech_equipment WHERE id = ?::UUID";
 
-        Provider provider = new Provider(
-                result.getObject("p_id", String.class),
-                result.getObject("p_name", String.class),
-                result.getObject("p_taxId", String.class),
-                result.getObject("p_contact_email", String.class));
-
-        return new TechEquipment(
-                result.getObject("e_id", String.class),
-                result.getObject("e_serial", String.class),
-                result.getObject("e_brand", String.class),
-                result.getObject("e_model", String.class),
-                result.getObject("e_type", EquipmentType.class),
-                result.getObject("e_state", EquipmentStatus.class),
-                provider,
-                result.getObject("e_image_path", String.class),
-                result.getObject("tc_os", String.class),
-                result.getObject("tc_ram_gb", Integer.class));
+    public JDBCTechEquipmentRepository(DatabaseConnection db) {
+        this.db = db;
+    }
+
+    private TechEquipment mapResultSetToTechEquipment(ResultSet result) throws SQLException {
+        return EquipmentRows.tech(result);
     }
 
     @Override
     public TechEquipment create(TechEquipment entity) {
         if (entity.getId() == null) {
-            // Primero insertar en equipment y obtener el ID
-            final String equipmentSql = """
-                    INSERT INTO equipment (serial, brand, model, type, state, provider_id, image_path)
-                    VALUES (?, ?, ?, ?::equipment_type, ?::equipment_status, ?::UUID, ?)
-                    RETURNING id
-                    """;
-
-            // Luego insertar en tech_equipment con el ID obtenido
-            final String techSql = """
-                    INSERT INTO tech_equipment (id, os, ram_gb)
-                    VALUES (?::UUID, ?, ?)
-                    """;
-
-            try (Connection connection = db.getConnection()) {
-                connection.setAutoCommit(false); // Iniciar transacción
-
-                try {
-                    // Insertar en equipment
-                    UUID equipmentId;
-                    try (PreparedStatement equipmentStmt = connection.prepareStatement(equipmentSql)) {
-                        equipmentStmt.setString(1, entity.getSerial());
-                        equipmentStmt.setString(2, entity.getBrand());
-                        equipmentStmt.setString(3, entity.getModel());
-                        equipmentStmt.setString(4, entity.getType().name());
-                        equipmentStmt.setString(5, entity.getState().name());
-
-                        // Extraer el ID del Provider
-                        if (entity.getProvider() != null) {
-                            equipmentStmt.setObject(6, UUID.fromString(entity.getProvider().getId()));
-                        } else {
-                            equipmentStmt.setNull(6, java.sql.Types.OTHER);
-                        }
-
-                        equipmentStmt.setString(7, entity.getImagePath());
-
-                        try (ResultSet result = equipmentStmt.executeQuery()) {
-                            if (result.next()) {
-                                equipmentId = result.getObject("id", UUID.class);
-                            } else {
-                                throw new SQLException("No ID returned from equipment insert");
-                            }
-                        }
+            try (Connection connection = db.getConnection();
+                    PreparedStatement preparedStatement = connection.prepareStatement(INSERT_SQL)) {
+
+                int index = EquipmentRows.bindEquipment(preparedStatement, 1, entity);
+                preparedStatement.setString(index++, entity.getOs());
+                preparedStatement.setInt(index, entity.getRamGb());
+
+                try (ResultSet result = preparedStatement.executeQuery()) {
+                    if (result.next()) {
+                        UUID id = result.getObject("id", UUID.class);
+
+                        return new TechEquipment(
+                                id.toString(),
+                                entity.getSerial(),
+                                entity.getBrand(),
+                                entity.getModel(),
+                                entity.getType(),
+                                entity.getState(),
+                                entity.getProvider(),
+                                entity.getImagePath(),
+                                entity.getOs(),
+                                entity.getRamGb());
                     }
-
-                    // Insertar en tech_equipment
-                    try (PreparedStatement techStmt = connection.prepareStatement(techSql)) {
-                        techStmt.setObject(1, equipmentId);
-                        techStmt.setString(2, entity.getOs());
-                        techStmt.setInt(3, entity.getRamGb());
-
-                        techStmt.executeUpdate();
-                    }
-
-                    connection.commit(); // Confirmar transacción
-
-                    return new TechEquipment(
-                            equipmentId.toString(),
-                            entity.getSerial(),
-                            entity.getBrand(),
-                            entity.getModel(),
-                            entity.getType(),
-                            entity.getState(),
-                            entity.getProvider(),
-                            entity.getImagePath(),
-                            entity.getOs(),
-                            entity.getRamGb());
-
-                } catch (SQLException e) {
-                    connection.rollback(); // Revertir en caso de error
-                    throw e;
-                } finally {
-                    connection.setAutoCommit(true);
+                    throw new SQLException("No ID returned from equipment insert");
                 }
 
             } catch (SQLException exception) {
@@ -160,10 +197,8 @@ public class JDBCTechEquipmentRepository implements GenericRepository<TechEquipm
 
     @Override
     public Optional<TechEquipment> findById(UUID id) {
-        final String sql = BASE_SQL + " WHERE e.id = ?";
-
         try (Connection connection = db.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                PreparedStatement preparedStatement = connection.prepareStatement(FIND_BY_ID_SQL)) {
             preparedStatement.setObject(1, id);
 
             try (ResultSet result = preparedStatement.executeQuery()) {
@@ -180,11 +215,37 @@ public class JDBCTechEquipmentRepository implements GenericRepository<TechEquipm
     }
 
     @Override
-    public List<TechEquipment> findAll() {
-        final String sql = BASE_SQL;
+    public Map<UUID, TechEquipment> findAllById(Collection<UUID> ids) {
+        Map<UUID, TechEquipment> techEquipments = new LinkedHashMap<>();
+        List<List<UUID>> chunks = IdBatches.chunks(ids);
+        if (chunks.isEmpty()) {
+            return techEquipments;
+        }
 
         try (Connection connection = db.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(sql);
+                PreparedStatement preparedStatement = connection.prepareStatement(FIND_ALL_BY_ID_SQL)) {
+
+            for (List<UUID> chunk : chunks) {
+                preparedStatement.setArray(1, IdBatches.toArray(connection, chunk));
+
+                try (ResultSet result = preparedStatement.executeQuery()) {
+                    while (result.next()) {
+                        TechEquipment entity = mapResultSetToTechEquipment(result);
+                        techEquipments.put(UUID.fromString(entity.getId()), entity);
+                    }
+                }
+            }
+
+            return techEquipments;
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error buscando equipos tecnológicos por lote de ids", exception);
+        }
+    }
+
+    @Override
+    public List<TechEquipment> findAll() {
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(FIND_ALL_SQL);
                 ResultSet result = preparedStatement.executeQuery()) {
 
             List<TechEquipment> techEquipments = new java.util.ArrayList<>();
@@ -200,21 +261,24 @@ public class JDBCTechEquipmentRepository implements GenericRepository<TechEquipm
         }
     }
 
+    @Override
+    public Stream<TechEquipment> stream(int fetchSize) {
+        return StreamQueries.stream(db, FIND_ALL_SQL, fetchSize, this::mapResultSetToTechEquipment, "Error al recorrer equipos tecnológicos");
+    }
+
     @Override
     public List<TechEquipment> findBy(String attribute, String value) {
 
-        String column = ALLOWED_FIELDS.get(attribute);
-        if (column == null) {
+        final String sql = FIND_BY_SQL.get(attribute);
+        if (sql == null) {
             throw new IllegalArgumentException("Atributo no permitido: " + attribute);
         }
 
-        final String sql = BASE_SQL + " WHERE LOWER(" + column + ") LIKE LOWER(?)";
-
         List<TechEquipment> techEquipments = new java.util.ArrayList<>();
 
         try (Connection connection = db.getConnection();
                 PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setString(1, "%" + value + "%");
+            preparedStatement.setString(1, "%" + SearchQueries.escapeLike(value) + "%");
 
             try (ResultSet result = preparedStatement.executeQuery()) {
 
@@ -230,22 +294,121 @@ public class JDBCTechEquipmentRepository implements GenericRepository<TechEquipm
     }
 
     @Override
-    public TechEquipment update(TechEquipment entity) {
-        final String sql = """
-                UPDATE tech_equipment SET os = ?, ram_gb = ? WHERE id = ?::UUID
-                """;
+    public Optional<TechEquipment> findOneBy(String attribute, String value) {
+        final String sql = FIND_ONE_BY_SQL.get(attribute);
+        if (sql == null) {
+            throw new IllegalArgumentException("Campo no es una llave unica: " + attribute);
+        }
 
         try (Connection connection = db.getConnection();
                 PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setString(1, entity.getOs());
-            preparedStatement.setInt(2, entity.getRamGb());
-            preparedStatement.setObject(3, entity.getId());
+
+            preparedStatement.setString(1, value);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                if (result.next()) {
+                    return Optional.of(mapResultSetToTechEquipment(result));
+                }
+                return Optional.empty();
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error al buscar equipo tecnológico por " + attribute, exception);
+        }
+    }
+
+    @Override
+    public List<TechEquipment> findAll(Criteria criteria) {
+        return CRITERIA.findAll(db, criteria, this::mapResultSetToTechEquipment);
+    }
+
+    @Override
+    public List<TechEquipment> search(String text, int limit) {
+        List<TechEquipment> techEquipments = new java.util.ArrayList<>();
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(SEARCH_SQL)) {
+
+            SearchQueries.bind(preparedStatement, text, limit, SEARCH_COLUMNS.length);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                while (result.next()) {
+                    techEquipments.add(mapResultSetToTechEquipment(result));
+                }
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error searching tech equipments", exception);
+        }
+        return techEquipments;
+    }
+
+    @Override
+    public List<TechEquipment> searchSimilar(String text, int limit) {
+        List<TechEquipment> techEquipments = new java.util.ArrayList<>();
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(SEARCH_SIMILAR_SQL)) {
+
+            SearchQueries.bindSimilar(preparedStatement, text, limit, SEARCH_COLUMNS.length);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                while (result.next()) {
+                    techEquipments.add(mapResultSetToTechEquipment(result));
+                }
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error searching similar tech equipments", exception);
+        }
+        return techEquipments;
+    }
+
+    @Override
+    public Page<TechEquipment> findPage(PageCursor cursor, int limit, PageSort sort) {
+        return PAGES.findPage(db, cursor, limit, sort, this::mapResultSetToTechEquipment);
+    }
+
+    @Override
+    public long estimateTotal() {
+        return COUNTS.estimateTotal(db);
+    }
+
+    @Override
+    public long count() {
+        return COUNTS.count(db);
+    }
+
+    @Override
+    public long count(String attribute, String value) {
+        return COUNTS.count(db, attribute, value);
+    }
+
+    @Override
+    public long count(Criteria criteria) {
+        return CRITERIA.count(db, criteria);
+    }
+
+    @Override
+    public FacetCounts facetCounts(Criteria criteria, Collection<String> facets) {
+        return CRITERIA.facetCounts(db, criteria, facets);
+    }
+
+    @Override
+    public boolean exists(String attribute, String value) {
+        return COUNTS.exists(db, attribute, value);
+    }
+
+    @Override
+    public TechEquipment update(TechEquipment entity) {
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_SQL)) {
+            int index = EquipmentRows.bindEquipment(preparedStatement, 1, entity);
+            preparedStatement.setObject(index++, entity.getId());
+            preparedStatement.setString(index++, entity.getOs());
+            preparedStatement.setInt(index, entity.getRamGb());
 
             int rowsAffected = preparedStatement.executeUpdate();
             if (rowsAffected == 0) {
                 throw new SQLException("No se encontró el equipo tecnológico para actualizar");
             }
-
             return entity;
         } catch (SQLException exception) {
             throw new RuntimeException("Error actualizando equipo tecnológico", exception);
@@ -254,10 +417,8 @@ public class JDBCTechEquipmentRepository implements GenericRepository<TechEquipm
 
     @Override
     public boolean delete(UUID id) {
-        final String sql = "DELETE FROM tech_equipment WHERE id = ?";
-
         try (Connection connection = db.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                PreparedStatement preparedStatement = connection.prepareStatement(DELETE_SQL)) {
             preparedStatement.setString(1, id.toString());
 
             int rowsAffected = preparedStatement.executeUpdate();
@@ -0,0 +1,26 @@
+package edu.usta.domain.repositories;
+
+import java.util.List;
+
+/**
+ * Una pagina de resultados de
+ * {@link GenericRepository#findPage(PageCursor, int, PageSort)}.
+ *
+ * @param items filas de la pagina, en el orden pedido.
+ * @param next  cursor para pedir la pagina siguiente, o {@code null} si esta
+ *              es la ultima.
+ * @param <T>   Tipo de entidad.
+ */
+public record Page<T>(List<T> items, PageCursor next) {
+
+    public Page {
+        items = List.copyOf(items);
+    }
+
+    /**
+     * @return {@code true} si hay mas filas despues de esta pagina.
+     */
+    public boolean hasNext() {
+        return next != null;
+    }
+}
@@ -0,0 +1,32 @@
+package edu.usta.domain.repositories;
+
+import java.util.UUID;
+
+/**
+ * Posicion dentro de una paginacion por llave ("keyset"): el valor de orden y
+ * el id de la ultima fila entregada. La pagina siguiente empieza justo
+ * despues de esa fila, sin {@code OFFSET}, asi pedir la pagina 5.000 cuesta
+ * lo mismo que pedir la primera y las filas insertadas o borradas mientras
+ * tanto no desplazan las paginas.
+ *
+ * <p>
+ * Se obtiene de {@link Page#next()}; para empezar se usa {@link #FIRST}. Un
+ * cursor solo sirve con el mismo {@link PageSort} con el que se creo.
+ * </p>
+ *
+ * @param sort  orden con el que se creo; {@code null} en {@link #FIRST}.
+ * @param value valor del atributo de orden en la ultima fila, como texto.
+ * @param id    id de la ultima fila.
+ */
+public record PageCursor(PageSort sort, String value, UUID id) {
+
+    /** Cursor de la primera pagina, valido con cualquier orden. */
+    public static final PageCursor FIRST = new PageCursor(null, null, null);
+
+    /**
+     * @return {@code true} si es el cursor de la primera pagina.
+     */
+    public boolean isFirst() {
+        return id == null;
+    }
+}
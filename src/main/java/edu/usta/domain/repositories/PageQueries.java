@@ -0,0 +1,164 @@
+package edu.usta.domain.repositories;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import edu.usta.infrastructure.db.DatabaseConnection;
+
+/**
+ * Consultas de paginacion por llave
+ * ({@link GenericRepository#findPage(PageCursor, int, PageSort)}) de un
+ * repositorio JDBC.
+ *
+ * <p>
+ * En lugar de {@code OFFSET}, cada pagina filtra por la ultima fila de la
+ * anterior:
+ * </p>
+ *
+ * <pre>
+ * WHERE (e.serial, e.id) &gt; (?, ?) ORDER BY e.serial, e.id LIMIT ?
+ * </pre>
+ *
+ * <p>
+ * Con un indice B-tree sobre {@code (columna, id)} (ver {@code DDL.sql}) la
+ * base de datos salta directo a la posicion y lee solo las filas de la
+ * pagina. Se pide una fila de mas para saber si hay pagina siguiente.
+ * </p>
+ *
+ * <p>
+ * Solo se puede ordenar por columnas {@code NOT NULL}: la comparacion de filas
+ * no ordena los {@code NULL}.
+ * </p>
+ */
+final class PageQueries {
+
+    /**
+     * Columna por la que se puede ordenar.
+     *
+     * @param expression expresion SQL, p. ej. {@code e.serial}.
+     * @param label      nombre de la columna en el resultado, p. ej.
+     *                   {@code e_serial}.
+     * @param sqlType    tipo al que se convierte el valor del cursor.
+     */
+    record SortColumn(String expression, String label, String sqlType) {
+    }
+
+    private final SortColumn id;
+    private final Map<String, SortColumn> columns = new LinkedHashMap<>();
+    private final Map<String, String> queries = new HashMap<>();
+    private final String table;
+
+    /**
+     * @param baseSql  consulta base del repositorio, sin {@code WHERE}.
+     * @param table    tabla principal, para los mensajes de error.
+     * @param id       columna del id.
+     * @param sortable atributos logicos por los que se puede ordenar, ademas
+     *                 de {@code "id"}.
+     */
+    PageQueries(String baseSql, String table, SortColumn id, Map<String, SortColumn> sortable) {
+        this.id = id;
+        this.table = table;
+        columns.put("id", id);
+        columns.putAll(sortable);
+
+        columns.forEach((attribute, column) -> {
+            for (boolean descending : new boolean[] { false, true }) {
+                for (boolean after : new boolean[] { false, true }) {
+                    queries.put(key(attribute, descending, after), sql(baseSql, column, descending, after));
+                }
+            }
+        });
+    }
+
+    /**
+     * Lee una pagina.
+     *
+     * @param db     conexion del repositorio.
+     * @param cursor posicion; {@link PageCursor#FIRST} para la primera pagina.
+     * @param limit  maximo de filas de la pagina.
+     * @param sort   orden; debe ser el mismo con el que se creo el cursor.
+     * @param mapper convierte cada fila en entidad.
+     */
+    <T> Page<T> findPage(DatabaseConnection db, PageCursor cursor, int limit, PageSort sort, RowMapper<T> mapper) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("El tamaño de pagina debe ser positivo: " + limit);
+        }
+        SortColumn column = columns.get(sort.attribute());
+        if (column == null) {
+            throw new IllegalArgumentException("Invalid sort attribute: " + sort.attribute());
+        }
+        boolean after = cursor != null && !cursor.isFirst();
+        if (after && !sort.equals(cursor.sort())) {
+            throw new IllegalArgumentException("El cursor se creo con otro orden: " + cursor.sort());
+        }
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection
+                        .prepareStatement(queries.get(key(sort.attribute(), sort.descending(), after)))) {
+
+            int index = 1;
+            if (after) {
+                if (column != id) {
+                    preparedStatement.setString(index++, cursor.value());
+                }
+                preparedStatement.setObject(index++, cursor.id());
+            }
+            preparedStatement.setInt(index, limit + 1);
+
+            List<T> items = new ArrayList<>();
+            PageCursor next = null;
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                String lastValue = null;
+                UUID lastId = null;
+                while (result.next()) {
+                    if (items.size() == limit) {
+                        next = new PageCursor(sort, lastValue, lastId);
+                        break;
+                    }
+                    items.add(mapper.map(result));
+                    lastValue = result.getString(column.label());
+                    lastId = result.getObject(id.label(), UUID.class);
+                }
+            }
+            return new Page<>(items, next);
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error reading page of " + table, exception);
+        }
+    }
+
+    private String sql(String baseSql, SortColumn column, boolean descending, boolean after) {
+        String direction = descending ? " DESC" : "";
+        String comparison = descending ? "<" : ">";
+
+        StringBuilder sql = new StringBuilder(baseSql);
+        if (column == id) {
+            if (after) {
+                sql.append(" WHERE ").append(id.expression()).append(' ').append(comparison)
+                        .append(" CAST(? AS ").append(id.sqlType()).append(')');
+            }
+            sql.append(" ORDER BY ").append(id.expression()).append(direction);
+        } else {
+            if (after) {
+                sql.append(" WHERE (").append(column.expression()).append(", ").append(id.expression())
+                        .append(") ").append(comparison)
+                        .append(" (CAST(? AS ").append(column.sqlType()).append("), CAST(? AS ")
+                        .append(id.sqlType()).append("))");
+            }
+            sql.append(" ORDER BY ").append(column.expression()).append(direction)
+                    .append(", ").append(id.expression()).append(direction);
+        }
+        return sql.append(" LIMIT ?").toString();
+    }
+
+    private static String key(String attribute, boolean descending, boolean after) {
+        return attribute + (descending ? " desc" : "") + (after ? " after" : "");
+    }
+}
@@ -0,0 +1,34 @@
+package edu.usta.domain.repositories;
+
+import java.util.Objects;
+
+/**
+ * Orden de una paginacion con
+ * {@link GenericRepository#findPage(PageCursor, int, PageSort)}.
+ *
+ * <p>
+ * El atributo debe ser uno de los que el repositorio permite ordenar (siempre
+ * incluye {@code "id"}); el id desempata, asi el orden es total y ninguna
+ * fila se repite ni se pierde entre paginas.
+ * </p>
+ *
+ * @param attribute  nombre logico del atributo, p. ej. {@code "serial"}.
+ * @param descending {@code true} para orden descendente.
+ */
+public record PageSort(String attribute, boolean descending) {
+
+    /** Orden por id ascendente; el mas barato, usa la llave primaria. */
+    public static final PageSort BY_ID = ascending("id");
+
+    public PageSort {
+        Objects.requireNonNull(attribute, "attribute");
+    }
+
+    public static PageSort ascending(String attribute) {
+        return new PageSort(attribute, false);
+    }
+
+    public static PageSort descending(String attribute) {
+        return new PageSort(attribute, true);
+    }
+}
@@ -0,0 +1,13 @@
+package edu.usta.domain.repositories;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Convierte la fila actual de un {@link ResultSet} en entidad. Los
+ * repositorios JDBC pasan su metodo {@code mapResultSetTo...}.
+ */
+@FunctionalInterface
+interface RowMapper<T> {
+    T map(ResultSet result) throws SQLException;
+}
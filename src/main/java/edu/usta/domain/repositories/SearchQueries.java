@@ -0,0 +1,183 @@
+package edu.usta.domain.repositories;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.UUID;
+
+/**
+ * Construye y llena las consultas de busqueda de texto libre
+ * ({@link GenericRepository#search(String, int)}) de los repositorios JDBC.
+ *
+ * <p>
+ * La consulta filtra en la base de datos con {@code ILIKE} sobre varias
+ * columnas, ordena por relevancia y corta con {@code LIMIT}, de modo que solo
+ * viajan las filas que se van a mostrar:
+ * </p>
+ * <ol>
+ * <li>el id es exactamente el texto buscado,</li>
+ * <li>la llave natural (serial, documento, NIT) es igual al texto,</li>
+ * <li>alguna columna empieza por el texto,</li>
+ * <li>alguna columna lo contiene.</li>
+ * </ol>
+ *
+ * <p>
+ * Tambien arma la busqueda por similitud
+ * ({@link GenericRepository#searchSimilar(String, int)}), que usa el operador
+ * {@code %} de {@code pg_trgm} para tolerar errores de digitacion. Ambas
+ * consultas se resuelven con los indices GIN de trigramas de
+ * {@code DDL.sql}; por eso cada columna buscada debe tener su indice.
+ * </p>
+ */
+final class SearchQueries {
+
+    private SearchQueries() {
+    }
+
+    /**
+     * Arma la consulta de busqueda. Los parametros se llenan con
+     * {@link #bind(PreparedStatement, String, int, int)}.
+     *
+     * @param baseSql     consulta base del repositorio, sin {@code WHERE}.
+     * @param idColumn    columna del id.
+     * @param keyColumn   columna de la llave natural.
+     * @param orderColumn desempate dentro de cada nivel de relevancia.
+     * @param columns     columnas de texto en las que se busca.
+     * @return consulta SQL con parametros posicionales.
+     */
+    static String sql(String baseSql, String idColumn, String keyColumn, String orderColumn, String... columns) {
+        StringBuilder contains = new StringBuilder();
+        StringBuilder prefix = new StringBuilder();
+        for (String column : columns) {
+            if (!contains.isEmpty()) {
+                contains.append(" OR ");
+                prefix.append(" OR ");
+            }
+            contains.append(column).append(" ILIKE ?");
+            prefix.append(column).append(" ILIKE ?");
+        }
+
+        return baseSql + """
+                 WHERE (%s OR %s = ?)
+                 ORDER BY CASE
+                         WHEN %s = ? THEN 0
+                         WHEN LOWER(%s) = LOWER(?) THEN 1
+                         WHEN %s THEN 2
+                         ELSE 3
+                     END, %s, %s
+                 LIMIT ?
+                """.formatted(contains, idColumn, idColumn, keyColumn, prefix, orderColumn, idColumn);
+    }
+
+    /**
+     * Arma la consulta de busqueda por similitud: filas en las que alguna
+     * columna supera el umbral de {@code pg_trgm.similarity_threshold},
+     * ordenadas de la mas parecida a la menos parecida. Los parametros se
+     * llenan con {@link #bindSimilar(PreparedStatement, String, int, int)}.
+     *
+     * @param baseSql  consulta base del repositorio, sin {@code WHERE}.
+     * @param idColumn columna del id, para desempatar.
+     * @param columns  columnas de texto en las que se busca.
+     * @return consulta SQL con parametros posicionales.
+     */
+    static String similarSql(String baseSql, String idColumn, String... columns) {
+        StringBuilder matches = new StringBuilder();
+        StringBuilder scores = new StringBuilder();
+        for (String column : columns) {
+            if (!matches.isEmpty()) {
+                matches.append(" OR ");
+                scores.append(", ");
+            }
+            matches.append(column).append(" % ?");
+            scores.append("similarity(").append(column).append(", ?)");
+        }
+
+        return baseSql + """
+                 WHERE (%s)
+                 ORDER BY GREATEST(%s) DESC, %s
+                 LIMIT ?
+                """.formatted(matches, scores, idColumn);
+    }
+
+    /**
+     * Llena los parametros de una consulta creada con
+     * {@link #similarSql(String, String, String...)}.
+     *
+     * @param preparedStatement sentencia a llenar.
+     * @param text              texto buscado.
+     * @param limit             maximo de filas.
+     * @param columnCount       numero de columnas con que se armo la consulta.
+     */
+    static void bindSimilar(PreparedStatement preparedStatement, String text, int limit, int columnCount)
+            throws SQLException {
+        if (limit < 1) {
+            throw new IllegalArgumentException("El limite de resultados debe ser positivo: " + limit);
+        }
+        String value = text == null ? "" : text.trim();
+
+        int index = 1;
+        for (int i = 0; i < columnCount * 2; i++) {
+            preparedStatement.setString(index++, value);
+        }
+        preparedStatement.setInt(index, limit);
+    }
+
+    /**
+     * Llena los parametros de una consulta creada con
+     * {@link #sql(String, String, String, String, String...)}.
+     *
+     * @param preparedStatement sentencia a llenar.
+     * @param text              texto buscado; vacio devuelve las primeras filas.
+     * @param limit             maximo de filas.
+     * @param columnCount       numero de columnas con que se armo la consulta.
+     */
+    static void bind(PreparedStatement preparedStatement, String text, int limit, int columnCount)
+            throws SQLException {
+        if (limit < 1) {
+            throw new IllegalArgumentException("El limite de resultados debe ser positivo: " + limit);
+        }
+        String value = text == null ? "" : text.trim();
+        String escaped = escapeLike(value);
+        UUID id = parseUUID(value);
+
+        int index = 1;
+        for (int i = 0; i < columnCount; i++) {
+            preparedStatement.setString(index++, "%" + escaped + "%");
+        }
+        setUUID(preparedStatement, index++, id);
+
+        setUUID(preparedStatement, index++, id);
+        preparedStatement.setString(index++, value);
+        for (int i = 0; i < columnCount; i++) {
+            preparedStatement.setString(index++, escaped + "%");
+        }
+        preparedStatement.setInt(index, limit);
+    }
+
+    /**
+     * Escapa los comodines de {@code LIKE} para que el texto del usuario se
+     * busque literalmente.
+     */
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static UUID parseUUID(String value) {
+        if (value.length() != 36) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void setUUID(PreparedStatement preparedStatement, int index, UUID id) throws SQLException {
+        if (id == null) {
+            preparedStatement.setNull(index, Types.OTHER);
+        } else {
+            preparedStatement.setObject(index, id);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package edu.usta.domain.repositories;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import edu.usta.infrastructure.db.ConnectionPool;
+
+/**
+ * Decorador de {@link GenericRepository} que une las lecturas concurrentes
+ * identicas ("singleflight").
+ *
+ * <p>
+ * Si varias terminales piden el mismo {@code findById} o el mismo
+ * {@code findBy} al mismo tiempo, solo el primer hilo consulta la base de
+ * datos; los demas esperan esa consulta en vuelo y reciben su resultado. La
+ * tabla de consultas en vuelo es un {@link ConcurrentHashMap}, que no bloquea
+ * las lecturas y reparte las escrituras por cubetas, asi el decorador no se
+ * convierte en un punto de contencion.
+ * </p>
+ *
+ * <p>
+ * Las escrituras pasan directo al repositorio decorado.
+ * </p>
+ *
+ * @param <T> Tipo de entidad del repositorio.
+ */
+public class SingleFlightRepository<T> implements GenericRepository<T> {
+
+    private final GenericRepository<T> repository;
+    private final ConcurrentHashMap<Object, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * Llave de una busqueda por atributo.
+     */
+    private record FindByKey(String attribute, String value) {
+    }
+
+    /**
+     * Llave de una busqueda por llave natural.
+     */
+    private record FindOneByKey(String attribute, String value) {
+    }
+
+    /**
+     * Llave de una busqueda de texto libre.
+     */
+    private record SearchKey(String text, int limit) {
+    }
+
+    /**
+     * Llave de la busqueda de todos los registros.
+     */
+    private static final Object FIND_ALL_KEY = new Object();
+
+    public SingleFlightRepository(GenericRepository<T> repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public T create(T entity) {
+        return repository.create(entity);
+    }
+
+    @Override
+    public Optional<T> findById(UUID id) {
+        return singleFlight(id, () -> repository.findById(id), UnaryOperator.identity());
+    }
+
+    @Override
+    public Map<UUID, T> findAllById(Collection<UUID> ids) {
+        return repository.findAllById(ids);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return singleFlight(FIND_ALL_KEY, repository::findAll, ArrayList::new);
+    }
+
+    @Override
+    public Stream<T> stream(int fetchSize) {
+        return repository.stream(fetchSize);
+    }
+
+    @Override
+    public List<T> findBy(String attribute, String value) {
+        return singleFlight(new FindByKey(attribute, value), () -> repository.findBy(attribute, value),
+                ArrayList::new);
+    }
+
+    @Override
+    public Optional<T> findOneBy(String attribute, String value) {
+        return singleFlight(new FindOneByKey(attribute, value), () -> repository.findOneBy(attribute, value),
+                UnaryOperator.identity());
+    }
+
+    @Override
+    public List<T> findAll(Criteria criteria) {
+        return repository.findAll(criteria);
+    }
+
+    @Override
+    public List<T> search(String text, int limit) {
+        return singleFlight(new SearchKey(text, limit), () -> repository.search(text, limit), ArrayList::new);
+    }
+
+    @Override
+    public List<T> searchSimilar(String text, int limit) {
+        return repository.searchSimilar(text, limit);
+    }
+
+    @Override
+    public Page<T> findPage(PageCursor cursor, int limit, PageSort sort) {
+        return repository.findPage(cursor, limit, sort);
+    }
+
+    @Override
+    public long estimateTotal() {
+        return repository.estimateTotal();
+    }
+
+    @Override
+    public long count() {
+        return repository.count();
+    }
+
+    @Override
+    public long count(String attribute, String value) {
+        return repository.count(attribute, value);
+    }
+
+    @Override
+    public long count(Criteria criteria) {
+        return repository.count(criteria);
+    }
+
+    @Override
+    public FacetCounts facetCounts(Criteria criteria, Collection<String> facets) {
+        return repository.facetCounts(criteria, facets);
+    }
+
+    @Override
+    public boolean exists(String attribute, String value) {
+        return repository.exists(attribute, value);
+    }
+
+    @Override
+    public T update(T entity) {
+        return repository.update(entity);
+    }
+
+    @Override
+    public boolean delete(UUID id) {
+        return repository.delete(id);
+    }
+
+    /**
+     * @return consultas que realmente llegaron al repositorio decorado.
+     */
+    public long executedCount() {
+        return executed.sum();
+    }
+
+    /**
+     * @return lecturas que se resolvieron esperando una consulta ya en vuelo.
+     */
+    public long sharedCount() {
+        return shared.sum();
+    }
+
+    /**
+     * Ejecuta {@code loader} si no hay una consulta en vuelo con la misma llave;
+     * si la hay, espera su resultado.
+     *
+     * @param copy copia el resultado para cada hilo que lo comparte, asi nadie
+     *             modifica la lista de otro.
+     */
+    @SuppressWarnings("unchecked")
+    private <R> R singleFlight(Object key, Supplier<R> loader, UnaryOperator<R> copy) {
+        CompletableFuture<R> mine = new CompletableFuture<>();
+        CompletableFuture<R> existing = (CompletableFuture<R>) inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            shared.increment();
+            try {
+                return copy.apply(await(existing));
+            } catch (RuntimeException e) {
+                if (!isCancellation(e)) {
+                    throw e;
+                }
+                // Quien inicio la consulta la cancelo; este hilo todavia la necesita.
+                return singleFlight(key, loader, copy);
+            }
+        }
+
+        executed.increment();
+        try {
+            R result = loader.get();
+            mine.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Tambien los Error: si no se completa, los que esperan se quedan
+            // bloqueados en join() para siempre
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * @return {@code true} si el error es la cancelacion de la consulta
+     *         (SQLSTATE {@code 57014}) y no una falla de la base de datos.
+     */
+    private static boolean isCancellation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CancellationException) {
+                return true;
+            }
+            if (cause instanceof SQLException sql && ConnectionPool.QUERY_CANCELED.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <R> R await(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
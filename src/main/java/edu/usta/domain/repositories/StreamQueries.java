@@ -0,0 +1,141 @@
+package edu.usta.domain.repositories;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import edu.usta.infrastructure.db.DatabaseConnection;
+
+/**
+ * Recorrido de una tabla completa con un cursor del servidor
+ * ({@link GenericRepository#stream(int)}).
+ *
+ * <p>
+ * Con autocommit, pgjdbc lee todo el resultado antes de devolver la primera
+ * fila. Dentro de una transaccion y con {@code fetchSize} positivo, en cambio,
+ * abre un cursor y pide las filas de a {@code fetchSize}: en memoria solo
+ * queda un lote a la vez, sin importar el tamaño de la tabla.
+ * </p>
+ *
+ * <p>
+ * La conexion, la sentencia y el resultado quedan abiertos mientras se
+ * recorre el stream y se cierran al agotarlo, si falla la lectura o al
+ * cerrarlo; el pool deshace la transaccion y restaura el autocommit al
+ * recibir la conexion.
+ * </p>
+ */
+final class StreamQueries {
+
+    private StreamQueries() {
+    }
+
+    /**
+     * @param db        conexion del repositorio.
+     * @param sql       consulta a recorrer.
+     * @param fetchSize filas que se piden al servidor en cada viaje.
+     * @param mapper    convierte cada fila en entidad.
+     * @param error     mensaje de la excepcion si la consulta falla.
+     * @return stream perezoso de entidades; debe cerrarse.
+     */
+    static <T> Stream<T> stream(DatabaseConnection db, String sql, int fetchSize, RowMapper<T> mapper,
+            String error) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("El fetchSize debe ser positivo: " + fetchSize);
+        }
+
+        Cursor<T> cursor = new Cursor<>(mapper, error);
+        try {
+            cursor.connection = db.getConnection();
+            cursor.connection.setAutoCommit(false);
+            cursor.statement = cursor.connection.prepareStatement(sql);
+            cursor.statement.setFetchSize(fetchSize);
+            cursor.result = cursor.statement.executeQuery();
+        } catch (SQLException exception) {
+            cursor.close();
+            throw new RuntimeException(error, exception);
+        } catch (RuntimeException exception) {
+            cursor.close();
+            throw exception;
+        }
+
+        return StreamSupport.stream(cursor, false).onClose(cursor::close);
+    }
+
+    /** Lee una fila por cada {@link #tryAdvance} y libera todo al terminar. */
+    private static final class Cursor<T> extends Spliterators.AbstractSpliterator<T> {
+        private final RowMapper<T> mapper;
+        private final String error;
+
+        private Connection connection;
+        private PreparedStatement statement;
+        private ResultSet result;
+        private boolean closed;
+
+        private Cursor(RowMapper<T> mapper, String error) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.mapper = mapper;
+            this.error = error;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) {
+                return false;
+            }
+            T entity;
+            try {
+                if (!result.next()) {
+                    close();
+                    return false;
+                }
+                entity = mapper.map(result);
+            } catch (SQLException exception) {
+                close();
+                throw new RuntimeException(error, exception);
+            }
+            action.accept(entity);
+            return true;
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            // En orden inverso; si uno falla se cierran los demas igual
+            SQLException failure = closeQuietly(result, null);
+            failure = closeQuietly(statement, failure);
+            failure = closeQuietly(connection, failure);
+            if (failure != null) {
+                throw new RuntimeException(error, failure);
+            }
+        }
+
+        /**
+         * Cierra el recurso, si se llego a abrir.
+         *
+         * @return la primera falla; las siguientes quedan como suprimidas.
+         */
+        private static SQLException closeQuietly(AutoCloseable resource, SQLException failure) {
+            if (resource == null) {
+                return failure;
+            }
+            try {
+                resource.close();
+            } catch (Exception exception) {
+                SQLException sql = exception instanceof SQLException e ? e : new SQLException(exception);
+                if (failure == null) {
+                    return sql;
+                }
+                failure.addSuppressed(sql);
+            }
+            return failure;
+        }
+    }
+}
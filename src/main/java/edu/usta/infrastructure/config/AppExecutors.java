@@ -0,0 +1,60 @@
+package edu.usta.infrastructure.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecutores compartidos para el trabajo que bloquea (consultas JDBC), de modo
+ * que nunca corra en el hilo de JavaFX.
+ *
+ * <p>
+ * Si la JVM soporta hilos virtuales (Java 21+) se usa un hilo virtual por
+ * tarea, porque esperar la base de datos no ocupa un hilo del sistema. En
+ * Java 17, que es la version que compila el proyecto, se usa un pool de hilos
+ * daemon que crece segun la demanda. El numero de consultas simultaneas lo
+ * limita el pool de conexiones, no este ejecutor.
+ * </p>
+ */
+public final class AppExecutors {
+
+    private static final ExecutorService IO = newIoExecutor("app-io");
+
+    private AppExecutors() {
+    }
+
+    /**
+     * @return ejecutor compartido para operaciones de base de datos.
+     */
+    public static ExecutorService io() {
+        return IO;
+    }
+
+    /**
+     * Crea un ejecutor para trabajo que bloquea: hilos virtuales si estan
+     * disponibles, o un pool de hilos daemon en otro caso.
+     *
+     * @param name prefijo del nombre de los hilos (solo en el pool de hilos de
+     *             plataforma).
+     * @return ejecutor nuevo; quien lo crea debe cerrarlo si deja de usarlo.
+     */
+    public static ExecutorService newIoExecutor(String name) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(daemonThreads(name));
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,348 @@
+package edu.usta.infrastructure.config;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.usta.application.dto.SearchResultType;
+import edu.usta.application.search.InMemorySearchEngine;
+import edu.usta.application.usecases.AsyncGenericUseCases;
+import edu.usta.application.usecases.ConcurrencyLimiter;
+import edu.usta.application.usecases.SearchUseCases;
+import edu.usta.domain.entities.BiomedicalEquipment;
+import edu.usta.domain.entities.Equipment;
+import edu.usta.domain.entities.Person;
+import edu.usta.domain.entities.Provider;
+import edu.usta.domain.entities.TechEquipment;
+import edu.usta.domain.repositories.CacheStats;
+import edu.usta.domain.repositories.CachedRepository;
+import edu.usta.domain.repositories.GenericRepository;
+import edu.usta.domain.repositories.JDBCBiomedicalEquipmentRepository;
+import edu.usta.domain.repositories.JDBCEquipmentRepository;
+import edu.usta.domain.repositories.JDBCPersonRepository;
+import edu.usta.domain.repositories.JDBCProviderRepository;
+import edu.usta.domain.repositories.JDBCTechEquipmentRepository;
+import edu.usta.domain.repositories.SingleFlightRepository;
+import edu.usta.infrastructure.db.ChangeNotificationListener;
+import edu.usta.infrastructure.db.DatabaseConnection;
+import edu.usta.infrastructure.db.JDBCSearchRepository;
+import io.github.cdimascio.dotenv.Dotenv;
+
+/**
+ * Punto unico (Singleton) donde se arman los repositorios que usa la
+ * aplicacion.
+ *
+ * <p>
+ * Las pantallas se crean de nuevo cada vez que se abren, asi que si cada
+ * controlador construyera su propio repositorio el cache se perderia en cada
+ * navegacion. Aqui cada repositorio se crea una sola vez con sus decoradores:
+ * </p>
+ *
+ * <pre>
+ * CachedRepository → SingleFlightRepository → JDBC...Repository
+ * </pre>
+ *
+ * <p>
+ * El tamaño y la vigencia del cache se leen del {@code .env} con las claves
+ * {@code CACHE_MAX_SIZE} y {@code CACHE_TTL_SECONDS}.
+ * </p>
+ *
+ * <p>
+ * Para que los cambios hechos desde otra porteria se vean de inmediato, un
+ * {@link ChangeNotificationListener} invalida las entradas que los triggers de
+ * la base de datos reportan como modificadas. Se puede desactivar con
+ * {@code CACHE_NOTIFICATIONS_ENABLED=false}.
+ * </p>
+ *
+ * <p>
+ * Tambien crea un {@link AsyncGenericUseCases} compartido por repositorio.
+ * Todos ellos y la busqueda por categorias usan un solo
+ * {@link ConcurrencyLimiter} sobre {@link AppExecutors#io()}, porque comparten
+ * el mismo pool de conexiones: entre todos admiten a lo sumo
+ * {@code ASYNC_MAX_CONCURRENCY} operaciones simultaneas, sin pasar del tamaño
+ * maximo del pool.
+ * </p>
+ *
+ * <p>
+ * Por ultimo arma el {@link InMemorySearchEngine} de la busqueda instantanea y
+ * lo carga en segundo plano (con notificaciones activas, al conectarse el
+ * {@link ChangeNotificationListener}). Los repositorios que entrega esta clase lo
+ * actualizan en cada escritura. Se puede desactivar con
+ * {@code SEARCH_INDEX_ENABLED=false}.
+ * </p>
+ */
+public class RepositoryFactory {
+    private static final Logger LOGGER = Logger.getLogger(RepositoryFactory.class.getName());
+    private static RepositoryFactory instance;
+
+    private final CachedRepository<Person> persons;
+    private final CachedRepository<Provider> providers;
+    private final CachedRepository<TechEquipment> techEquipment;
+    private final CachedRepository<BiomedicalEquipment> biomedicalEquipment;
+    private final CachedRepository<Equipment> equipment;
+    private final JDBCSearchRepository search;
+    private final SearchUseCases searchUseCases;
+    private final InMemorySearchEngine searchEngine;
+    private final GenericRepository<Person> indexedPersons;
+    private final GenericRepository<Provider> indexedProviders;
+    private final GenericRepository<TechEquipment> indexedTechEquipment;
+    private final GenericRepository<BiomedicalEquipment> indexedBiomedicalEquipment;
+    private final ChangeNotificationListener changeListener;
+
+    private final AsyncGenericUseCases<Person> personUseCases;
+    private final AsyncGenericUseCases<Provider> providerUseCases;
+    private final AsyncGenericUseCases<TechEquipment> techEquipmentUseCases;
+    private final AsyncGenericUseCases<BiomedicalEquipment> biomedicalEquipmentUseCases;
+    private final AsyncGenericUseCases<Equipment> equipmentUseCases;
+
+    private RepositoryFactory() {
+        var dotenv = Dotenv.load();
+        int maxSize = intValue(dotenv, "CACHE_MAX_SIZE", 1_000);
+        Duration ttl = Duration.ofSeconds(intValue(dotenv, "CACHE_TTL_SECONDS", 300));
+        var db = DatabaseConnection.getInstance();
+
+        // Un solo limite para todo lo que pide conexiones del pool
+        int poolSize = db.getPoolConfig().maxSize();
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(
+                Math.min(intValue(dotenv, "ASYNC_MAX_CONCURRENCY", poolSize), poolSize), AppExecutors.io());
+
+        persons = cached(new JDBCPersonRepository(db), Person::getId, maxSize, ttl);
+        providers = cached(new JDBCProviderRepository(db), Provider::getId, maxSize, ttl);
+        techEquipment = cached(new JDBCTechEquipmentRepository(db), TechEquipment::getId, maxSize, ttl);
+        biomedicalEquipment = cached(new JDBCBiomedicalEquipmentRepository(db), BiomedicalEquipment::getId,
+                maxSize, ttl);
+        equipment = cached(new JDBCEquipmentRepository(db), Equipment::getId, maxSize, ttl);
+        search = new JDBCSearchRepository(db);
+        Map<SearchResultType, SearchUseCases.CategorySearch> categories = new EnumMap<>(SearchResultType.class);
+        for (SearchResultType type : SearchResultType.values()) {
+            categories.put(type, (text, limit) -> search.search(text, type, limit));
+        }
+        searchUseCases = new SearchUseCases(categories, limiter,
+                Duration.ofMillis(intValue(dotenv, "SEARCH_TIMEOUT_MS", 3_000)));
+        boolean notifications = Boolean.parseBoolean(dotenv.get("CACHE_NOTIFICATIONS_ENABLED", "true"));
+
+        if (Boolean.parseBoolean(dotenv.get("SEARCH_INDEX_ENABLED", "true"))) {
+            searchEngine = new InMemorySearchEngine(techEquipment, biomedicalEquipment, persons, providers);
+            indexedPersons = searchEngine.indexedPersons(persons);
+            indexedProviders = searchEngine.indexedProviders(providers);
+            indexedTechEquipment = searchEngine.indexedTechEquipment(techEquipment);
+            indexedBiomedicalEquipment = searchEngine.indexedBiomedicalEquipment(biomedicalEquipment);
+            if (!notifications) {
+                // Con notificaciones, el listener carga el indice al conectarse
+                loadSearchEngine();
+            }
+        } else {
+            searchEngine = null;
+            indexedPersons = persons;
+            indexedProviders = providers;
+            indexedTechEquipment = techEquipment;
+            indexedBiomedicalEquipment = biomedicalEquipment;
+        }
+
+        personUseCases = new AsyncGenericUseCases<>(indexedPersons, limiter);
+        providerUseCases = new AsyncGenericUseCases<>(indexedProviders, limiter);
+        techEquipmentUseCases = new AsyncGenericUseCases<>(indexedTechEquipment, limiter);
+        biomedicalEquipmentUseCases = new AsyncGenericUseCases<>(indexedBiomedicalEquipment, limiter);
+        equipmentUseCases = new AsyncGenericUseCases<>(equipment, limiter);
+
+        if (notifications) {
+            changeListener = new ChangeNotificationListener(db::openDedicatedConnection);
+            subscribeInvalidations(changeListener);
+            changeListener.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(changeListener::close, "db-change-listener-shutdown"));
+        } else {
+            changeListener = null;
+        }
+    }
+
+    public static synchronized RepositoryFactory getInstance() {
+        if (instance == null)
+            instance = new RepositoryFactory();
+
+        return instance;
+    }
+
+    public GenericRepository<Person> persons() {
+        return indexedPersons;
+    }
+
+    public GenericRepository<Provider> providers() {
+        return indexedProviders;
+    }
+
+    public GenericRepository<TechEquipment> techEquipment() {
+        return indexedTechEquipment;
+    }
+
+    public GenericRepository<BiomedicalEquipment> biomedicalEquipment() {
+        return indexedBiomedicalEquipment;
+    }
+
+    /**
+     * @return todo el inventario de equipos en una sola consulta; cada equipo
+     *         llega como su subclase.
+     */
+    public GenericRepository<Equipment> equipment() {
+        return equipment;
+    }
+
+    /**
+     * @return busqueda de texto completo en todas las categorias.
+     */
+    public JDBCSearchRepository search() {
+        return search;
+    }
+
+    /**
+     * @return busqueda en paralelo por categoria, con plazo por consulta
+     *         ({@code SEARCH_TIMEOUT_MS}).
+     */
+    public SearchUseCases searchUseCases() {
+        return searchUseCases;
+    }
+
+    /**
+     * @return motor de busqueda instantanea, o {@code null} si esta
+     *         desactivado.
+     */
+    public InMemorySearchEngine searchEngine() {
+        return searchEngine;
+    }
+
+    public AsyncGenericUseCases<Person> personUseCases() {
+        return personUseCases;
+    }
+
+    public AsyncGenericUseCases<Provider> providerUseCases() {
+        return providerUseCases;
+    }
+
+    public AsyncGenericUseCases<TechEquipment> techEquipmentUseCases() {
+        return techEquipmentUseCases;
+    }
+
+    public AsyncGenericUseCases<BiomedicalEquipment> biomedicalEquipmentUseCases() {
+        return biomedicalEquipmentUseCases;
+    }
+
+    public AsyncGenericUseCases<Equipment> equipmentUseCases() {
+        return equipmentUseCases;
+    }
+
+    /**
+     * @return metricas del cache de personas.
+     */
+    public CacheStats personCacheStats() {
+        return persons.stats();
+    }
+
+    /**
+     * @return metricas del cache de proveedores.
+     */
+    public CacheStats providerCacheStats() {
+        return providers.stats();
+    }
+
+    /**
+     * @return metricas del cache de equipos tecnologicos.
+     */
+    public CacheStats techEquipmentCacheStats() {
+        return techEquipment.stats();
+    }
+
+    /**
+     * @return metricas del cache de equipos biomedicos.
+     */
+    public CacheStats biomedicalEquipmentCacheStats() {
+        return biomedicalEquipment.stats();
+    }
+
+    /**
+     * @return metricas del cache del inventario de equipos.
+     */
+    public CacheStats equipmentCacheStats() {
+        return equipment.stats();
+    }
+
+    /**
+     * Conecta las notificaciones de cada tabla con los caches que guardan sus
+     * filas. Los equipos incluyen a su proveedor, por eso un cambio en
+     * {@code provider} vacia tambien los caches de equipos.
+     */
+    private void subscribeInvalidations(ChangeNotificationListener listener) {
+        listener.subscribe("person", persons::invalidate);
+        listener.subscribe("provider", id -> {
+            providers.invalidate(id);
+            techEquipment.invalidateAll();
+            biomedicalEquipment.invalidateAll();
+            equipment.invalidateAll();
+        });
+        listener.subscribe("equipment", id -> {
+            techEquipment.invalidate(id);
+            biomedicalEquipment.invalidate(id);
+            equipment.invalidate(id);
+        });
+        listener.subscribe("tech_equipment", id -> {
+            techEquipment.invalidate(id);
+            equipment.invalidate(id);
+        });
+        listener.subscribe("biomedical_equipment", id -> {
+            biomedicalEquipment.invalidate(id);
+            equipment.invalidate(id);
+        });
+        listener.onResync(() -> {
+            persons.invalidateAll();
+            providers.invalidateAll();
+            techEquipment.invalidateAll();
+            biomedicalEquipment.invalidateAll();
+            equipment.invalidateAll();
+        });
+
+        if (searchEngine != null) {
+            // Despues de invalidar, para que la entidad se lea de la base de datos
+            listener.subscribe("person", id -> refreshSearch(SearchResultType.PERSON, id));
+            listener.subscribe("provider", id -> refreshSearch(SearchResultType.PROVIDER, id));
+            listener.subscribe("equipment", id -> refreshSearch(SearchResultType.EQUIPMENT, id));
+            listener.subscribe("tech_equipment", id -> refreshSearch(SearchResultType.TECH_EQUIPMENT, id));
+            listener.subscribe("biomedical_equipment",
+                    id -> refreshSearch(SearchResultType.BIOMEDICAL_EQUIPMENT, id));
+            listener.onResync(this::loadSearchEngine);
+        }
+    }
+
+    private void loadSearchEngine() {
+        searchEngine.load(AppExecutors.io()).exceptionally(e -> {
+            LOGGER.log(Level.WARNING, "No se pudo cargar el indice de busqueda instantanea", e);
+            return null;
+        });
+    }
+
+    private void refreshSearch(SearchResultType type, UUID id) {
+        CompletableFuture.runAsync(() -> searchEngine.refresh(type, id), AppExecutors.io()).exceptionally(e -> {
+            LOGGER.log(Level.WARNING, "No se pudo actualizar el indice de busqueda para " + id, e);
+            return null;
+        });
+    }
+
+    private static <T> CachedRepository<T> cached(GenericRepository<T> repository,
+            Function<T, String> idOf, int maxSize, Duration ttl) {
+        return new CachedRepository<>(new SingleFlightRepository<>(repository), idOf, maxSize, ttl);
+    }
+
+    private static int intValue(Dotenv dotenv, String key, int defaultValue) {
+        String value = dotenv.get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor numerico invalido para " + key + ": " + value, e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package edu.usta.infrastructure.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Permite detener una operacion que ya esta corriendo cuando su
+ * {@link CompletableFuture} se cancela.
+ *
+ * <p>
+ * Mientras la operacion se ejecuta, el token queda asociado al hilo
+ * ({@link #current()}). La capa de datos lo consulta al pedir una conexion y
+ * registra con {@link #onCancel(Runnable)} como abortar la consulta en curso;
+ * asi, cancelar el futuro tambien detiene el trabajo en la base de datos en
+ * lugar de solo ignorar su resultado.
+ * </p>
+ *
+ * <p>
+ * Los ganchos corren en el hilo que cancela (a menudo el de JavaFX), fuera
+ * del candado del token; por eso deben ser rapidos y pasar cualquier trabajo
+ * bloqueante a otro hilo.
+ * </p>
+ */
+public final class CancellationToken {
+
+    private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+
+    private final List<Runnable> hooks = new ArrayList<>();
+    private boolean cancelled;
+
+    /**
+     * @return el token de la operacion que corre en este hilo, o {@code null}
+     *         si no hay ninguna.
+     */
+    public static CancellationToken current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Cancela este token cuando se cancele el futuro.
+     *
+     * @return el mismo futuro.
+     */
+    public <R> CompletableFuture<R> bind(CompletableFuture<R> future) {
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                cancel();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Ejecuta la operacion en este hilo con el token asociado.
+     *
+     * @throws CancellationException si el token ya estaba cancelado.
+     */
+    public <R> R runWith(Supplier<R> operation) {
+        throwIfCancelled();
+        CancellationToken previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return operation.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Marca la operacion como cancelada y ejecuta los ganchos registrados.
+     */
+    public void cancel() {
+        List<Runnable> toRun;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            toRun = new ArrayList<>(hooks);
+            hooks.clear();
+        }
+        for (Runnable hook : toRun) {
+            hook.run();
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @throws CancellationException si el token esta cancelado.
+     */
+    public void throwIfCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("Operacion cancelada");
+        }
+    }
+
+    /**
+     * Registra como abortar el trabajo en curso. Si el token ya esta cancelado
+     * no lo registra y devuelve {@code false}.
+     *
+     * <p>
+     * El gancho corre sin el candado del token: puede empezar justo cuando otro
+     * hilo llama a {@link #removeOnCancel(Runnable)}, asi que debe comprobar por
+     * su cuenta si el trabajo sigue en curso.
+     * </p>
+     *
+     * @param hook accion que aborta el trabajo, p. ej. cancelar la consulta.
+     * @return {@code true} si quedo registrado.
+     */
+    public synchronized boolean onCancel(Runnable hook) {
+        if (cancelled) {
+            return false;
+        }
+        hooks.add(hook);
+        return true;
+    }
+
+    /**
+     * Quita un gancho registrado con {@link #onCancel(Runnable)} cuando el
+     * trabajo que aborta ya termino.
+     */
+    public synchronized void removeOnCancel(Runnable hook) {
+        hooks.remove(hook);
+    }
+}
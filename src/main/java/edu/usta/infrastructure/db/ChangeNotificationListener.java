@@ -0,0 +1,224 @@
+package edu.usta.infrastructure.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+/**
+ * Escucha el canal {@value #CHANNEL} de PostgreSQL y avisa a los suscriptores
+ * cuando otra instancia de la aplicacion modifica una fila.
+ *
+ * <p>
+ * Los triggers de {@code DDL.sql} publican mensajes {@code "<tabla>:<id>"}.
+ * Este listener mantiene una conexion dedicada (fuera del pool) con
+ * {@code LISTEN}, y un hilo en segundo plano recibe las notificaciones sin
+ * hacer consultas periodicas a las tablas.
+ * </p>
+ *
+ * <p>
+ * Una conexion que solo escucha no envia nada, asi que una conexion TCP medio
+ * abierta nunca daria error. Por eso, tras {@link #KEEPALIVE_INTERVAL} sin
+ * notificaciones se envia un {@code SELECT 1} con un timeout de red: si el
+ * servidor no responde, se trata como una desconexion.
+ * </p>
+ *
+ * <p>
+ * Si la conexion se cae, reintenta con espera exponencial. Mientras estuvo
+ * desconectado se pudieron perder notificaciones, asi que al (re)conectar se
+ * llama a los suscriptores de {@link #onResync(Runnable)} para que descarten
+ * todo lo que tengan en memoria.
+ * </p>
+ */
+public class ChangeNotificationListener implements AutoCloseable {
+
+    /** Canal en el que publican los triggers. */
+    public static final String CHANNEL = "entity_changed";
+
+    private static final Logger LOGGER = Logger.getLogger(ChangeNotificationListener.class.getName());
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final Duration KEEPALIVE_INTERVAL = Duration.ofSeconds(30);
+    private static final Duration NETWORK_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration MIN_BACKOFF = Duration.ofMillis(500);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final ConnectionPool.ConnectionFactory connectionFactory;
+    private final Map<String, List<Consumer<UUID>>> subscribers = new ConcurrentHashMap<>();
+    private final List<Runnable> resyncSubscribers = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread thread;
+
+    /**
+     * @param connectionFactory abre la conexion dedicada al {@code LISTEN}.
+     */
+    public ChangeNotificationListener(ConnectionPool.ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * Registra una accion para los cambios de una tabla.
+     *
+     * @param table    nombre de la tabla, p. ej. {@code "person"}.
+     * @param listener recibe el id de la fila modificada. Se ejecuta en el hilo
+     *                 del listener, por lo que debe ser rapido.
+     */
+    public void subscribe(String table, Consumer<UUID> listener) {
+        subscribers.computeIfAbsent(table, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Registra una accion que se ejecuta cada vez que se establece la conexion,
+     * porque las notificaciones enviadas mientras no habia conexion se pierden.
+     *
+     * @param listener accion a ejecutar, normalmente vaciar un cache.
+     */
+    public void onResync(Runnable listener) {
+        resyncSubscribers.add(listener);
+    }
+
+    /**
+     * Inicia el hilo que escucha las notificaciones.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "db-change-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Detiene el hilo y cierra la conexion dedicada.
+     */
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+        closeQuietly(connection);
+    }
+
+    private void run() {
+        long backoffMillis = MIN_BACKOFF.toMillis();
+
+        while (running) {
+            try (Connection listenConnection = connectionFactory.open();
+                    Statement statement = listenConnection.createStatement()) {
+                connection = listenConnection;
+                listenConnection.setNetworkTimeout(Runnable::run, (int) NETWORK_TIMEOUT.toMillis());
+                statement.execute("LISTEN " + CHANNEL);
+                PGConnection pgConnection = listenConnection.unwrap(PGConnection.class);
+
+                backoffMillis = MIN_BACKOFF.toMillis();
+                resync();
+
+                long lastTraffic = System.nanoTime();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        lastTraffic = System.nanoTime();
+                        for (PGNotification notification : notifications) {
+                            dispatchSafely(notification.getParameter());
+                        }
+                    } else if (System.nanoTime() - lastTraffic >= KEEPALIVE_INTERVAL.toNanos()) {
+                        statement.execute("SELECT 1");
+                        lastTraffic = System.nanoTime();
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                LOGGER.log(Level.WARNING, "Se perdio la conexion de notificaciones; reintento en "
+                        + backoffMillis + " ms", e);
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF.toMillis());
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    private void resync() {
+        for (Runnable listener : resyncSubscribers) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Error al resincronizar despues de conectar", e);
+            }
+        }
+    }
+
+    /**
+     * Un mensaje que no se pudo procesar no debe terminar el hilo.
+     */
+    private void dispatchSafely(String payload) {
+        try {
+            dispatch(payload);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Error al procesar la notificacion " + payload, e);
+        }
+    }
+
+    /**
+     * Interpreta un mensaje {@code "<tabla>:<id>"} y avisa a los suscriptores
+     * de esa tabla.
+     */
+    private void dispatch(String payload) {
+        int separator = payload == null ? -1 : payload.indexOf(':');
+        if (separator <= 0) {
+            LOGGER.warning("Notificacion con formato invalido: " + payload);
+            return;
+        }
+
+        String table = payload.substring(0, separator);
+        UUID id;
+        try {
+            id = UUID.fromString(payload.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warning("Notificacion con id invalido: " + payload);
+            return;
+        }
+
+        for (Consumer<UUID> listener : subscribers.getOrDefault(table, List.of())) {
+            try {
+                listener.accept(id);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Error al procesar la notificacion " + payload, e);
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Se esta cerrando; no hay nada mas que hacer.
+        }
+    }
+}
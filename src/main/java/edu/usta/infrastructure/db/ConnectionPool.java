@@ -0,0 +1,585 @@
+package edu.usta.infrastructure.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.postgresql.PGConnection;
+
+/**
+ * Pool acotado de conexiones JDBC.
+ *
+ * <p>
+ * Mantiene abiertas las conexiones fisicas a PostgreSQL para que cada
+ * operacion de los repositorios no tenga que pagar el handshake TCP y la
+ * autenticacion SCRAM. Los repositorios siguen usando el patron
+ * {@code try (Connection c = db.getConnection())}: el {@code close()} de la
+ * conexion entregada la devuelve al pool en lugar de cerrarla.
+ * </p>
+ *
+ * <ul>
+ * <li>Tamaño minimo y maximo configurables.</li>
+ * <li>Las conexiones ociosas por encima del minimo se cierran tras
+ * {@link PoolConfig#idleTimeout()}.</li>
+ * <li>Validacion con {@link Connection#isValid(int)} al prestar una conexion
+ * que estuvo ociosa mas de {@link PoolConfig#validationInterval()}.</li>
+ * <li>Deteccion de fugas: se registra la traza de quien pidio una conexion
+ * que no se devolvio a tiempo.</li>
+ * <li>Metricas de espera disponibles en {@link #stats()}.</li>
+ * <li>Cancelacion: si el hilo corre con un {@link CancellationToken}, cancelar
+ * el token aborta en el servidor la consulta que este ejecutando la conexion
+ * prestada. La orden de cancelar abre su propio socket, asi que se envia desde
+ * un hilo del pool y no desde el que cancela.</li>
+ * </ul>
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    /** SQLSTATE de PostgreSQL para una consulta cancelada por el usuario. */
+    public static final String QUERY_CANCELED = "57014";
+
+    /**
+     * Abre una nueva conexion fisica contra la base de datos.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final PoolConfig config;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+
+    /** Conexiones ociosas; la cabeza es la usada mas recientemente (LIFO). */
+    private final ArrayDeque<PooledEntry> idle = new ArrayDeque<>();
+    private final Set<PooledEntry> borrowed = ConcurrentHashMap.newKeySet();
+    private int total;
+    private int waiting;
+    private boolean closed;
+
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private final ScheduledExecutorService housekeeper;
+
+    /** Envia las cancelaciones, que abren una conexion nueva al servidor. */
+    private final ExecutorService canceller;
+
+    public ConnectionPool(ConnectionFactory factory, PoolConfig config) {
+        this.factory = factory;
+        this.config = config;
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long period = Math.min(30_000, config.idleTimeout().toMillis() / 2);
+        if (!config.leakThreshold().isZero()) {
+            period = Math.min(period, config.leakThreshold().toMillis() / 2);
+        }
+        period = Math.max(100, period);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, period, TimeUnit.MILLISECONDS);
+
+        this.canceller = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-cancel");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Presta una conexion del pool, esperando como maximo
+     * {@link PoolConfig#connectionTimeout()} si todas estan ocupadas.
+     *
+     * @return conexion cuyo {@code close()} la devuelve al pool.
+     * @throws SQLTimeoutException si no hay conexion disponible a tiempo.
+     * @throws SQLException        si no se pudo abrir una conexion nueva.
+     */
+    public Connection borrow() throws SQLException {
+        CancellationToken token = CancellationToken.current();
+        if (token != null && token.isCancelled()) {
+            throw new SQLException("Consulta cancelada antes de pedir una conexion", QUERY_CANCELED);
+        }
+        final long start = System.nanoTime();
+        final long deadline = start + config.connectionTimeout().toNanos();
+
+        while (true) {
+            PooledEntry entry;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("El pool de conexiones esta cerrado");
+                    }
+                    entry = idle.pollFirst();
+                    if (entry != null) {
+                        break;
+                    }
+                    if (total < config.maxSize()) {
+                        total++;
+                        create = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeouts.incrementAndGet();
+                        throw new SQLTimeoutException("No hubo una conexion disponible en "
+                                + config.connectionTimeout().toMillis() + " ms (activas: "
+                                + borrowed.size() + ", maximo: " + config.maxSize() + ")");
+                    }
+                    waiting++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrumpido esperando una conexion", e);
+                    } finally {
+                        waiting--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                entry = openEntry();
+            } else if (!isUsable(entry)) {
+                discard(entry);
+                continue;
+            }
+
+            recordWait(System.nanoTime() - start);
+            return lend(entry, token);
+        }
+    }
+
+    /**
+     * @return configuracion con la que se creo el pool.
+     */
+    public PoolConfig config() {
+        return config;
+    }
+
+    /**
+     * @return metricas actuales del pool.
+     */
+    public PoolStats stats() {
+        lock.lock();
+        try {
+            return new PoolStats(
+                    total,
+                    idle.size(),
+                    borrowed.size(),
+                    waiting,
+                    borrows.get(),
+                    timeouts.get(),
+                    leaks.get(),
+                    evictions.get(),
+                    totalWaitNanos.get(),
+                    maxWaitNanos.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cierra las conexiones ociosas y detiene el mantenimiento. Las conexiones
+     * prestadas se cierran cuando sus dueños las devuelven.
+     */
+    @Override
+    public void close() {
+        List<PooledEntry> toClose;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        canceller.shutdown();
+        toClose.forEach(this::discard);
+    }
+
+    // ------------------------
+    // PRESTAMO Y DEVOLUCION
+    // ------------------------
+
+    private PooledEntry openEntry() throws SQLException {
+        try {
+            return new PooledEntry(factory.open());
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                total--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private Connection lend(PooledEntry entry, CancellationToken token) throws SQLException {
+        ConnectionHandle handle = new ConnectionHandle(entry);
+        if (token != null) {
+            handle.cancelHook = () -> sendCancel(handle);
+            handle.token = token;
+            if (!token.onCancel(handle.cancelHook)) {
+                giveBack(entry);
+                throw new SQLException("Consulta cancelada antes de pedir una conexion", QUERY_CANCELED);
+            }
+        }
+
+        entry.borrowedAt = System.nanoTime();
+        entry.leakReported = false;
+        entry.borrowSite = config.leakThreshold().isZero() ? null : new Throwable("Conexion prestada aqui");
+        borrowed.add(entry);
+        borrows.incrementAndGet();
+
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                handle);
+    }
+
+    /**
+     * Gancho del token: corre en el hilo que cancela, asi que solo encola la
+     * cancelacion.
+     */
+    private void sendCancel(ConnectionHandle handle) {
+        try {
+            canceller.execute(() -> cancelRunningQuery(handle));
+        } catch (RejectedExecutionException e) {
+            LOGGER.log(Level.FINE, "Pool cerrado; no se cancela la consulta", e);
+        }
+    }
+
+    /**
+     * Pide al servidor abortar la consulta en curso de la conexion, si sigue
+     * prestada al mismo handle. El {@code close()} del handle espera a que
+     * termine, asi la cancelacion nunca alcanza al siguiente usuario.
+     */
+    private static void cancelRunningQuery(ConnectionHandle handle) {
+        synchronized (handle) {
+            if (handle.closed) {
+                return;
+            }
+            PooledEntry entry = handle.entry;
+            try {
+                if (entry.physical.isWrapperFor(PGConnection.class)) {
+                    entry.cancelSent = true;
+                    entry.physical.unwrap(PGConnection.class).cancelQuery();
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "No se pudo cancelar la consulta en curso", e);
+            }
+        }
+    }
+
+    private void giveBack(PooledEntry entry) {
+        borrowed.remove(entry);
+
+        if (entry.cancelSent && !survivedCancel(entry)) {
+            discard(entry);
+            return;
+        }
+
+        if (!reset(entry)) {
+            discard(entry);
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (closed) {
+                total--;
+            } else {
+                entry.lastUsed = System.nanoTime();
+                idle.addFirst(entry);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        closeQuietly(entry);
+    }
+
+    /**
+     * Deja la conexion como la espera el siguiente usuario: sin transaccion
+     * abierta y en modo autocommit.
+     */
+    private boolean reset(PooledEntry entry) {
+        try {
+            Connection physical = entry.physical;
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            physical.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Conexion descartada al devolverla al pool", e);
+            return false;
+        }
+    }
+
+    /**
+     * Si la cancelacion llego mientras corria una consulta, el servidor ya la
+     * aplico y la conexion sirve. Si llego con la conexion ociosa, el servidor
+     * la ignora. Una ida y vuelta lo confirma: si la cancelacion aun estuviera
+     * pendiente, aborta esta validacion y la conexion se descarta, en lugar de
+     * la consulta del siguiente usuario.
+     */
+    private boolean survivedCancel(PooledEntry entry) {
+        entry.cancelSent = false;
+        try {
+            int timeoutSeconds = (int) Math.max(1, config.validationTimeout().toSeconds());
+            return entry.physical.isValid(timeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isUsable(PooledEntry entry) {
+        try {
+            if (entry.physical.isClosed()) {
+                return false;
+            }
+            long idleNanos = System.nanoTime() - entry.lastUsed;
+            if (idleNanos < config.validationInterval().toNanos()) {
+                return true;
+            }
+            int timeoutSeconds = (int) Math.max(1, config.validationTimeout().toSeconds());
+            return entry.physical.isValid(timeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledEntry entry) {
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        evictions.incrementAndGet();
+        closeQuietly(entry);
+    }
+
+    private void closeQuietly(PooledEntry entry) {
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error cerrando conexion fisica", e);
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // ------------------------
+    // MANTENIMIENTO
+    // ------------------------
+
+    private void housekeep() {
+        try {
+            evictIdle();
+            reportLeaks();
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Error en el mantenimiento del pool", e);
+        }
+    }
+
+    private void evictIdle() {
+        List<PooledEntry> expired = new ArrayList<>();
+        long now = System.nanoTime();
+        long idleTimeout = config.idleTimeout().toNanos();
+
+        lock.lock();
+        try {
+            // Las menos usadas estan al final de la cola.
+            Iterator<PooledEntry> iterator = idle.descendingIterator();
+            while (iterator.hasNext() && total - expired.size() > config.minSize()) {
+                PooledEntry entry = iterator.next();
+                if (now - entry.lastUsed < idleTimeout) {
+                    break;
+                }
+                iterator.remove();
+                expired.add(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+        expired.forEach(this::discard);
+    }
+
+    private void reportLeaks() {
+        if (config.leakThreshold().isZero()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long threshold = config.leakThreshold().toNanos();
+
+        for (PooledEntry entry : borrowed) {
+            if (!entry.leakReported && now - entry.borrowedAt > threshold) {
+                entry.leakReported = true;
+                leaks.incrementAndGet();
+                LOGGER.log(Level.WARNING, "Posible fuga de conexion: lleva mas de "
+                        + config.leakThreshold().toMillis() + " ms prestada", entry.borrowSite);
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || total >= config.minSize()) {
+                    return;
+                }
+                total++;
+            } finally {
+                lock.unlock();
+            }
+
+            PooledEntry entry;
+            try {
+                entry = openEntry();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "No se pudo abrir la conexion minima del pool", e);
+                return;
+            }
+
+            lock.lock();
+            try {
+                idle.addLast(entry);
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // ------------------------
+    // CLASES INTERNAS
+    // ------------------------
+
+    /**
+     * Conexion fisica administrada por el pool y su estado de prestamo.
+     */
+    private static final class PooledEntry {
+        private final Connection physical;
+        private volatile long lastUsed = System.nanoTime();
+        private volatile long borrowedAt;
+        private volatile boolean leakReported;
+        private volatile Throwable borrowSite;
+        private volatile boolean cancelSent;
+
+        private PooledEntry(Connection physical) {
+            this.physical = physical;
+        }
+    }
+
+    /**
+     * Vista de la conexion entregada al usuario. Cada prestamo crea un handle
+     * nuevo, asi un handle ya cerrado no puede volver a usar la conexion.
+     */
+    private final class ConnectionHandle implements InvocationHandler {
+        private final PooledEntry entry;
+        private CancellationToken token;
+        private Runnable cancelHook;
+        private boolean closed;
+
+        private ConnectionHandle(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        // Espera a una cancelacion que se este enviando
+                        if (closed) {
+                            return null;
+                        }
+                        closed = true;
+                    }
+                    if (token != null) {
+                        token.removeOnCancel(cancelHook);
+                    }
+                    giveBack(entry);
+                    return null;
+                case "isClosed":
+                    return isClosed() || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + "]";
+                default:
+                    break;
+            }
+
+            if (isClosed()) {
+                throw new SQLException("La conexion ya fue devuelta al pool");
+            }
+
+            try {
+                return method.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private synchronized boolean isClosed() {
+            return closed;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package edu.usta.infrastructure.db;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Properties;
 
 import io.github.cdimascio.dotenv.Dotenv;
 
@@ -12,17 +13,34 @@ import io.github.cdimascio.dotenv.Dotenv;
  * que es usada en toda La aplicacion, permitiendo que no se creen
  * multiples objetos de esta clase, reduciendo asi uso de memoria
  * y evitando multiples llamados a la base de datos.
+ *
+ * <p>
+ * Las conexiones se toman de un {@link ConnectionPool}, configurado con las
+ * claves {@code DB_POOL_*} del {@code .env} (ver {@link PoolConfig}).
+ * </p>
  */
 
 public class DatabaseConnection {
     private static DatabaseConnection instance;
-    private final String url, user, password;
+    private final String url;
+    private final Properties properties = new Properties();
+    private final ConnectionPool pool;
 
     private DatabaseConnection() {
         var dotenv = Dotenv.load();
         url = dotenv.get("DB_URL");
-        user = dotenv.get("DB_USER");
-        password = dotenv.get("DB_PASSWORD");
+        properties.setProperty("user", dotenv.get("DB_USER"));
+        properties.setProperty("password", dotenv.get("DB_PASSWORD"));
+
+        // El driver guarda por conexion las sentencias preparadas en el
+        // servidor: un prepareStatement con un SQL ya usado reutiliza el plan
+        // aunque la sentencia anterior se haya cerrado. Como el pool mantiene
+        // las conexiones abiertas, ese cache sobrevive entre operaciones.
+        properties.setProperty("prepareThreshold", dotenv.get("DB_PREPARE_THRESHOLD", "1"));
+        properties.setProperty("preparedStatementCacheQueries", dotenv.get("DB_STATEMENT_CACHE_SIZE", "256"));
+
+        pool = new ConnectionPool(this::openPhysicalConnection, PoolConfig.fromEnv(dotenv));
+        Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "db-pool-shutdown"));
     }
 
     public static synchronized DatabaseConnection getInstance() {
@@ -32,8 +50,46 @@ public class DatabaseConnection {
         return instance;
     }
 
+    /**
+     * Presta una conexion del pool. Debe cerrarse (idealmente con
+     * try-with-resources) para devolverla.
+     *
+     * @return conexion lista para usar.
+     * @throws SQLException si no hay conexiones disponibles a tiempo.
+     */
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(url, user, password);
+        return pool.borrow();
+    }
+
+    /**
+     * @return configuracion del pool de conexiones, por ejemplo para no lanzar
+     *         mas operaciones simultaneas que conexiones.
+     */
+    public PoolConfig getPoolConfig() {
+        return pool.config();
+    }
+
+    /**
+     * @return metricas de uso del pool de conexiones.
+     */
+    public PoolStats getPoolStats() {
+        return pool.stats();
+    }
+
+    /**
+     * Abre una conexion propia, fuera del pool, para quien necesita mantenerla
+     * ocupada mucho tiempo (por ejemplo un {@code LISTEN}). Quien la abre debe
+     * cerrarla.
+     *
+     * @return conexion fisica nueva.
+     * @throws SQLException si no se puede conectar.
+     */
+    public Connection openDedicatedConnection() throws SQLException {
+        return openPhysicalConnection();
+    }
+
+    private Connection openPhysicalConnection() throws SQLException {
+        return DriverManager.getConnection(url, properties);
     }
 
 }
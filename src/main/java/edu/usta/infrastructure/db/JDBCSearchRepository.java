@@ -0,0 +1,143 @@
+package edu.usta.infrastructure.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+import edu.usta.application.dto.SearchResult;
+import edu.usta.application.dto.SearchResultType;
+
+/**
+ * Busqueda de texto completo sobre todas las categorias a la vez (equipos,
+ * personas y proveedores).
+ *
+ * <p>
+ * Consulta la tabla {@code search_index}, que los triggers de {@code DDL.sql}
+ * mantienen al dia con un {@code tsvector} por entidad. Una busqueda en
+ * todas las categorias es una sola consulta, resuelta con el indice GIN y
+ * ordenada con {@code ts_rank_cd}.
+ * </p>
+ */
+public class JDBCSearchRepository {
+
+    private final DatabaseConnection db;
+
+    private static final String SELECT_SQL = """
+            SELECT
+                entity_type,
+                entity_id,
+                title,
+                detail,
+                extra,
+            """;
+
+    private static final String SEARCH_SQL = SELECT_SQL + """
+                ts_rank_cd(document, query) AS score
+            FROM search_index, to_tsquery('simple', unaccent(?)) AS query
+            WHERE document @@ query
+              AND (CAST(? AS TEXT) IS NULL OR entity_type = ?)
+            ORDER BY score DESC, title, entity_id
+            LIMIT ?
+            """;
+
+    private static final String BROWSE_SQL = SELECT_SQL + """
+                0 AS score
+            FROM search_index
+            WHERE (CAST(? AS TEXT) IS NULL OR entity_type = ?)
+            ORDER BY entity_type, title, entity_id
+            LIMIT ?
+            """;
+
+    public JDBCSearchRepository(DatabaseConnection db) {
+        this.db = db;
+    }
+
+    /**
+     * Busca en todas las categorias.
+     *
+     * @param text  palabras a buscar; cada una puede ser el comienzo de una
+     *              palabra del registro. Vacio lista los primeros registros.
+     * @param limit maximo de resultados.
+     * @return resultados, los mas relevantes primero.
+     */
+    public List<SearchResult> search(String text, int limit) {
+        return search(text, null, limit);
+    }
+
+    /**
+     * Busca en una sola categoria.
+     *
+     * @param text  palabras a buscar.
+     * @param type  categoria; {@code null} busca en todas.
+     * @param limit maximo de resultados.
+     * @return resultados, los mas relevantes primero.
+     */
+    public List<SearchResult> search(String text, SearchResultType type, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("El limite de resultados debe ser positivo: " + limit);
+        }
+        String query = toPrefixQuery(text);
+        String typeName = type == null ? null : type.name();
+
+        List<SearchResult> results = new ArrayList<>();
+
+        try (Connection connection = db.getConnection();
+                PreparedStatement preparedStatement = connection
+                        .prepareStatement(query == null ? BROWSE_SQL : SEARCH_SQL)) {
+
+            int index = 1;
+            if (query != null) {
+                preparedStatement.setString(index++, query);
+            }
+            preparedStatement.setObject(index++, typeName, Types.VARCHAR);
+            preparedStatement.setObject(index++, typeName, Types.VARCHAR);
+            preparedStatement.setInt(index, limit);
+
+            try (ResultSet result = preparedStatement.executeQuery()) {
+                while (result.next()) {
+                    results.add(mapResultSetToSearchResult(result));
+                }
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error searching the search index", exception);
+        }
+        return results;
+    }
+
+    private SearchResult mapResultSetToSearchResult(ResultSet result) throws SQLException {
+        return new SearchResult(
+                result.getString("entity_id"),
+                result.getString("title"),
+                result.getString("detail"),
+                result.getString("extra"),
+                SearchResultType.valueOf(result.getString("entity_type")),
+                result.getDouble("score"));
+    }
+
+    /**
+     * Convierte el texto del usuario en un {@code tsquery} en el que todas las
+     * palabras deben aparecer, cada una como prefijo:
+     * {@code "ana rod"} → {@code 'ana':* & 'rod':*}. Solo se conservan letras y
+     * digitos, asi el texto nunca rompe la sintaxis de {@code to_tsquery}.
+     *
+     * @return la consulta, o {@code null} si el texto no tiene palabras.
+     */
+    static String toPrefixQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringJoiner query = new StringJoiner(" & ");
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                query.add("'" + word + "':*");
+            }
+        }
+        return query.length() == 0 ? null : query.toString();
+    }
+}
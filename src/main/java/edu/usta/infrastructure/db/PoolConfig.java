@@ -0,0 +1,75 @@
+package edu.usta.infrastructure.db;
+
+import java.time.Duration;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+/**
+ * Parametros de configuracion del {@link ConnectionPool}.
+ *
+ * <p>
+ * Los valores se leen del mismo archivo {@code .env} que usa
+ * {@link DatabaseConnection}. Todas las claves {@code DB_POOL_*} son
+ * opcionales; si no existen se usan los valores por defecto.
+ * </p>
+ *
+ * @param minSize            conexiones que el pool intenta mantener abiertas.
+ * @param maxSize            maximo de conexiones fisicas abiertas a la vez.
+ * @param connectionTimeout  tiempo maximo que un hilo espera por una conexion.
+ * @param idleTimeout        tiempo que una conexion puede estar ociosa antes de
+ *                           cerrarse (solo por encima de {@code minSize}).
+ * @param validationInterval si una conexion estuvo ociosa mas que esto, se
+ *                           valida con {@code isValid} antes de entregarla.
+ * @param validationTimeout  tiempo maximo para la validacion.
+ * @param leakThreshold      tiempo prestada tras el cual se reporta una posible
+ *                           fuga; {@link Duration#ZERO} la desactiva.
+ */
+public record PoolConfig(
+        int minSize,
+        int maxSize,
+        Duration connectionTimeout,
+        Duration idleTimeout,
+        Duration validationInterval,
+        Duration validationTimeout,
+        Duration leakThreshold) {
+
+    public PoolConfig {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException(
+                    "Tamaño de pool invalido: min=" + minSize + ", max=" + maxSize);
+        }
+    }
+
+    /**
+     * Construye la configuracion a partir de las variables del {@code .env}.
+     *
+     * @param dotenv variables de entorno cargadas.
+     * @return configuracion del pool.
+     */
+    public static PoolConfig fromEnv(Dotenv dotenv) {
+        return new PoolConfig(
+                intValue(dotenv, "DB_POOL_MIN_SIZE", 2),
+                intValue(dotenv, "DB_POOL_MAX_SIZE", 10),
+                millis(dotenv, "DB_POOL_CONNECTION_TIMEOUT_MS", 30_000),
+                millis(dotenv, "DB_POOL_IDLE_TIMEOUT_MS", 600_000),
+                millis(dotenv, "DB_POOL_VALIDATION_INTERVAL_MS", 1_000),
+                millis(dotenv, "DB_POOL_VALIDATION_TIMEOUT_MS", 5_000),
+                millis(dotenv, "DB_POOL_LEAK_DETECTION_MS", 60_000));
+    }
+
+    private static int intValue(Dotenv dotenv, String key, int defaultValue) {
+        String value = dotenv.get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor numerico invalido para " + key + ": " + value, e);
+        }
+    }
+
+    private static Duration millis(Dotenv dotenv, String key, long defaultValue) {
+        return Duration.ofMillis(intValue(dotenv, key, (int) defaultValue));
+    }
+}
@@ -0,0 +1,42 @@
+package edu.usta.infrastructure.db;
+
+/**
+ * Fotografia de las metricas del {@link ConnectionPool} en un instante.
+ *
+ * @param total         conexiones fisicas abiertas (ociosas + prestadas).
+ * @param idle          conexiones disponibles en el pool.
+ * @param active        conexiones prestadas en este momento.
+ * @param waiting       hilos esperando por una conexion.
+ * @param borrows       prestamos atendidos desde que se creo el pool.
+ * @param timeouts      prestamos que fallaron por tiempo de espera.
+ * @param leaks         conexiones reportadas como posibles fugas.
+ * @param evictions     conexiones cerradas por ociosidad o por estar rotas.
+ * @param totalWaitNanos suma del tiempo de espera de todos los prestamos.
+ * @param maxWaitNanos  mayor tiempo de espera observado.
+ */
+public record PoolStats(
+        int total,
+        int idle,
+        int active,
+        int waiting,
+        long borrows,
+        long timeouts,
+        long leaks,
+        long evictions,
+        long totalWaitNanos,
+        long maxWaitNanos) {
+
+    /**
+     * @return tiempo promedio de espera por conexion, en milisegundos.
+     */
+    public double averageWaitMillis() {
+        return borrows == 0 ? 0 : totalWaitNanos / 1_000_000.0 / borrows;
+    }
+
+    /**
+     * @return mayor tiempo de espera observado, en milisegundos.
+     */
+    public double maxWaitMillis() {
+        return maxWaitNanos / 1_000_000.0;
+    }
+}
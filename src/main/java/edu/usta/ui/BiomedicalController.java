@@ -1,15 +1,16 @@
 package edu.usta.ui;
 
 import java.io.IOException;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+import edu.usta.application.usecases.AsyncGenericUseCases;
 import edu.usta.domain.entities.BiomedicalEquipment;
 import edu.usta.domain.entities.Provider;
 import edu.usta.domain.enums.EquipmentStatus;
 import edu.usta.domain.enums.EquipmentType;
-import edu.usta.domain.repositories.JDBCBiomedicalEquipmentRepository;
-import edu.usta.domain.repositories.JDBCProviderRepository;
-import edu.usta.infrastructure.db.DatabaseConnection;
+import edu.usta.infrastructure.config.RepositoryFactory;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -51,17 +52,17 @@ public class BiomedicalController {
     @FXML
     private TextField imagePathField;
 
-    private JDBCBiomedicalEquipmentRepository repository;
-    private JDBCProviderRepository providerRepository;
+    private AsyncGenericUseCases<BiomedicalEquipment> equipmentUseCases;
+    private AsyncGenericUseCases<Provider> providerUseCases;
 
     public BiomedicalController() {
         // JavaFX exige constructor vacío
     }
 
     public void initialize() {
-        // Crear repositories
-        repository = new JDBCBiomedicalEquipmentRepository(DatabaseConnection.getInstance());
-        providerRepository = new JDBCProviderRepository(DatabaseConnection.getInstance());
+        // Crear casos de uso (las consultas corren fuera del hilo de JavaFX)
+        equipmentUseCases = RepositoryFactory.getInstance().biomedicalEquipmentUseCases();
+        providerUseCases = RepositoryFactory.getInstance().providerUseCases();
 
         // Cargar enums en los ComboBox
         typeField.getItems().addAll(EquipmentType.values());
@@ -75,45 +76,43 @@ public class BiomedicalController {
     }
 
     private void loadProviders() {
-        try {
-            providerField.getItems().clear();
-            providerField.getItems().addAll(providerRepository.findAll());
-
-            // Configurar cómo se muestra el proveedor en el ComboBox
-            providerField.setButtonCell(new javafx.scene.control.ListCell<Provider>() {
-                @Override
-                protected void updateItem(Provider item, boolean empty) {
-                    super.updateItem(item, empty);
-                    if (empty || item == null) {
-                        setText(null);
-                    } else {
-                        setText(item.getName());
-                    }
+        // Configurar cómo se muestra el proveedor en el ComboBox
+        providerField.setButtonCell(new javafx.scene.control.ListCell<Provider>() {
+            @Override
+            protected void updateItem(Provider item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                } else {
+                    setText(item.getName());
                 }
-            });
-
-            providerField.setCellFactory(lv -> new javafx.scene.control.ListCell<Provider>() {
-                @Override
-                protected void updateItem(Provider item, boolean empty) {
-                    super.updateItem(item, empty);
-                    if (empty || item == null) {
-                        setText(null);
-                    } else {
-                        setText(item.getName());
-                    }
+            }
+        });
+
+        providerField.setCellFactory(lv -> new javafx.scene.control.ListCell<Provider>() {
+            @Override
+            protected void updateItem(Provider item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                } else {
+                    setText(item.getName());
                 }
-            });
+            }
+        });
 
-        } catch (Exception e) {
-            showError("Error al cargar proveedores", e.getMessage());
-        }
+        // Cargar en segundo plano; el ComboBox queda deshabilitado mientras tanto
+        providerField.getItems().clear();
+        UiTasks.run(providerField, providerUseCases.findAll(),
+                providers -> providerField.getItems().setAll(providers),
+                e -> showError("Error al cargar proveedores", e.getMessage()));
     }
 
     // ------------------------
     // GUARDAR
     // ------------------------
     @FXML
-    private void onGuardar() {
+    private void onGuardar(ActionEvent event) {
         try {
             // Validaciones
             if (!validateFields()) {
@@ -131,14 +130,22 @@ public class BiomedicalController {
                     riskClassField.getValue(),
                     calibrationCertField.getText().trim());
 
-            BiomedicalEquipment saved = repository.create(equipment);
-
-            // Alerta de éxito
-            showInfo("✓ Registro Exitoso",
-                    "El equipo biomédico se ha registrado correctamente.\n\n" +
-                            "ID generado: " + saved.getId());
-
-            clearFields();
+            UiTasks.run((Node) event.getSource(), EquipmentSerials.createIfUnique(equipmentUseCases, equipment),
+                    saved -> {
+                        // Alerta de éxito
+                        showInfo("✓ Registro Exitoso",
+                                "El equipo biomédico se ha registrado correctamente.\n\n" +
+                                        "ID generado: " + saved.getId());
+
+                        clearFields();
+                    },
+                    e -> {
+                        // Alerta de error
+                        showError("✗ Error al Guardar",
+                                "No se pudo registrar el equipo biomédico.\n\n" +
+                                        "Detalle: " + e.getMessage());
+                        e.printStackTrace();
+                    });
 
         } catch (Exception e) {
             // Alerta de error
@@ -150,53 +157,67 @@ public class BiomedicalController {
     }
 
     // ------------------------
-    // BUSCAR POR ID
+    // BUSCAR POR ID O SERIAL
     // ------------------------
     @FXML
-    private void onBuscar() {
+    private void onBuscar(ActionEvent event) {
         try {
             String idText = serialField.getText().trim();
             if (idText.isEmpty()) {
-                showWarning("Campo vacío", "Ingrese un ID en el campo Serial para buscar");
+                showWarning("Campo vacío", "Ingrese un ID o un serial en el campo Serial para buscar");
                 return;
             }
 
-            UUID id = UUID.fromString(idText);
-            var found = repository.findById(id);
-
-            if (found.isPresent()) {
-                BiomedicalEquipment e = found.get();
-
-                serialField.setText(e.getSerial());
-                brandField.setText(e.getBrand());
-                modelField.setText(e.getModel());
-
-                typeField.setValue(e.getType());
-                stateField.setValue(e.getState());
-                providerField.setValue(e.getProvider());
+            UiTasks.run((Node) event.getSource(), lookup(idText),
+                    found -> {
+                        if (found.isPresent()) {
+                            BiomedicalEquipment e = found.get();
+
+                            serialField.setText(e.getSerial());
+                            brandField.setText(e.getBrand());
+                            modelField.setText(e.getModel());
+
+                            typeField.setValue(e.getType());
+                            stateField.setValue(e.getState());
+                            providerField.setValue(e.getProvider());
+
+                            riskClassField.setValue(e.getRiskClass());
+                            calibrationCertField.setText(e.getCalibrationCert());
+                            imagePathField.setText(e.getImagePath());
+
+                            showInfo("Encontrado", "Equipo cargado correctamente");
+                        } else {
+                            showWarning("No encontrado", "No existe un equipo con ese ID o serial");
+                        }
+                    },
+                    e -> {
+                        showError("Error al buscar", e.getMessage());
+                        e.printStackTrace();
+                    });
 
-                riskClassField.setValue(e.getRiskClass());
-                calibrationCertField.setText(e.getCalibrationCert());
-                imagePathField.setText(e.getImagePath());
-
-                showInfo("Encontrado", "Equipo cargado correctamente");
-            } else {
-                showWarning("No encontrado", "No existe un equipo con ese ID");
-            }
-
-        } catch (IllegalArgumentException e) {
-            showError("ID inválido", "El formato del ID no es válido");
         } catch (Exception e) {
             showError("Error al buscar", e.getMessage());
             e.printStackTrace();
         }
     }
 
+    /**
+     * Un UUID se busca por id; cualquier otro texto se toma como el serial
+     * leido del codigo de barras y se busca con el indice UNIQUE del serial.
+     */
+    private CompletableFuture<Optional<BiomedicalEquipment>> lookup(String text) {
+        try {
+            return equipmentUseCases.findById(UUID.fromString(text));
+        } catch (IllegalArgumentException notAnId) {
+            return equipmentUseCases.findOneBy("serial", text);
+        }
+    }
+
     // ------------------------
     // ACTUALIZAR
     // ------------------------
     @FXML
-    private void onActualizar() {
+    private void onActualizar(ActionEvent event) {
         try {
             String idText = serialField.getText().trim();
             if (idText.isEmpty()) {
@@ -222,8 +243,12 @@ public class BiomedicalController {
                     riskClassField.getValue(),
                     calibrationCertField.getText().trim());
 
-            repository.update(updated);
-            showInfo("Éxito", "Equipo actualizado correctamente");
+            UiTasks.run((Node) event.getSource(), equipmentUseCases.update(updated),
+                    saved -> showInfo("Éxito", "Equipo actualizado correctamente"),
+                    e -> {
+                        showError("Error al actualizar", e.getMessage());
+                        e.printStackTrace();
+                    });
 
         } catch (IllegalArgumentException e) {
             showError("ID inválido", "El formato del ID no es válido");
@@ -237,7 +262,7 @@ public class BiomedicalController {
     // ELIMINAR
     // ------------------------
     @FXML
-    private void onEliminar() {
+    private void onEliminar(ActionEvent event) {
         try {
             String idText = serialField.getText().trim();
             if (idText.isEmpty()) {
@@ -246,14 +271,19 @@ public class BiomedicalController {
             }
 
             UUID id = UUID.fromString(idText);
-            boolean deleted = repository.delete(id);
-
-            if (deleted) {
-                showInfo("Éxito", "Equipo eliminado correctamente");
-                clearFields();
-            } else {
-                showWarning("No encontrado", "No se encontró el equipo para eliminar");
-            }
+            UiTasks.run((Node) event.getSource(), equipmentUseCases.delete(id),
+                    deleted -> {
+                        if (deleted) {
+                            showInfo("Éxito", "Equipo eliminado correctamente");
+                            clearFields();
+                        } else {
+                            showWarning("No encontrado", "No se encontró el equipo para eliminar");
+                        }
+                    },
+                    e -> {
+                        showError("Error al eliminar", e.getMessage());
+                        e.printStackTrace();
+                    });
 
         } catch (IllegalArgumentException e) {
             showError("ID inválido", "El formato del ID no es válido");
@@ -1,19 +1,39 @@
 package edu.usta.ui;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+import edu.usta.application.dto.CategoryResult;
+import edu.usta.application.dto.FacetedResult;
+import edu.usta.application.dto.SearchResult;
+import edu.usta.application.dto.SearchResultType;
+import edu.usta.application.search.InMemorySearchEngine;
+import edu.usta.application.usecases.AsyncGenericUseCases;
+import edu.usta.application.usecases.GenericUseCases;
+import edu.usta.application.usecases.SearchUseCases;
 import edu.usta.domain.entities.BiomedicalEquipment;
 import edu.usta.domain.entities.Person;
 import edu.usta.domain.entities.Provider;
 import edu.usta.domain.entities.TechEquipment;
-import edu.usta.domain.repositories.JDBCBiomedicalEquipmentRepository;
-import edu.usta.domain.repositories.JDBCPersonRepository;
-import edu.usta.domain.repositories.JDBCProviderRepository;
-import edu.usta.domain.repositories.JDBCTechEquipmentRepository;
-import edu.usta.infrastructure.db.DatabaseConnection;
-import javafx.beans.property.SimpleStringProperty;
+import edu.usta.domain.repositories.Criteria;
+import edu.usta.domain.repositories.FacetCounts;
+import edu.usta.domain.repositories.FacetCounts.FacetValue;
+import edu.usta.domain.repositories.Page;
+import edu.usta.domain.repositories.PageCursor;
+import edu.usta.domain.repositories.PageSort;
+import edu.usta.infrastructure.config.RepositoryFactory;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -25,10 +45,14 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
+import javafx.util.Duration;
+import javafx.util.StringConverter;
 
 public class BuscarRegistrosController {
 
@@ -59,19 +83,115 @@ public class BuscarRegistrosController {
     @FXML
     private Label resultCountLabel;
 
-    // Repositorios
-    private JDBCTechEquipmentRepository techRepo;
-    private JDBCBiomedicalEquipmentRepository bioRepo;
-    private JDBCPersonRepository personRepo;
-    private JDBCProviderRepository providerRepo;
+    @FXML
+    private HBox facetBar;
+
+    @FXML
+    private ComboBox<FacetValue> typeFacet;
+
+    @FXML
+    private ComboBox<FacetValue> stateFacet;
+
+    @FXML
+    private ComboBox<FacetValue> providerFacet;
+
+    @FXML
+    private ComboBox<FacetValue> riskFacet;
+
+    // Casos de uso (las consultas corren fuera del hilo de JavaFX)
+    private AsyncGenericUseCases<TechEquipment> techUseCases;
+    private AsyncGenericUseCases<BiomedicalEquipment> bioUseCases;
+    private AsyncGenericUseCases<Person> personUseCases;
+    private AsyncGenericUseCases<Provider> providerUseCases;
+    private SearchUseCases searchUseCases;
+    private InMemorySearchEngine searchEngine;
+
+    /** Máximo de filas que se piden por categoría. */
+    private static final int SEARCH_LIMIT = 200;
+
+    /** Espera despues de la ultima tecla antes de consultar la base de datos. */
+    private static final Duration DEBOUNCE = Duration.millis(300);
+
+    private final PauseTransition debounce = new PauseTransition(DEBOUNCE);
+
+    /**
+     * Consultas de la busqueda en curso. Se cancelan cuando cambia el texto,
+     * lo que tambien aborta la consulta en la base de datos.
+     */
+    private final Queue<CompletableFuture<?>> inFlight = new ConcurrentLinkedQueue<>();
+
+    /** Aumenta con cada busqueda; descarta resultados de busquedas anteriores. */
+    private int searchGeneration;
+
+    /** Filas por pagina al recorrer una categoria sin texto de busqueda. */
+    private static final int PAGE_SIZE = 100;
+
+    /** Paginas que conserva en memoria el recorrido; unas 2000 filas. */
+    private static final int MAX_CACHED_PAGES = 20;
+
+    /**
+     * Recorrido paginado en curso. Es {@code null} cuando la tabla muestra
+     * resultados de una busqueda.
+     */
+    private PagedList<SearchResult> pagedRows;
+    private long knownTotal;
+
+    /** Facetas de los equipos tecnologicos. */
+    private static final List<String> TECH_FACETS = List.of("type", "state", "provider");
+
+    /** Facetas de los equipos biomedicos. */
+    private static final List<String> BIO_FACETS = List.of("type", "state", "provider", "riskclass");
+
+    /**
+     * Atributos en los que se busca el texto con facetas elegidas; las mismas
+     * columnas que usa {@code search()} en los equipos.
+     */
+    private static final List<String> EQUIPMENT_TEXT_FIELDS = List.of("serial", "brand", "model");
+
+    /**
+     * Muestra cada valor de faceta con su conteo; el valor sin filtro
+     * ({@code value == null}) se muestra como "Todos".
+     */
+    private static final StringConverter<FacetValue> FACET_TEXT = new StringConverter<>() {
+        @Override
+        public String toString(FacetValue facet) {
+            if (facet == null) {
+                return "";
+            }
+            return (facet.value() == null ? "Todos" : facet.label()) + " (" + facet.count() + ")";
+        }
+
+        @Override
+        public FacetValue fromString(String text) {
+            return null;
+        }
+    };
+
+    /** Selector de cada faceta, por atributo. */
+    private final Map<String, ComboBox<FacetValue>> facetBoxes = new LinkedHashMap<>();
+
+    /**
+     * Verdadero mientras se cambian las opciones de las facetas desde el
+     * codigo, para no lanzar otra busqueda por ese cambio.
+     */
+    private boolean updatingFacets;
+
+    /**
+     * Con el indice en memoria la tabla responde sin consultar la base de
+     * datos; los conteos de las facetas se actualizan al dejar de escribir.
+     */
+    private final PauseTransition facetRefresh = new PauseTransition(DEBOUNCE);
 
     @FXML
     public void initialize() {
-        // Inicializar repositorios
-        techRepo = new JDBCTechEquipmentRepository(DatabaseConnection.getInstance());
-        bioRepo = new JDBCBiomedicalEquipmentRepository(DatabaseConnection.getInstance());
-        personRepo = new JDBCPersonRepository(DatabaseConnection.getInstance());
-        providerRepo = new JDBCProviderRepository(DatabaseConnection.getInstance());
+        // Inicializar casos de uso
+        RepositoryFactory repositories = RepositoryFactory.getInstance();
+        techUseCases = repositories.techEquipmentUseCases();
+        bioUseCases = repositories.biomedicalEquipmentUseCases();
+        personUseCases = repositories.personUseCases();
+        providerUseCases = repositories.providerUseCases();
+        searchUseCases = repositories.searchUseCases();
+        searchEngine = repositories.searchEngine();
 
         // Configurar ComboBox
         typeSelector.setItems(FXCollections.observableArrayList(
@@ -82,175 +202,602 @@ public class BuscarRegistrosController {
                 "Todos"));
 
         // Configurar columnas de la tabla
-        colId.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getId()));
-        colName.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getName()));
-        colDetail.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getDetail()));
-        colExtra.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getExtra()));
-        colType.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getType()));
+        showText(colId, SearchResult::getId);
+        showText(colName, SearchResult::getName);
+        showText(colDetail, SearchResult::getDetail);
+        showText(colExtra, SearchResult::getExtra);
+        showText(colType, SearchResult::getType);
 
         // Inicializar contador
         resultCountLabel.setText("0 registros encontrados");
+
+        // Facetas
+        facetBoxes.put("type", typeFacet);
+        facetBoxes.put("state", stateFacet);
+        facetBoxes.put("provider", providerFacet);
+        facetBoxes.put("riskclass", riskFacet);
+        facetBoxes.values().forEach(box -> {
+            box.setConverter(FACET_TEXT);
+            box.valueProperty().addListener((observable, oldValue, newValue) -> facetChanged());
+        });
+
+        // Resultados mientras se escribe
+        debounce.setOnFinished(event -> startSearch(false));
+        facetRefresh.setOnFinished(event -> refreshFacets(typeSelector.getValue(), searchGeneration));
+        searchField.textProperty().addListener((observable, oldText, newText) -> queryChanged());
+        typeSelector.valueProperty().addListener((observable, oldType, newType) -> {
+            resetFacets(newType);
+            queryChanged();
+        });
+    }
+
+    /**
+     * Cada tecla cancela la busqueda en curso. Si el indice en memoria esta
+     * listo responde de inmediato; si no, se consulta la base de datos cuando
+     * el usuario deja de escribir por {@link #DEBOUNCE}.
+     */
+    private void queryChanged() {
+        cancelSearch();
+        String type = typeSelector.getValue();
+        if (type == null || type.isEmpty()) {
+            debounce.stop();
+        } else if (searchField.getText().isBlank() && !type.equals("Todos")) {
+            // Sin texto se recorre la categoria por paginas
+            debounce.stop();
+            startSearch(false);
+        } else if (searchEngine != null && searchEngine.isReady() && !hasFacetFilter()) {
+            // El indice no sabe filtrar por facetas
+            debounce.stop();
+            searchAsYouType(type);
+            if (!facetsOf(type).isEmpty()) {
+                facetRefresh.playFromStart();
+            }
+        } else {
+            debounce.playFromStart();
+        }
+    }
+
+    /**
+     * Muestra en la columna un texto de la fila sin crear una propiedad por
+     * celda en cada repintado: la celda lee el {@link SearchResult} de su fila,
+     * que ya trae los textos armados. Las filas de un {@link PagedList} que aun
+     * no llegan ({@code null}) quedan en blanco.
+     */
+    private static void showText(TableColumn<SearchResult, String> column, Function<SearchResult, String> text) {
+        column.setCellFactory(c -> new TableCell<>() {
+            @Override
+            public void updateIndex(int index) {
+                super.updateIndex(index);
+                refresh();
+            }
+
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                refresh();
+            }
+
+            private void refresh() {
+                SearchResult row = isEmpty() || getTableRow() == null ? null : getTableRow().getItem();
+                setText(row == null ? null : text.apply(row));
+            }
+        });
+    }
+
+    // ------------------------
+    // BUSQUEDA INSTANTÁNEA
+    // ------------------------
+    /**
+     * Actualiza la tabla con cada tecla. Responde el indice en memoria, que
+     * tarda menos de un milisegundo, asi que corre en el hilo de JavaFX.
+     */
+    private void searchAsYouType(String type) {
+        List<SearchResult> results = searchEngine.search(searchField.getText(), categoryOf(type), SEARCH_LIMIT);
+        resultTable.setItems(FXCollections.observableArrayList(results));
+        resultCountLabel.setText(results.size() + " registro(s) encontrado(s)");
+    }
+
+    /**
+     * @return categoria elegida en el selector, o {@code null} para "Todos".
+     */
+    private static SearchResultType categoryOf(String type) {
+        switch (type) {
+            case "Equipos Tecnológicos":
+                return SearchResultType.TECH_EQUIPMENT;
+            case "Equipos Biomédicos":
+                return SearchResultType.BIOMEDICAL_EQUIPMENT;
+            case "Personas":
+                return SearchResultType.PERSON;
+            case "Proveedores":
+                return SearchResultType.PROVIDER;
+            default:
+                return null;
+        }
     }
 
     // ------------------------
     // BUSCAR
     // ------------------------
     @FXML
-    private void search() {
+    private void search(ActionEvent event) {
         String type = typeSelector.getValue();
-        String query = searchField.getText().trim();
 
         if (type == null || type.isEmpty()) {
             showWarning("Selección requerida", "Por favor seleccione una categoría para buscar");
             return;
         }
 
-        ObservableList<SearchResult> results = FXCollections.observableArrayList();
+        // El boton consulta la base de datos sin esperar, aunque el indice
+        // este listo, para incluir la busqueda por similitud.
+        debounce.stop();
+        startSearch(true);
+    }
 
-        try {
-            switch (type) {
-                case "Equipos Tecnológicos":
-                    results = searchTechEquipment(query);
-                    break;
-                case "Equipos Biomédicos":
-                    results = searchBiomedical(query);
-                    break;
-                case "Personas":
-                    results = searchPersons(query);
-                    break;
-                case "Proveedores":
-                    results = searchProviders(query);
-                    break;
-                case "Todos":
-                    results = searchAll(query);
-                    break;
-            }
+    /**
+     * Lanza una consulta por categoria y agrega las filas a la tabla a medida
+     * que cada una responde, sin esperar a las demas.
+     *
+     * @param fromButton si la pidio el boton Buscar; solo entonces se avisa con
+     *                   un dialogo que no hubo resultados o que fallo.
+     */
+    private void startSearch(boolean fromButton) {
+        String type = typeSelector.getValue();
+        if (type == null || type.isEmpty()) {
+            return;
+        }
+        String query = searchField.getText().trim();
 
-            resultTable.setItems(results);
-            resultCountLabel.setText(results.size() + " registro(s) encontrado(s)");
+        cancelSearch();
+        int generation = searchGeneration;
 
-            if (results.isEmpty()) {
-                showInfo("Sin resultados", "No se encontraron registros que coincidan con la búsqueda");
-            }
+        ObservableList<SearchResult> rows = FXCollections.observableArrayList();
+        resultTable.setItems(rows);
+        resultCountLabel.setText("Buscando...");
 
-        } catch (Exception e) {
-            showError("Error en la búsqueda",
-                    "Ocurrió un error al buscar: " + e.getMessage());
-            e.printStackTrace();
+        if (type.equals("Todos")) {
+            searchAll(query, fromButton, generation, rows);
+            return;
         }
+        if (hasFacetFilter()) {
+            searchByFacets(type, query, fromButton, generation, rows);
+            return;
+        }
+        refreshFacets(type, generation);
+        if (query.isEmpty()) {
+            browse(type, generation);
+            return;
+        }
+        List<CompletableFuture<List<SearchResult>>> parts = categorySearches(type, query);
+
+        int[] pending = { parts.size() };
+        for (CompletableFuture<List<SearchResult>> part : parts) {
+            inFlight.add(part);
+            UiTasks.run(null, part,
+                    results -> {
+                        if (generation != searchGeneration) {
+                            return;
+                        }
+                        rows.addAll(results);
+                        pending[0]--;
+                        showCount(rows.size(), pending[0]);
+
+                        if (pending[0] == 0 && rows.isEmpty() && fromButton) {
+                            showInfo("Sin resultados", "No se encontraron registros que coincidan con la búsqueda");
+                        }
+                    },
+                    e -> {
+                        if (generation != searchGeneration) {
+                            return;
+                        }
+                        pending[0]--;
+                        showCount(rows.size(), pending[0]);
+                        e.printStackTrace();
+                        if (fromButton) {
+                            showError("Error en la búsqueda",
+                                    "Ocurrió un error al buscar: " + e.getMessage());
+                        }
+                    });
+        }
+    }
+
+    private void showCount(int found, int pending) {
+        resultCountLabel.setText(found + " registro(s) encontrado(s)" + (pending > 0 ? " - buscando..." : ""));
     }
 
     // ------------------------
-    // BÚSQUEDAS POR TIPO
+    // RECORRIDO POR PÁGINAS
     // ------------------------
-    private ObservableList<SearchResult> searchTechEquipment(String query) {
-        ObservableList<SearchResult> results = FXCollections.observableArrayList();
-
-        List<TechEquipment> allEquipment = techRepo.findAll();
-
-        for (TechEquipment eq : allEquipment) {
-            // Buscar por ID, serial, marca, modelo
-            if (query.isEmpty() ||
-                    eq.getId().toString().toLowerCase().contains(query.toLowerCase()) ||
-                    eq.getSerial().toLowerCase().contains(query.toLowerCase()) ||
-                    eq.getBrand().toLowerCase().contains(query.toLowerCase()) ||
-                    eq.getModel().toLowerCase().contains(query.toLowerCase())) {
-
-                results.add(new SearchResult(
-                        eq.getId().toString(),
-                        eq.getSerial(),
-                        eq.getBrand() + " - " + eq.getModel(),
-                        "OS: " + eq.getOs() + " | RAM: " + eq.getRamGb() + "GB",
-                        "Equipo Tecnológico"));
-            }
+    /**
+     * Muestra la categoria completa sin cargarla toda: la tabla recibe un
+     * {@link PagedList} que lee con {@code findPage} solo las paginas que se
+     * ven y conserva las ultimas {@link #MAX_CACHED_PAGES}.
+     */
+    private void browse(String type, int generation) {
+        Function<PageCursor, CompletableFuture<Page<SearchResult>>> loader;
+        CompletableFuture<Long> total;
+        switch (type) {
+            case "Equipos Tecnológicos":
+                loader = cursor -> techUseCases.findPage(cursor, PAGE_SIZE, PageSort.ascending("serial"))
+                        .thenApply(page -> toResults(page, SearchResult::of));
+                total = techUseCases.total();
+                break;
+            case "Equipos Biomédicos":
+                loader = cursor -> bioUseCases.findPage(cursor, PAGE_SIZE, PageSort.ascending("serial"))
+                        .thenApply(page -> toResults(page, SearchResult::of));
+                total = bioUseCases.total();
+                break;
+            case "Personas":
+                loader = cursor -> personUseCases.findPage(cursor, PAGE_SIZE, PageSort.ascending("full_name"))
+                        .thenApply(page -> toResults(page, SearchResult::of));
+                total = personUseCases.total();
+                break;
+            case "Proveedores":
+                loader = cursor -> providerUseCases.findPage(cursor, PAGE_SIZE, PageSort.ascending("name"))
+                        .thenApply(page -> toResults(page, SearchResult::of));
+                total = providerUseCases.total();
+                break;
+            default:
+                return;
         }
+        knownTotal = -1;
 
-        return results;
+        PagedList<SearchResult> rows = new PagedList<>(loader, PAGE_SIZE, MAX_CACHED_PAGES, e -> {
+            showError("Error en la búsqueda", "Ocurrió un error al cargar los registros: " + e.getMessage());
+            e.printStackTrace();
+        });
+        rows.addListener((ListChangeListener<SearchResult>) change -> showPageCount(rows));
+        pagedRows = rows;
+        resultTable.setItems(rows);
+
+        UiTasks.run(null, track(total),
+                count -> {
+                    if (generation == searchGeneration) {
+                        knownTotal = count;
+                        showPageCount(rows);
+                    }
+                },
+                Throwable::printStackTrace);
     }
 
-    private ObservableList<SearchResult> searchBiomedical(String query) {
-        ObservableList<SearchResult> results = FXCollections.observableArrayList();
+    private void showPageCount(PagedList<SearchResult> rows) {
+        String text = rows.size() + " registro(s) cargado(s)";
+        if (knownTotal >= 0 && !rows.isComplete()) {
+            // Por encima del limite el total es una estimacion
+            String approx = knownTotal >= GenericUseCases.EXACT_COUNT_LIMIT ? "~" : "";
+            text += " de " + approx + Math.max(knownTotal, rows.size());
+        }
+        resultCountLabel.setText(text);
+    }
 
-        List<BiomedicalEquipment> allEquipment = bioRepo.findAll();
+    private static <T> Page<SearchResult> toResults(Page<T> page, Function<T, SearchResult> mapper) {
+        return new Page<>(toResults(page.items(), mapper), page.next());
+    }
 
-        for (BiomedicalEquipment eq : allEquipment) {
-            // Buscar por ID, serial, marca, modelo
-            if (query.isEmpty() ||
-                    eq.getId().toString().toLowerCase().contains(query.toLowerCase()) ||
-                    eq.getSerial().toLowerCase().contains(query.toLowerCase()) ||
-                    eq.getBrand().toLowerCase().contains(query.toLowerCase()) ||
-                    eq.getModel().toLowerCase().contains(query.toLowerCase())) {
+    /**
+     * Cancela las consultas de la busqueda anterior y descarta sus resultados
+     * pendientes.
+     */
+    private void cancelSearch() {
+        searchGeneration++;
+        if (pagedRows != null) {
+            pagedRows.close();
+            pagedRows = null;
+        }
+        CompletableFuture<?> pending;
+        while ((pending = inFlight.poll()) != null) {
+            pending.cancel(false);
+        }
+    }
 
-                results.add(new SearchResult(
-                        eq.getId().toString(),
-                        eq.getSerial(),
-                        eq.getBrand() + " - " + eq.getModel(),
-                        "Clase: " + eq.getRiskClass() + " | Cert: " + eq.getCalibrationCert(),
-                        "Equipo Biomédico"));
-            }
+    /**
+     * @return una consulta por cada categoria que se muestra.
+     */
+    private List<CompletableFuture<List<SearchResult>>> categorySearches(String type, String query) {
+        switch (type) {
+            case "Equipos Tecnológicos":
+                return List.of(searchTechEquipment(query));
+            case "Equipos Biomédicos":
+                return List.of(searchBiomedical(query));
+            case "Personas":
+                return List.of(searchPersons(query));
+            case "Proveedores":
+                return List.of(searchProviders(query));
+            default:
+                return List.of();
         }
+    }
 
-        return results;
+    // ------------------------
+    // BÚSQUEDAS POR TIPO
+    // ------------------------
+    // El filtro, el orden por relevancia y el límite se aplican en la base de
+    // datos; aquí solo se convierten las filas devueltas.
+
+    /**
+     * Busca por subcadena y, si no hay coincidencias, por similitud, para
+     * encontrar el registro aunque el texto tenga errores de digitación.
+     */
+    private <T> CompletableFuture<List<T>> searchOrSimilar(AsyncGenericUseCases<T> useCases, String query) {
+        return track(useCases.search(query, SEARCH_LIMIT)).thenCompose(found -> found.isEmpty() && !query.isEmpty()
+                ? track(useCases.searchSimilar(query, SEARCH_LIMIT))
+                : CompletableFuture.completedFuture(found));
     }
 
-    private ObservableList<SearchResult> searchPersons(String query) {
-        ObservableList<SearchResult> results = FXCollections.observableArrayList();
+    /**
+     * Registra una consulta para que {@link #cancelSearch()} la cancele; las
+     * consultas encadenadas no se cancelan al cancelar el futuro final.
+     */
+    private <R> CompletableFuture<R> track(CompletableFuture<R> query) {
+        inFlight.add(query);
+        return query;
+    }
 
-        List<Person> allPersons = personRepo.findAll();
+    private CompletableFuture<List<SearchResult>> searchTechEquipment(String query) {
+        return searchOrSimilar(techUseCases, query).thenApply(found -> toResults(found, SearchResult::of));
+    }
 
-        for (Person p : allPersons) {
-            // Buscar por ID, nombre, documento
-            if (query.isEmpty() ||
-                    p.getId().toString().toLowerCase().contains(query.toLowerCase()) ||
-                    p.getFullname().toLowerCase().contains(query.toLowerCase()) ||
-                    p.getDocument().toLowerCase().contains(query.toLowerCase())) {
+    private CompletableFuture<List<SearchResult>> searchBiomedical(String query) {
+        return searchOrSimilar(bioUseCases, query).thenApply(found -> toResults(found, SearchResult::of));
+    }
 
-                results.add(new SearchResult(
-                        p.getId().toString(),
-                        p.getFullname(),
-                        "Documento: " + p.getDocument(),
-                        "Rol: " + p.getRole(),
-                        "Persona"));
-            }
-        }
+    private CompletableFuture<List<SearchResult>> searchPersons(String query) {
+        return searchOrSimilar(personUseCases, query).thenApply(found -> toResults(found, SearchResult::of));
+    }
 
+    private CompletableFuture<List<SearchResult>> searchProviders(String query) {
+        return searchOrSimilar(providerUseCases, query).thenApply(found -> toResults(found, SearchResult::of));
+    }
+
+    private static <T> List<SearchResult> toResults(List<T> found, Function<T, SearchResult> mapper) {
+        List<SearchResult> results = new ArrayList<>(found.size());
+        for (T entity : found) {
+            results.add(mapper.apply(entity));
+        }
         return results;
     }
 
-    private ObservableList<SearchResult> searchProviders(String query) {
-        ObservableList<SearchResult> results = FXCollections.observableArrayList();
+    /**
+     * Busca en todas las categorias en paralelo con {@link SearchUseCases}.
+     * Cada categoria se agrega a la tabla cuando llega; las que no responden
+     * dentro del plazo se indican en el contador.
+     */
+    private void searchAll(String query, boolean fromButton, int generation, ObservableList<SearchResult> rows) {
+        int[] pending = { SearchResultType.values().length };
+        List<String> missing = new ArrayList<>();
+
+        CompletableFuture<List<CategoryResult>> all = searchUseCases.search(query,
+                EnumSet.allOf(SearchResultType.class), SEARCH_LIMIT,
+                partial -> Platform.runLater(() -> {
+                    if (generation != searchGeneration) {
+                        return;
+                    }
+                    pending[0]--;
+                    if (partial.isComplete()) {
+                        rows.addAll(partial.getResults());
+                    } else {
+                        missing.add(partial.getType().getLabel());
+                        if (partial.getError() != null) {
+                            partial.getError().printStackTrace();
+                        }
+                    }
+                    showCount(rows.size(), pending[0]);
+                    if (!missing.isEmpty()) {
+                        resultCountLabel.setText(resultCountLabel.getText()
+                                + " - sin respuesta: " + String.join(", ", missing));
+                    }
+                }));
+        inFlight.add(all);
+
+        UiTasks.run(null, all,
+                categories -> {
+                    if (generation == searchGeneration && rows.isEmpty() && missing.isEmpty() && fromButton) {
+                        showInfo("Sin resultados", "No se encontraron registros que coincidan con la búsqueda");
+                    }
+                },
+                e -> {
+                    e.printStackTrace();
+                    if (generation == searchGeneration && fromButton) {
+                        showError("Error en la búsqueda", "Ocurrió un error al buscar: " + e.getMessage());
+                    }
+                });
+    }
 
-        List<Provider> allProviders = providerRepo.findAll();
+    // ------------------------
+    // FACETAS
+    // ------------------------
+    /**
+     * @return las facetas de la categoria; vacia si no tiene.
+     */
+    private static List<String> facetsOf(String type) {
+        if ("Equipos Tecnológicos".equals(type)) {
+            return TECH_FACETS;
+        }
+        if ("Equipos Biomédicos".equals(type)) {
+            return BIO_FACETS;
+        }
+        return List.of();
+    }
+
+    /**
+     * @return los casos de uso de una categoria con facetas, o {@code null}.
+     */
+    private AsyncGenericUseCases<?> facetUseCases(String type) {
+        if ("Equipos Tecnológicos".equals(type)) {
+            return techUseCases;
+        }
+        if ("Equipos Biomédicos".equals(type)) {
+            return bioUseCases;
+        }
+        return null;
+    }
 
-        for (Provider p : allProviders) {
-            // Buscar por ID, nombre, tax ID, email
-            if (query.isEmpty() ||
-                    p.getId().toString().toLowerCase().contains(query.toLowerCase()) ||
-                    p.getName().toLowerCase().contains(query.toLowerCase()) ||
-                    p.getTaxId().toLowerCase().contains(query.toLowerCase()) ||
-                    p.getContactEmail().toLowerCase().contains(query.toLowerCase())) {
+    /**
+     * Muestra solo los selectores de la categoria, sin selecciones ni
+     * opciones; se llenan con la siguiente busqueda.
+     */
+    private void resetFacets(String type) {
+        List<String> facets = facetsOf(type);
+        updatingFacets = true;
+        try {
+            facetBar.setVisible(!facets.isEmpty());
+            facetBar.setManaged(!facets.isEmpty());
+            facetBoxes.forEach((name, box) -> {
+                boolean shown = facets.contains(name);
+                box.setVisible(shown);
+                box.setManaged(shown);
+                box.setValue(null);
+                box.getItems().clear();
+            });
+        } finally {
+            updatingFacets = false;
+        }
+    }
 
-                results.add(new SearchResult(
-                        p.getId().toString(),
-                        p.getName(),
-                        "Tax ID: " + p.getTaxId(),
-                        "Email: " + p.getContactEmail(),
-                        "Proveedor"));
+    private boolean hasFacetFilter() {
+        for (ComboBox<FacetValue> box : facetBoxes.values()) {
+            if (box.isVisible() && box.getValue() != null && box.getValue().value() != null) {
+                return true;
             }
         }
+        return false;
+    }
 
-        return results;
+    /**
+     * Filtro de las facetas elegidas. El texto de busqueda se aplica al
+     * serial, la marca y el modelo, igual que la busqueda sin facetas.
+     */
+    private Criteria facetCriteria(String query) {
+        Criteria criteria = new Criteria();
+        facetBoxes.forEach((name, box) -> {
+            FacetValue selected = box.getValue();
+            if (box.isVisible() && selected != null && selected.value() != null) {
+                criteria.equal(name, selected.value());
+            }
+        });
+        if (!query.isEmpty()) {
+            criteria.containsAny(EQUIPMENT_TEXT_FIELDS, query);
+        }
+        return criteria;
     }
 
-    private ObservableList<SearchResult> searchAll(String query) {
-        ObservableList<SearchResult> results = FXCollections.observableArrayList();
+    /**
+     * Elegir un valor vuelve a buscar; no se recarga la pantalla, solo la
+     * tabla y los conteos.
+     */
+    private void facetChanged() {
+        if (updatingFacets) {
+            return;
+        }
+        debounce.stop();
+        facetRefresh.stop();
+        startSearch(false);
+    }
 
-        results.addAll(searchTechEquipment(query));
-        results.addAll(searchBiomedical(query));
-        results.addAll(searchPersons(query));
-        results.addAll(searchProviders(query));
+    @FXML
+    private void clearFacets() {
+        resetFacets(typeSelector.getValue());
+        queryChanged();
+    }
 
-        return results;
+    /**
+     * Trae las entidades y los conteos de las facetas con el filtro elegido:
+     * dos consultas en paralelo, los conteos de todas las facetas en una.
+     */
+    private void searchByFacets(String type, String query, boolean fromButton, int generation,
+            ObservableList<SearchResult> rows) {
+        Criteria criteria = facetCriteria(query).orderBy(PageSort.ascending("serial")).limit(SEARCH_LIMIT);
+        List<String> facets = facetsOf(type);
+        CompletableFuture<FacetedResult<SearchResult>> search;
+        switch (type) {
+            case "Equipos Tecnológicos":
+                search = facetedSearch(techUseCases, criteria, facets, SearchResult::of);
+                break;
+            case "Equipos Biomédicos":
+                search = facetedSearch(bioUseCases, criteria, facets, SearchResult::of);
+                break;
+            default:
+                return;
+        }
+
+        UiTasks.run(null, search,
+                result -> {
+                    if (generation != searchGeneration) {
+                        return;
+                    }
+                    rows.setAll(result.getItems());
+                    showFacets(result.getCounts());
+                    resultCountLabel.setText(rows.size() + " de " + result.getCounts().total()
+                            + " registro(s) encontrado(s)");
+                    if (rows.isEmpty() && fromButton) {
+                        showInfo("Sin resultados", "No se encontraron registros que coincidan con la búsqueda");
+                    }
+                },
+                e -> {
+                    if (generation != searchGeneration) {
+                        return;
+                    }
+                    showCount(rows.size(), 0);
+                    e.printStackTrace();
+                    if (fromButton) {
+                        showError("Error en la búsqueda", "Ocurrió un error al buscar: " + e.getMessage());
+                    }
+                });
+    }
+
+    private <T> CompletableFuture<FacetedResult<SearchResult>> facetedSearch(AsyncGenericUseCases<T> useCases,
+            Criteria criteria, List<String> facets, Function<T, SearchResult> mapper) {
+        return track(useCases.facetedSearch(criteria, facets))
+                .thenApply(result -> new FacetedResult<>(toResults(result.getItems(), mapper), result.getCounts()));
+    }
+
+    /**
+     * Actualiza solo los conteos de las facetas para el texto de busqueda,
+     * mientras la tabla se llena por otro camino.
+     */
+    private void refreshFacets(String type, int generation) {
+        AsyncGenericUseCases<?> useCases = facetUseCases(type);
+        if (useCases == null) {
+            return;
+        }
+        Criteria criteria = facetCriteria(searchField.getText().trim());
+        UiTasks.run(null, track(useCases.facetCounts(criteria, facetsOf(type))),
+                counts -> {
+                    if (generation == searchGeneration) {
+                        showFacets(counts);
+                    }
+                },
+                Throwable::printStackTrace);
+    }
+
+    /**
+     * Pone los conteos en los selectores sin lanzar otra busqueda. Un selector
+     * con un valor elegido conserva sus opciones: sus conteos nuevos vendrian
+     * filtrados por ese mismo valor y no dejarian cambiar a otro.
+     */
+    private void showFacets(FacetCounts counts) {
+        updatingFacets = true;
+        try {
+            facetBoxes.forEach((name, box) -> {
+                FacetValue selected = box.getValue();
+                if (!box.isVisible() || (selected != null && selected.value() != null)) {
+                    return;
+                }
+                List<FacetValue> options = new ArrayList<>();
+                FacetValue all = new FacetValue(null, "Todos", counts.total());
+                options.add(all);
+                for (FacetValue facet : counts.get(name)) {
+                    // Las entidades sin valor cuentan en el total pero no se
+                    // pueden elegir como filtro
+                    if (facet.value() != null) {
+                        options.add(facet);
+                    }
+                }
+                box.getItems().setAll(options);
+                box.setValue(selected == null ? null : all);
+            });
+        } finally {
+            updatingFacets = false;
+        }
     }
 
     // ------------------------
@@ -260,6 +807,9 @@ public class BuscarRegistrosController {
     private void clearSearch() {
         searchField.clear();
         typeSelector.getSelectionModel().clearSelection();
+        debounce.stop();
+        facetRefresh.stop();
+        cancelSearch();
         resultTable.getItems().clear();
         resultCountLabel.setText("0 registros encontrados");
         showInfo("Limpiado", "La búsqueda ha sido limpiada");
@@ -306,43 +856,4 @@ public class BuscarRegistrosController {
         alert.setContentText(message);
         alert.showAndWait();
     }
-
-    // ------------------------
-    // CLASE INTERNA PARA RESULTADOS
-    // ------------------------
-    public static class SearchResult {
-        private final String id;
-        private final String name;
-        private final String detail;
-        private final String extra;
-        private final String type;
-
-        public SearchResult(String id, String name, String detail, String extra, String type) {
-            this.id = id;
-            this.name = name;
-            this.detail = detail;
-            this.extra = extra;
-            this.type = type;
-        }
-
-        public String getId() {
-            return id;
-        }
-
-        public String getName() {
-            return name;
-        }
-
-        public String getDetail() {
-            return detail;
-        }
-
-        public String getExtra() {
-            return extra;
-        }
-
-        public String getType() {
-            return type;
-        }
-    }
-}
\ No newline at end of file
+}
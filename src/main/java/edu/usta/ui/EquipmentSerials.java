@@ -0,0 +1,39 @@
+package edu.usta.ui;
+
+import java.util.concurrent.CompletableFuture;
+
+import edu.usta.application.usecases.AsyncGenericUseCases;
+import edu.usta.domain.entities.Equipment;
+import edu.usta.infrastructure.config.RepositoryFactory;
+
+/**
+ * Alta de equipos comun a los formularios de cada tipo de equipo.
+ */
+final class EquipmentSerials {
+
+    private EquipmentSerials() {
+    }
+
+    /**
+     * Guarda el equipo si su serial no esta registrado. El serial es UNIQUE en
+     * toda la tabla {@code equipment}, asi que se busca en el inventario
+     * completo y no solo entre los equipos del mismo tipo. La restriccion sigue
+     * siendo la garantia final.
+     *
+     * @param useCases  casos de uso del tipo de equipo que se guarda.
+     * @param equipment equipo nuevo.
+     * @return el equipo guardado, o un {@link IllegalArgumentException} si el
+     *         serial ya existe.
+     */
+    static <E extends Equipment> CompletableFuture<E> createIfUnique(AsyncGenericUseCases<E> useCases,
+            E equipment) {
+        return RepositoryFactory.getInstance().equipmentUseCases().exists("serial", equipment.getSerial())
+                .thenCompose(taken -> {
+                    if (taken) {
+                        throw new IllegalArgumentException(
+                                "Ya existe un equipo con el serial " + equipment.getSerial());
+                    }
+                    return useCases.create(equipment);
+                });
+    }
+}
@@ -0,0 +1,173 @@
+package edu.usta.ui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import edu.usta.domain.repositories.Page;
+import edu.usta.domain.repositories.PageCursor;
+import javafx.collections.ObservableListBase;
+
+/**
+ * Lista de solo lectura para un {@code TableView} que trae las filas de la
+ * base de datos por paginas a medida que la tabla las pide.
+ *
+ * <p>
+ * La tabla solo llama a {@link #get(int)} para las filas visibles. Si la
+ * pagina de esa fila esta en memoria la devuelve; si no, la pide en segundo
+ * plano, devuelve {@code null} (fila en blanco) y avisa a la tabla cuando
+ * llega. Pedir la ultima pagina conocida trae tambien la siguiente, asi la
+ * lista crece mientras el usuario baja.
+ * </p>
+ *
+ * <p>
+ * Solo se guardan las {@code maxCachedPages} paginas usadas mas
+ * recientemente. De las demas queda su cursor de inicio, con el que se
+ * vuelven a leer si el usuario regresa a ellas. La memoria no depende de
+ * cuantas filas se hayan recorrido, salvo un cursor por pagina.
+ * </p>
+ *
+ * <p>
+ * Todos los metodos deben usarse en el hilo de JavaFX.
+ * </p>
+ *
+ * @param <T> tipo de fila.
+ */
+final class PagedList<T> extends ObservableListBase<T> {
+
+    private final Function<PageCursor, CompletableFuture<Page<T>>> loader;
+    private final int pageSize;
+    private final Consumer<Throwable> onError;
+
+    /** Cursor con el que empieza cada pagina conocida. */
+    private final List<PageCursor> starts = new ArrayList<>();
+
+    /** Paginas en memoria, de la menos a la mas usada. */
+    private final LinkedHashMap<Integer, List<T>> pages;
+
+    /** Paginas pedidas que aun no llegan. */
+    private final Map<Integer, CompletableFuture<Page<T>>> loading = new HashMap<>();
+
+    private int size;
+    private boolean complete;
+    private boolean closed;
+
+    /**
+     * Crea la lista y pide la primera pagina.
+     *
+     * @param loader         lee la pagina que empieza en el cursor.
+     * @param pageSize       filas por pagina; debe coincidir con el limite que
+     *                       usa {@code loader}.
+     * @param maxCachedPages paginas que se conservan en memoria.
+     * @param onError        recibe los errores de carga en el hilo de JavaFX.
+     */
+    PagedList(Function<PageCursor, CompletableFuture<Page<T>>> loader, int pageSize, int maxCachedPages,
+            Consumer<Throwable> onError) {
+        this.loader = loader;
+        this.pageSize = pageSize;
+        this.onError = onError;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+        starts.add(PageCursor.FIRST);
+        load(0);
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int page = index / pageSize;
+        if (!complete && page >= starts.size() - 2) {
+            // El usuario llego a la ultima pagina cargada: traer la siguiente
+            load(starts.size() - 1);
+        }
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            load(page);
+            return null;
+        }
+        int offset = index % pageSize;
+        return offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code true} cuando ya se conoce la ultima pagina.
+     */
+    boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Cancela las cargas pendientes; la lista deja de cambiar.
+     */
+    void close() {
+        closed = true;
+        loading.values().forEach(future -> future.cancel(true));
+        loading.clear();
+    }
+
+    private void load(int page) {
+        if (closed || page >= starts.size() || loading.containsKey(page)) {
+            return;
+        }
+        CompletableFuture<Page<T>> future = loader.apply(starts.get(page));
+        loading.put(page, future);
+        UiTasks.run(null, future,
+                result -> {
+                    if (!closed) {
+                        loading.remove(page);
+                        loaded(page, result);
+                    }
+                },
+                error -> {
+                    if (!closed) {
+                        loading.remove(page);
+                        complete = true;
+                        onError.accept(error);
+                    }
+                });
+    }
+
+    private void loaded(int page, Page<T> result) {
+        pages.put(page, result.items());
+        int from = page * pageSize;
+        int oldSize = size;
+
+        if (page == starts.size() - 1 && !complete) {
+            // Primera vez que llega la ultima pagina conocida: la lista crece
+            if (result.hasNext()) {
+                starts.add(result.next());
+            } else {
+                complete = true;
+            }
+            size = from + result.items().size();
+        }
+
+        beginChange();
+        if (from < oldSize) {
+            // Pagina que se habia descartado: reemplazar las filas en blanco
+            int to = Math.min(from + pageSize, oldSize);
+            nextReplace(from, to, Collections.nCopies(to - from, null));
+        }
+        if (size > oldSize) {
+            nextAdd(oldSize, size);
+        }
+        endChange();
+    }
+}
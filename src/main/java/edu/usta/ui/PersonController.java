@@ -1,11 +1,12 @@
 package edu.usta.ui;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
+import edu.usta.application.usecases.AsyncGenericUseCases;
 import edu.usta.domain.entities.Person;
 import edu.usta.domain.enums.Role;
-import edu.usta.domain.repositories.JDBCPersonRepository;
-import edu.usta.infrastructure.db.DatabaseConnection;
+import edu.usta.infrastructure.config.RepositoryFactory;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -29,7 +30,7 @@ public class PersonController {
     @FXML
     private ComboBox<Role> roleField;
 
-    private JDBCPersonRepository repository;
+    private AsyncGenericUseCases<Person> useCases;
 
     public PersonController() {
         // Constructor vacío requerido por JavaFX
@@ -37,7 +38,7 @@ public class PersonController {
 
     public void initialize() {
         // Inicializar repositorio
-        repository = new JDBCPersonRepository(DatabaseConnection.getInstance());
+        useCases = RepositoryFactory.getInstance().personUseCases();
 
         // Cargar roles en el ComboBox
         roleField.getItems().addAll(Role.values());
@@ -47,7 +48,7 @@ public class PersonController {
     // GUARDAR
     // ------------------------
     @FXML
-    private void savePerson() {
+    private void savePerson(ActionEvent event) {
         try {
             // Validaciones
             if (!validateFields()) {
@@ -59,14 +60,22 @@ public class PersonController {
                     documentField.getText().trim(),
                     roleField.getValue());
 
-            Person saved = repository.create(person);
-
-            // Alerta de éxito
-            showInfo(" Registro Exitoso",
-                    "La persona se ha registrado correctamente.\n\n" +
-                            "ID generado: " + saved.getId());
-
-            clearFields();
+            UiTasks.run((Node) event.getSource(), createIfUnique(person),
+                    saved -> {
+                        // Alerta de éxito
+                        showInfo(" Registro Exitoso",
+                                "La persona se ha registrado correctamente.\n\n" +
+                                        "ID generado: " + saved.getId());
+
+                        clearFields();
+                    },
+                    e -> {
+                        // Alerta de error
+                        showError("✗ Error al Guardar",
+                                "No se pudo registrar la persona.\n\n" +
+                                        "Detalle: " + e.getMessage());
+                        e.printStackTrace();
+                    });
 
         } catch (Exception e) {
             // Alerta de error
@@ -77,6 +86,22 @@ public class PersonController {
         }
     }
 
+    /**
+     * Guarda la persona si su documento no esta registrado. Consultar antes
+     * evita depender del error del INSERT; la restriccion UNIQUE sigue siendo
+     * la garantia final.
+     */
+    private CompletableFuture<Person> createIfUnique(Person person) {
+        return useCases.exists("document", person.getDocument())
+                .thenCompose(taken -> {
+                    if (taken) {
+                        throw new IllegalArgumentException(
+                                "Ya existe una persona con el documento " + person.getDocument());
+                    }
+                    return useCases.create(person);
+                });
+    }
+
     // ------------------------
     // CANCELAR
     // ------------------------
@@ -1,10 +1,11 @@
 package edu.usta.ui;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
+import edu.usta.application.usecases.AsyncGenericUseCases;
 import edu.usta.domain.entities.Provider;
-import edu.usta.domain.repositories.JDBCProviderRepository;
-import edu.usta.infrastructure.db.DatabaseConnection;
+import edu.usta.infrastructure.config.RepositoryFactory;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -27,7 +28,7 @@ public class ProviderController {
     @FXML
     private TextField emailField;
 
-    private JDBCProviderRepository repository;
+    private AsyncGenericUseCases<Provider> useCases;
 
     public ProviderController() {
         // Constructor vacío requerido por JavaFX
@@ -35,14 +36,14 @@ public class ProviderController {
 
     public void initialize() {
         // Inicializar repositorio
-        repository = new JDBCProviderRepository(DatabaseConnection.getInstance());
+        useCases = RepositoryFactory.getInstance().providerUseCases();
     }
 
     // ------------------------
     // GUARDAR
     // ------------------------
     @FXML
-    private void saveProvider() {
+    private void saveProvider(ActionEvent event) {
         try {
             // Validaciones
             if (!validateFields()) {
@@ -60,14 +61,22 @@ public class ProviderController {
                     taxIdField.getText().trim(),
                     emailField.getText().trim());
 
-            Provider saved = repository.create(provider);
-
-            // Alerta de exito
-            showInfo("✓ Registro Exitoso",
-                    "El proveedor se ha registrado correctamente.\n\n" +
-                            "ID generado: " + saved.getId());
-
-            clearFields();
+            UiTasks.run((Node) event.getSource(), createIfUnique(provider),
+                    saved -> {
+                        // Alerta de éxito
+                        showInfo("✓ Registro Exitoso",
+                                "El proveedor se ha registrado correctamente.\n\n" +
+                                        "ID generado: " + saved.getId());
+
+                        clearFields();
+                    },
+                    e -> {
+                        // Alerta de error
+                        showError("✗ Error al Guardar",
+                                "No se pudo registrar el proveedor.\n\n" +
+                                        "Detalle: " + e.getMessage());
+                        e.printStackTrace();
+                    });
 
         } catch (Exception e) {
             // Alerta de error
@@ -78,6 +87,27 @@ public class ProviderController {
         }
     }
 
+    /**
+     * Guarda el proveedor si su NIT y su correo no estan registrados; ambas
+     * consultas corren a la vez. La restriccion UNIQUE sigue siendo la
+     * garantia final.
+     */
+    private CompletableFuture<Provider> createIfUnique(Provider provider) {
+        CompletableFuture<Boolean> taxIdTaken = useCases.exists("taxId", provider.getTaxId());
+        CompletableFuture<Boolean> emailTaken = useCases.exists("contact_email", provider.getContactEmail());
+
+        return taxIdTaken.thenCombine(emailTaken, (taxId, email) -> {
+            if (taxId) {
+                throw new IllegalArgumentException("Ya existe un proveedor con el NIT " + provider.getTaxId());
+            }
+            if (email) {
+                throw new IllegalArgumentException(
+                        "Ya existe un proveedor con el correo " + provider.getContactEmail());
+            }
+            return provider;
+        }).thenCompose(useCases::create);
+    }
+
     // ------------------------
     // CANCELAR / LIMPIAR
     // ------------------------
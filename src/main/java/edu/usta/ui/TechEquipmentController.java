@@ -2,13 +2,12 @@ package edu.usta.ui;
 
 import java.io.IOException;
 
+import edu.usta.application.usecases.AsyncGenericUseCases;
 import edu.usta.domain.entities.Provider;
 import edu.usta.domain.entities.TechEquipment;
 import edu.usta.domain.enums.EquipmentStatus;
 import edu.usta.domain.enums.EquipmentType;
-import edu.usta.domain.repositories.JDBCProviderRepository;
-import edu.usta.domain.repositories.JDBCTechEquipmentRepository;
-import edu.usta.infrastructure.db.DatabaseConnection;
+import edu.usta.infrastructure.config.RepositoryFactory;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -50,17 +49,17 @@ public class TechEquipmentController {
     @FXML
     private TextField imageField;
 
-    private JDBCTechEquipmentRepository repository;
-    private JDBCProviderRepository providerRepository;
+    private AsyncGenericUseCases<TechEquipment> equipmentUseCases;
+    private AsyncGenericUseCases<Provider> providerUseCases;
 
     public TechEquipmentController() {
         // Constructor vacío requerido por JavaFX
     }
 
     public void initialize() {
-        // Inicializar repositorios
-        repository = new JDBCTechEquipmentRepository(DatabaseConnection.getInstance());
-        providerRepository = new JDBCProviderRepository(DatabaseConnection.getInstance());
+        // Inicializar casos de uso (las consultas corren fuera del hilo de JavaFX)
+        equipmentUseCases = RepositoryFactory.getInstance().techEquipmentUseCases();
+        providerUseCases = RepositoryFactory.getInstance().providerUseCases();
 
         // Cargar enums en ComboBox
         typeBox.getItems().addAll(EquipmentType.values());
@@ -71,45 +70,43 @@ public class TechEquipmentController {
     }
 
     private void loadProviders() {
-        try {
-            providerBox.getItems().clear();
-            providerBox.getItems().addAll(providerRepository.findAll());
-
-            // Configurar visualización del proveedor en el ComboBox
-            providerBox.setButtonCell(new javafx.scene.control.ListCell<Provider>() {
-                @Override
-                protected void updateItem(Provider item, boolean empty) {
-                    super.updateItem(item, empty);
-                    if (empty || item == null) {
-                        setText(null);
-                    } else {
-                        setText(item.getName());
-                    }
+        // Configurar visualización del proveedor en el ComboBox
+        providerBox.setButtonCell(new javafx.scene.control.ListCell<Provider>() {
+            @Override
+            protected void updateItem(Provider item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                } else {
+                    setText(item.getName());
                 }
-            });
-
-            providerBox.setCellFactory(lv -> new javafx.scene.control.ListCell<Provider>() {
-                @Override
-                protected void updateItem(Provider item, boolean empty) {
-                    super.updateItem(item, empty);
-                    if (empty || item == null) {
-                        setText(null);
-                    } else {
-                        setText(item.getName());
-                    }
+            }
+        });
+
+        providerBox.setCellFactory(lv -> new javafx.scene.control.ListCell<Provider>() {
+            @Override
+            protected void updateItem(Provider item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                } else {
+                    setText(item.getName());
                 }
-            });
+            }
+        });
 
-        } catch (Exception e) {
-            showError("Error al cargar proveedores", e.getMessage());
-        }
+        // Cargar en segundo plano; el ComboBox queda deshabilitado mientras tanto
+        providerBox.getItems().clear();
+        UiTasks.run(providerBox, providerUseCases.findAll(),
+                providers -> providerBox.getItems().setAll(providers),
+                e -> showError("Error al cargar proveedores", e.getMessage()));
     }
 
     // ------------------------
     // GUARDAR
     // ------------------------
     @FXML
-    private void saveTech() {
+    private void saveTech(ActionEvent event) {
         try {
             // Validaciones
             if (!validateFields()) {
@@ -140,14 +137,22 @@ public class TechEquipmentController {
                     osField.getText().trim(),
                     ram);
 
-            TechEquipment saved = repository.create(equipment);
-
-            // Alerta de éxito
-            showInfo("✓ Registro Exitoso",
-                    "El equipo tecnológico se ha registrado correctamente.\n\n" +
-                            "ID generado: " + saved.getId());
-
-            clearFields();
+            UiTasks.run((Node) event.getSource(), EquipmentSerials.createIfUnique(equipmentUseCases, equipment),
+                    saved -> {
+                        // Alerta de éxito
+                        showInfo("✓ Registro Exitoso",
+                                "El equipo tecnológico se ha registrado correctamente.\n\n" +
+                                        "ID generado: " + saved.getId());
+
+                        clearFields();
+                    },
+                    e -> {
+                        // Alerta de error
+                        showError("✗ Error al Guardar",
+                                "No se pudo registrar el equipo tecnológico.\n\n" +
+                                        "Detalle: " + e.getMessage());
+                        e.printStackTrace();
+                    });
 
         } catch (Exception e) {
             // Alerta de error
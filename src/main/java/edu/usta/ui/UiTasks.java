@@ -0,0 +1,97 @@
+package edu.usta.ui;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+import javafx.scene.Cursor;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+
+/**
+ * Utilidades para ejecutar operaciones de base de datos desde los
+ * controladores sin congelar la interfaz.
+ *
+ * <p>
+ * Mientras la operacion corre, el control que la inicio queda deshabilitado y
+ * la ventana muestra el cursor de espera. El resultado (o el error) se entrega
+ * en el hilo de JavaFX con {@link Platform#runLater(Runnable)}. Si la operacion
+ * se cancela, no se llama a ninguno de los dos.
+ * </p>
+ */
+final class UiTasks {
+
+    /** Clave en las propiedades de la escena para contar operaciones activas. */
+    private static final String BUSY_COUNT = UiTasks.class.getName() + ".busy";
+
+    private UiTasks() {
+    }
+
+    /**
+     * Espera una operacion en segundo plano y publica su resultado en el hilo
+     * de JavaFX. Debe llamarse desde el hilo de JavaFX.
+     *
+     * @param busyNode  control que se deshabilita mientras dura la operacion;
+     *                  puede ser {@code null}.
+     * @param operation operacion ya iniciada, por ejemplo de
+     *                  {@code AsyncGenericUseCases}.
+     * @param onSuccess recibe el resultado en el hilo de JavaFX.
+     * @param onError   recibe el error (sin envolver) en el hilo de JavaFX.
+     * @return la misma operacion, para poder cancelarla.
+     */
+    static <R> CompletableFuture<R> run(Node busyNode, CompletableFuture<R> operation,
+            Consumer<R> onSuccess, Consumer<Throwable> onError) {
+        Scene scene = busyNode == null ? null : busyNode.getScene();
+        markBusy(busyNode, scene);
+
+        operation.whenComplete((result, error) -> Platform.runLater(() -> {
+            markIdle(busyNode, scene);
+            if (operation.isCancelled()) {
+                return;
+            }
+            if (error == null) {
+                onSuccess.accept(result);
+            } else {
+                Throwable cause = unwrap(error);
+                if (!(cause instanceof CancellationException)) {
+                    onError.accept(cause);
+                }
+            }
+        }));
+        return operation;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static void markBusy(Node node, Scene scene) {
+        if (node != null) {
+            node.setDisable(true);
+        }
+        if (scene != null) {
+            int busy = (int) scene.getProperties().getOrDefault(BUSY_COUNT, 0);
+            scene.getProperties().put(BUSY_COUNT, busy + 1);
+            scene.setCursor(Cursor.WAIT);
+        }
+    }
+
+    private static void markIdle(Node node, Scene scene) {
+        if (node != null) {
+            node.setDisable(false);
+        }
+        if (scene != null) {
+            int busy = (int) scene.getProperties().getOrDefault(BUSY_COUNT, 1) - 1;
+            scene.getProperties().put(BUSY_COUNT, busy);
+            if (busy <= 0) {
+                scene.setCursor(Cursor.DEFAULT);
+            }
+        }
+    }
+}